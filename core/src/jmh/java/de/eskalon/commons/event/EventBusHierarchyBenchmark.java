@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.event;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of looking up the subscribers of events with deep type
+ * hierarchies. {@link #lookup()} resolves the subscribers of all supertypes
+ * in the subscriber registry, {@link #post()} uses the per-class dispatch
+ * cache.
+ * <p>
+ * Run via
+ * {@code gradlew :core:jmh -Pjmh.includes=EventBusHierarchyBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventBusHierarchyBenchmark {
+
+	private static final Class<?>[] HIERARCHY = { Level0.class, Level1.class,
+			Level2.class, Level3.class, Level4.class, Level5.class,
+			Level6.class, Level7.class, Level8.class, Level9.class,
+			Level10.class, Level11.class, Level12.class, Level13.class,
+			Level14.class, Level15.class };
+
+	/**
+	 * The number of classes between the posted event and {@link Object}.
+	 */
+	@Param({ "1", "4", "16" })
+	public int depth;
+
+	private EventBus bus;
+	private Class<?> eventClass;
+	private Object event;
+
+	@Setup
+	public void setUp() throws ReflectiveOperationException {
+		bus = new EventBus();
+		bus.register(new RootSubscriber());
+		bus.register(Level0.class, (ev) -> {
+		});
+
+		eventClass = HIERARCHY[depth - 1];
+		event = eventClass.getDeclaredConstructor().newInstance();
+	}
+
+	@Benchmark
+	public Subscriber[] lookup() {
+		return bus.collectSubscribers(eventClass);
+	}
+
+	@Benchmark
+	public void post() {
+		bus.post(event);
+	}
+
+	public static class RootSubscriber {
+		@Subscribe
+		public void onEvent(Marker ev) {
+			// only the lookup is measured
+		}
+	}
+
+	public interface Marker {
+	}
+
+	public static class Level0 implements Marker {
+	}
+
+	public static class Level1 extends Level0 implements Marker {
+	}
+
+	public static class Level2 extends Level1 implements Marker {
+	}
+
+	public static class Level3 extends Level2 implements Marker {
+	}
+
+	public static class Level4 extends Level3 implements Marker {
+	}
+
+	public static class Level5 extends Level4 implements Marker {
+	}
+
+	public static class Level6 extends Level5 implements Marker {
+	}
+
+	public static class Level7 extends Level6 implements Marker {
+	}
+
+	public static class Level8 extends Level7 implements Marker {
+	}
+
+	public static class Level9 extends Level8 implements Marker {
+	}
+
+	public static class Level10 extends Level9 implements Marker {
+	}
+
+	public static class Level11 extends Level10 implements Marker {
+	}
+
+	public static class Level12 extends Level11 implements Marker {
+	}
+
+	public static class Level13 extends Level12 implements Marker {
+	}
+
+	public static class Level14 extends Level13 implements Marker {
+	}
+
+	public static class Level15 extends Level14 implements Marker {
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.event;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.eskalon.commons.event.EventQueueBus.OverflowPolicy;
+
+/**
+ * Measures the throughput of an {@link EventQueueBus} with 1, 4 and 16
+ * producer threads posting events and a single thread dispatching them.
+ * <p>
+ * Run via {@code gradlew :core:jmh -Pjmh.includes=EventQueueBusBenchmark}.
+ * Adding {@code -Pjmh.profilers=gc} shows that posting to the ring buffer
+ * does not allocate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class EventQueueBusBenchmark {
+
+	/**
+	 * Producers back off once this many events are queued. Otherwise the
+	 * unbounded queue would grow until the JVM runs out of memory.
+	 */
+	private static final int SOFT_LIMIT = 4096;
+
+	@Param({ "UNBOUNDED", "RING_BUFFER" })
+	public QueueType queueType;
+
+	private EventQueueBus bus;
+	private TestEvent event;
+
+	@Setup
+	public void setUp() {
+		if (queueType == QueueType.UNBOUNDED)
+			bus = new EventQueueBus(Runnable::run);
+		else
+			bus = new EventQueueBus(Runnable::run, SOFT_LIMIT,
+					OverflowPolicy.DROP_NEWEST);
+		bus.register(TestEvent.class, (ev) -> {
+		});
+
+		event = new TestEvent();
+	}
+
+	private void post() {
+		if (bus.getQueueSize() < SOFT_LIMIT)
+			bus.post(event);
+		else
+			Blackhole.consumeCPU(16);
+	}
+
+	private int dispatch() {
+		bus.dispatchEvents();
+		return bus.getLastDispatchedEventCount();
+	}
+
+	@Benchmark
+	@Group("producers1")
+	@GroupThreads(1)
+	public void post1() {
+		post();
+	}
+
+	@Benchmark
+	@Group("producers1")
+	@GroupThreads(1)
+	public int dispatch1() {
+		return dispatch();
+	}
+
+	@Benchmark
+	@Group("producers4")
+	@GroupThreads(4)
+	public void post4() {
+		post();
+	}
+
+	@Benchmark
+	@Group("producers4")
+	@GroupThreads(1)
+	public int dispatch4() {
+		return dispatch();
+	}
+
+	@Benchmark
+	@Group("producers16")
+	@GroupThreads(16)
+	public void post16() {
+		post();
+	}
+
+	@Benchmark
+	@Group("producers16")
+	@GroupThreads(1)
+	public int dispatch16() {
+		return dispatch();
+	}
+
+	public enum QueueType {
+		UNBOUNDED, RING_BUFFER;
+	}
+
+	public static class TestEvent {
+	}
+
+}
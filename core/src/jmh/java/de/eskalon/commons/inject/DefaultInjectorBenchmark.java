@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.inject;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.eskalon.commons.inject.annotations.Inject;
+
+/**
+ * Measures the cost of injecting the members of an object with eight
+ * {@code @Inject} fields spread over two classes. {@link #firstInjection()}
+ * uses a new injector every time, so that the injection plan of the class has
+ * to be created, whereas {@link #repeatedInjection()} uses the cached plan.
+ * {@link #getLinkedInstance()} measures the resolution of a single linked
+ * binding.
+ * <p>
+ * Run via {@code gradlew :core:jmh -Pjmh.includes=DefaultInjectorBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DefaultInjectorBenchmark {
+
+	private DefaultInjector injector;
+
+	@Setup
+	public void setUp() {
+		injector = createInjector();
+		injector.injectMembers(new Target());
+	}
+
+	@Benchmark
+	public Target firstInjection() {
+		return createInjector().injectMembers(new Target());
+	}
+
+	@Benchmark
+	public Target repeatedInjection() {
+		return injector.injectMembers(new Target());
+	}
+
+	@Benchmark
+	public Object getLinkedInstance() {
+		return injector.getInstance(DependencyC.class);
+	}
+
+	private static DefaultInjector createInjector() {
+		DefaultInjector injector = new DefaultInjector();
+		injector.bindToInstance(DependencyA.class, new DependencyA());
+		injector.bindToInstance(DependencyB.class, new DependencyB());
+		injector.bindToSubclass(DependencyC.class, SubDependencyC.class);
+		injector.bindToInstance(SubDependencyC.class, new SubDependencyC());
+		injector.bindToInstance(DependencyD.class, new DependencyD());
+		return injector;
+	}
+
+	public static class SuperTarget {
+		@Inject
+		DependencyA a1;
+		@Inject
+		DependencyB b1;
+		@Inject
+		DependencyC c1;
+		@Inject
+		DependencyD d1;
+		int notInjected1;
+		Object notInjected2;
+	}
+
+	public static class Target extends SuperTarget {
+		@Inject
+		private DependencyA a2;
+		@Inject
+		private DependencyB b2;
+		@Inject
+		private DependencyC c2;
+		@Inject
+		private DependencyD d2;
+		private int notInjected3;
+		private Object notInjected4;
+	}
+
+	public static class DependencyA {
+	}
+
+	public static class DependencyB {
+	}
+
+	public static class DependencyC {
+	}
+
+	public static class SubDependencyC extends DependencyC {
+	}
+
+	public static class DependencyD {
+	}
+
+}
@@ -15,25 +15,46 @@
 
 package de.eskalon.commons.asset;
 
+import java.io.IOException;
 import java.lang.annotation.Documented;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
 
 import org.jspecify.annotations.Nullable;
 
+import com.badlogic.gdx.assets.AssetDescriptor;
 import com.badlogic.gdx.assets.AssetLoaderParameters;
 import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AssetLoader;
 import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
 import com.badlogic.gdx.utils.reflect.Annotation;
 import com.badlogic.gdx.utils.reflect.ClassReflection;
 import com.badlogic.gdx.utils.reflect.Field;
 import com.badlogic.gdx.utils.reflect.ReflectionException;
 
+import de.damios.guacamole.Exceptions;
 import de.damios.guacamole.Preconditions;
+import de.damios.guacamole.gdx.log.Logger;
+import de.damios.guacamole.gdx.log.LoggerService;
 import de.damios.guacamole.gdx.reflection.ReflectionUtils;
+import de.eskalon.commons.index.AnnotationIndex;
+import de.eskalon.commons.index.AnnotationIndex.AssetField;
+import de.eskalon.commons.index.AnnotationIndex.IndexedClass;
 import de.eskalon.commons.inject.IInjector;
 import de.eskalon.commons.inject.annotations.Inject;
 import de.eskalon.commons.inject.annotations.Qualifier;
@@ -43,33 +64,341 @@ import de.eskalon.commons.screens.AbstractAssetLoadingScreen;
 /**
  * Allows loading and storing assets (like textures, bitmapfonts, tile maps,
  * sounds, music and so on) via annotations.
+ * <p>
+ * Assets can also be decoded in parallel, see
+ * {@link #enableParallelLoading(int)}, and reloaded when their files are
+ * changed, see {@link #enableHotReloading(IInjector, String...)}.
  * 
  * @author damios
  * @see Asset
  */
 public class AnnotationAssetManager extends AssetManager {
 
+	private static final Logger LOG = LoggerService
+			.getLogger(AnnotationAssetManager.class);
+
+	/**
+	 * Takes the place of assets whose disposal is deferred.
+	 */
+	private static final Object DISPOSAL_PLACEHOLDER = new Object();
+
 	private HashMap<Class<?>, AssetLoaderParametersFactory<?>> paramFactories = new HashMap<>();
+	/**
+	 * The parameters parsed from the {@linkplain Asset#params() params} of
+	 * {@code @Asset} annotations.
+	 */
+	private final Map<ParametersKey, AssetLoaderParameters<?>> parametersCache = new HashMap<>();
+
+	private @Nullable AsyncExecutor prefetchExecutor;
+	private int maxPrefetchedAssets;
+	private final Queue<Prefetch> prefetchQueue = new ArrayDeque<>();
+	/**
+	 * The assets that were prefetched, but are not loaded yet.
+	 */
+	private final Map<String, Prefetch> prefetchedAssets = new LinkedHashMap<>();
+
+	private final UploadScheduler uploadScheduler = new UploadScheduler();
+	private final AssetResidencyManager residencyManager = new AssetResidencyManager(
+			this);
+	private @Nullable AssetHotReloader hotReloader;
+	/**
+	 * The parameters the loaded and queued assets were loaded with.
+	 */
+	private final Map<String, AssetLoaderParameters<?>> loadParameters = new HashMap<>();
+	/**
+	 * The unloaded assets whose disposal is deferred, by file name;
+	 * {@code null} if unloaded assets are disposed right away.
+	 */
+	private @Nullable Map<String, Object> deferredAssets;
 
 	public AnnotationAssetManager(FileHandleResolver resolver) {
 		super(resolver);
 	}
 
+	/**
+	 * Enables decoding independent assets concurrently on a pool of worker
+	 * threads. Normally, assets are decoded (e.g. read from disk and parsed)
+	 * one after another on a single thread.
+	 * <p>
+	 * Only assets whose loader is a {@link ParallelAssetLoader} (see
+	 * {@link ParallelTextureLoader}, {@link ParallelPixmapLoader},
+	 * {@link ParallelSoundLoader} and {@link PlaylistDefinitionLoader}) are
+	 * decoded in parallel; assets that are loaded as dependencies of other
+	 * assets (e.g. the pages of a texture atlas) are not. All other loading
+	 * steps, in particular uploading textures to the GPU, still happen one
+	 * asset at a time, as usual. {@link #update()} and {@link #getProgress()}
+	 * are not affected.
+	 * <p>
+	 * To limit the memory used by decoded assets, at most four assets per
+	 * thread are decoded ahead of the asset currently being loaded.
+	 * 
+	 * @param threadCount
+	 *            the number of worker threads
+	 */
+	public synchronized void enableParallelLoading(int threadCount) {
+		Preconditions.checkArgument(threadCount > 0,
+				"The thread count has to be positive.");
+
+		if (prefetchExecutor != null)
+			prefetchExecutor.dispose();
+
+		prefetchExecutor = new AsyncExecutor(threadCount, "AssetDecoder");
+		maxPrefetchedAssets = threadCount * 4;
+	}
+
+	/**
+	 * @return the scheduler used to spread the uploading of assets over
+	 *         multiple frames, e.g. by a {@link ParallelTextureLoader}; has to
+	 *         be {@linkplain UploadScheduler#update(long) updated} every frame
+	 */
+	public UploadScheduler getUploadScheduler() {
+		return uploadScheduler;
+	}
+
+	/**
+	 * @return the manager keeping track of which assets are still in use; can
+	 *         be used to unload unused assets once a memory budget is exceeded
+	 */
+	public AssetResidencyManager getResidencyManager() {
+		return residencyManager;
+	}
+
+	/**
+	 * Enables reloading assets whose files are changed on disk. Is meant to be
+	 * used during development only.
+	 * 
+	 * @param injector
+	 *            the injector used to reload the members of the objects
+	 *            holding the reloaded assets
+	 * @param directories
+	 *            the asset directories to watch; an empty string for the root
+	 * @return whether hot reloading could be enabled
+	 * @see AssetHotReloader
+	 */
+	public synchronized boolean enableHotReloading(IInjector injector,
+			String... directories) {
+		if (hotReloader != null)
+			hotReloader.dispose();
+
+		try {
+			hotReloader = new AssetHotReloader(this, injector);
+		} catch (IOException e) {
+			LOG.error("Hot reloading could not be enabled: %s",
+					Exceptions.getStackTraceAsString(e));
+			return false;
+		}
+
+		for (String directory : directories)
+			hotReloader.watch(directory);
+		return true;
+	}
+
+	/**
+	 * @return the hot reloader; {@code null} if
+	 *         {@linkplain #enableHotReloading(IInjector, String...) hot
+	 *         reloading} is not enabled
+	 */
+	public synchronized @Nullable AssetHotReloader getHotReloader() {
+		return hotReloader;
+	}
+
+	/**
+	 * @param fileName
+	 * @return the parameters the asset was loaded with; {@code null} if there
+	 *         were none or the asset is not loaded
+	 */
+	synchronized @Nullable AssetLoaderParameters<?> getLoadParameters(
+			String fileName) {
+		return loadParameters.get(fileName);
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@Override
+	public synchronized <T> void load(String fileName, Class<T> type,
+			@Nullable AssetLoaderParameters<T> parameter) {
+		// Assets that are already loaded or queued only have their reference
+		// count increased
+		boolean isNew = !contains(fileName);
+
+		super.load(fileName, type, parameter);
+
+		if (isNew && parameter != null)
+			loadParameters.put(fileName, parameter);
+
+		if (isNew && prefetchExecutor != null) {
+			AssetLoader loader = getLoader(type, fileName);
+			if (loader instanceof ParallelAssetLoader) {
+				prefetchQueue.add(new Prefetch((ParallelAssetLoader) loader,
+						fileName, loader.resolve(fileName), parameter));
+				startPrefetches();
+			}
+		}
+	}
+
+	@Override
+	public synchronized boolean update() {
+		try {
+			return super.update();
+		} finally {
+			// Is also done if an asset failed to load, so that its slot is
+			// not occupied forever
+			if (prefetchExecutor != null) {
+				releasePrefetchSlots();
+				startPrefetches();
+			}
+		}
+	}
+
+	/**
+	 * Frees the slots of the prefetched assets that were loaded in the
+	 * meantime or that are not queued anymore, e.g. because they failed to
+	 * load.
+	 */
+	private void releasePrefetchSlots() {
+		for (Iterator<Prefetch> it = prefetchedAssets.values().iterator(); it
+				.hasNext();) {
+			Prefetch prefetch = it.next();
+
+			if (isLoaded(prefetch.fileName)) {
+				it.remove();
+			} else if (!contains(prefetch.fileName)) {
+				it.remove();
+				prefetch.loader.discardPrefetched(prefetch.fileName);
+			}
+		}
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void startPrefetches() {
+		while (prefetchedAssets.size() < maxPrefetchedAssets
+				&& !prefetchQueue.isEmpty()) {
+			Prefetch prefetch = prefetchQueue.poll();
+			((ParallelAssetLoader) prefetch.loader).prefetch(prefetchExecutor,
+					prefetch.fileName, prefetch.file, prefetch.parameter);
+			prefetchedAssets.put(prefetch.fileName, prefetch);
+		}
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@Override
+	public synchronized void unload(String fileName) {
+		if (deferredAssets != null && isLoaded(fileName)
+				&& getReferenceCount(fileName) == 1) {
+			// The asset manager disposes the asset it holds, so it is
+			// replaced with a placeholder beforehand
+			deferredAssets.put(fileName, get(fileName));
+			addAsset(fileName, (Class) getAssetType(fileName),
+					DISPOSAL_PLACEHOLDER);
+		}
+
+		super.unload(fileName);
+
+		if (!contains(fileName)) {
+			loadParameters.remove(fileName);
+			discardPrefetch(fileName);
+		}
+	}
+
+	/**
+	 * Defers disposing the assets that are unloaded from now on (including
+	 * dependencies) until {@link #takeDeferredAssets()} is called. This keeps
+	 * the old instances of {@linkplain AssetHotReloader reloaded} assets
+	 * usable until they are replaced.
+	 */
+	synchronized void deferDisposal() {
+		if (deferredAssets == null)
+			deferredAssets = new LinkedHashMap<>();
+	}
+
+	/**
+	 * Hands over the assets whose disposal was {@linkplain #deferDisposal()
+	 * deferred}; the caller is responsible for disposing them. Assets unloaded
+	 * from now on are disposed right away again.
+	 * 
+	 * @return the unloaded assets, by file name
+	 */
+	synchronized Map<String, Object> takeDeferredAssets() {
+		Map<String, Object> assets = deferredAssets;
+		deferredAssets = null;
+		return assets != null ? assets : Collections.emptyMap();
+	}
+
+	private void discardPrefetch(String fileName) {
+		for (Iterator<Prefetch> it = prefetchQueue.iterator(); it.hasNext();) {
+			if (it.next().fileName.equals(fileName))
+				it.remove();
+		}
+
+		Prefetch prefetch = prefetchedAssets.remove(fileName);
+		if (prefetch != null)
+			prefetch.loader.discardPrefetched(fileName);
+	}
+
+	@Override
+	public synchronized void clear() {
+		super.clear();
+		uploadScheduler.clear();
+		residencyManager.clear();
+		loadParameters.clear();
+
+		// Assets that were still queued are not unloaded individually
+		prefetchQueue.clear();
+		for (Prefetch prefetch : prefetchedAssets.values())
+			prefetch.loader.discardPrefetched(prefetch.fileName);
+		prefetchedAssets.clear();
+
+		for (Object asset : takeDeferredAssets().values()) {
+			if (asset instanceof Disposable)
+				((Disposable) asset).dispose();
+		}
+	}
+
+	@Override
+	public synchronized void dispose() {
+		super.dispose();
+		uploadScheduler.clear();
+		residencyManager.clear();
+		loadParameters.clear();
+
+		if (prefetchExecutor != null) {
+			prefetchExecutor.dispose();
+			prefetchExecutor = null;
+		}
+		if (hotReloader != null) {
+			hotReloader.dispose();
+			hotReloader = null;
+		}
+	}
+
 	/**
 	 * @param clazz
 	 *            the class whose fields annotated with {@link Asset Asset}
 	 *            should get loaded
 	 */
 	public <T> void loadAnnotatedAssets(Class<T> clazz) {
+		// The params of all fields are parsed before any asset is queued
+		List<AssetDescriptor<?>> assets = new ArrayList<>();
+		collectAnnotatedAssets(clazz, assets);
+
+		for (AssetDescriptor<?> asset : assets)
+			load(asset);
+	}
+
+	private void collectAnnotatedAssets(Class<?> clazz,
+			List<AssetDescriptor<?>> assets) {
 		for (Field field : ClassReflection.getDeclaredFields(clazz)) {
 			Annotation annotation = field.getDeclaredAnnotation(Asset.class);
 			if (annotation == null)
 				continue;
-			loadAnnotatedAsset(field, annotation.getAnnotation(Asset.class));
+
+			AssetDescriptor<?> asset = getAssetDescriptor(field,
+					annotation.getAnnotation(Asset.class));
+			if (asset != null)
+				assets.add(asset);
 		}
 
 		if (clazz.getSuperclass() != null) {
-			loadAnnotatedAssets(clazz.getSuperclass());
+			collectAnnotatedAssets(clazz.getSuperclass(), assets);
 		}
 	}
 
@@ -81,14 +410,69 @@ public class AnnotationAssetManager extends AssetManager {
 		Annotation annotation = field.getDeclaredAnnotation(Asset.class);
 		Preconditions.checkArgument(annotation != null);
 
-		loadAnnotatedAsset(field, annotation.getAnnotation(Asset.class));
+		AssetDescriptor<?> asset = getAssetDescriptor(field,
+				annotation.getAnnotation(Asset.class));
+		if (asset != null)
+			load(asset);
 	}
 
-	@SuppressWarnings("unchecked")
-	private <T> void loadAnnotatedAsset(Field field, Asset assetAnnotaion) {
-		if (!assetAnnotaion.disabled())
-			load(assetAnnotaion.value(), (Class) field.getType(),
-					getAssetLoaderParameters(assetAnnotaion, field));
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private @Nullable AssetDescriptor<?> getAssetDescriptor(Field field,
+			Asset assetAnnotaion) {
+		if (assetAnnotaion.disabled())
+			return null;
+
+		return new AssetDescriptor(assetAnnotaion.value(), field.getType(),
+				getAssetLoaderParameters(assetAnnotaion.value(),
+						assetAnnotaion.params(), field.getType(),
+						"field '" + field.getName() + "'"));
+	}
+
+	/**
+	 * Loads the assets of all fields annotated with {@link Asset Asset} in the
+	 * given package and its sub-packages, as listed in the
+	 * {@link AnnotationIndex}. Unlike scanning the classpath, this does not
+	 * require any reflection and works on every backend.
+	 * 
+	 * @param packageRoot
+	 *            the root package, e.g. "de.eskalon"
+	 * @return whether the classes in the given package were compiled with
+	 *         pancake's annotation processor; if not, no assets are loaded
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public boolean loadIndexedAssets(String packageRoot) {
+		boolean indexed = false;
+		// The params of all fields are parsed before any asset is queued
+		List<AssetDescriptor<?>> assets = new ArrayList<>();
+
+		for (IndexedClass indexedClass : AnnotationIndex.instance()
+				.getClasses()) {
+			if (!indexedClass.getName().startsWith(packageRoot + "."))
+				continue;
+			indexed = true;
+
+			for (AssetField field : indexedClass.getAssetFields()) {
+				Class type;
+				try {
+					type = ClassReflection.forName(field.getTypeClassName());
+				} catch (ReflectionException e) {
+					throw new IllegalStateException("The type of field '"
+							+ field.getName() + "' of class '"
+							+ indexedClass.getName() + "' could not be found.",
+							e);
+				}
+
+				assets.add(new AssetDescriptor(field.getPath(), type,
+						getAssetLoaderParameters(field.getPath(),
+								field.getParams(), type,
+								"field '" + field.getName() + "'")));
+			}
+		}
+
+		for (AssetDescriptor<?> asset : assets)
+			load(asset);
+
+		return indexed;
 	}
 
 	/**
@@ -134,12 +518,37 @@ public class AnnotationAssetManager extends AssetManager {
 		}
 	}
 
-	private @Nullable AssetLoaderParameters<?> getAssetLoaderParameters(
-			Asset asset, Field field) {
-		if (asset.params() == null || asset.params().length() == 0)
+	/**
+	 * @param <T>
+	 * @param asset
+	 * @param type
+	 *            the type of the asset
+	 * @return the parameters specified via {@link Asset#params()}; {@code null}
+	 *         if there are none
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> @Nullable AssetLoaderParameters<T> getAssetLoaderParameters(
+			Asset asset, Class<T> type) {
+		return (AssetLoaderParameters<T>) getAssetLoaderParameters(
+				asset.value(), asset.params(), type,
+				"asset '" + asset.value() + "'");
+	}
+
+	/**
+	 * Parses the given params. The parsed parameters are cached, so that
+	 * assets with the same params share the same parameters instance.
+	 */
+	private synchronized @Nullable AssetLoaderParameters<?> getAssetLoaderParameters(
+			String path, @Nullable String params, Class<?> fieldType,
+			String target) {
+		if (params == null || params.length() == 0)
 			return null;
 
-		final Class<?> fieldType = field.getType();
+		ParametersKey key = new ParametersKey(fieldType, path, params);
+		AssetLoaderParameters<?> parameters = parametersCache.get(key);
+		if (parameters != null)
+			return parameters;
+
 		AssetLoaderParametersFactory<?> factory = paramFactories.get(fieldType);
 
 		Preconditions.checkState(factory != null,
@@ -147,19 +556,24 @@ public class AnnotationAssetManager extends AssetManager {
 						+ "' cannot be processed without a corresponding params factory.");
 
 		try {
-			return factory.newInstance(asset.value(), asset.params());
+			parameters = factory.newInstance(path, params);
 		} catch (Exception e) {
 			throw new RuntimeException(
-					"Error while parsing the params for field '"
-							+ field.getName() + "' with the following factory: "
+					"Error while parsing the params for " + target
+							+ " with the following factory: "
 							+ factory.getClass().getName(),
 					e);
 		}
+
+		parametersCache.put(key, parameters);
+		return parameters;
 	}
 
-	public <T> void registerAssetLoaderParametersFactory(Class<T> clazz,
-			AssetLoaderParametersFactory<T> factory) {
+	public synchronized <T> void registerAssetLoaderParametersFactory(
+			Class<T> clazz, AssetLoaderParametersFactory<T> factory) {
 		paramFactories.put(clazz, factory);
+		// The params have to be parsed by the new factory
+		parametersCache.keySet().removeIf(k -> k.type == clazz);
 	}
 
 	/**
@@ -189,6 +603,51 @@ public class AnnotationAssetManager extends AssetManager {
 		injectAssets(container, null);
 	}
 
+	/**
+	 * An asset that is decoded in parallel.
+	 */
+	private static class Prefetch {
+		private final ParallelAssetLoader<?> loader;
+		private final String fileName;
+		private final FileHandle file;
+		private final @Nullable AssetLoaderParameters<?> parameter;
+
+		Prefetch(ParallelAssetLoader<?> loader, String fileName,
+				FileHandle file, @Nullable AssetLoaderParameters<?> parameter) {
+			this.loader = loader;
+			this.fileName = fileName;
+			this.file = file;
+			this.parameter = parameter;
+		}
+	}
+
+	private static class ParametersKey {
+		private final Class<?> type;
+		private final String path;
+		private final String params;
+
+		ParametersKey(Class<?> type, String path, String params) {
+			this.type = type;
+			this.path = path;
+			this.params = params;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof ParametersKey))
+				return false;
+
+			ParametersKey other = (ParametersKey) obj;
+			return type == other.type && path.equals(other.path)
+					&& params.equals(other.params);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(type, path, params);
+		}
+	}
+
 	/**
 	 * These factories are responsible for parsing the {@link Asset#params()} to
 	 * {@link AssetLoaderParameters}.
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.asset;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.jspecify.annotations.Nullable;
+
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import de.damios.guacamole.annotations.GwtIncompatible;
+import de.damios.guacamole.gdx.log.Logger;
+import de.damios.guacamole.gdx.log.LoggerService;
+
+/**
+ * A bundle of asset files packed into a single file. Reading the assets from
+ * one bundle avoids opening (and seeking) a file per asset, which dominates
+ * the loading time of many small files on HDDs and in zipped APKs.
+ * <p>
+ * The bundle file is memory-mapped if possible. The contents of the bundled
+ * files are slices of the mapped buffer, so they are not copied until a loader
+ * actually reads them. Bundles are created by {@link AssetBundleWriter} and
+ * read via an {@link AssetBundleFileHandleResolver}.
+ * <p>
+ * A bundle starts with an index of all bundled files, followed by their
+ * contents, each of which is aligned to {@value #ALIGNMENT} bytes:
+ * 
+ * <pre>
+ * int magic, int version, int fileCount
+ * fileCount * (int pathLength, byte[] path (UTF-8), long offset, long length)
+ * contents
+ * </pre>
+ */
+@GwtIncompatible
+public class AssetBundle {
+
+	private static final Logger LOG = LoggerService
+			.getLogger(AssetBundle.class);
+
+	/**
+	 * The name of the bundle file that is used by default.
+	 */
+	public static final String DEFAULT_FILE_NAME = "assets.bundle";
+
+	static final int MAGIC = 0x50434B42; // "PCKB"
+	static final int VERSION = 1;
+	static final int ALIGNMENT = 16;
+
+	private final Map<String, ByteBuffer> files = new LinkedHashMap<>();
+	private final Set<String> directories = new HashSet<>();
+	private final long lastModified;
+
+	/**
+	 * Opens a bundle.
+	 * 
+	 * @param file
+	 *            the bundle file
+	 * @throws GdxRuntimeException
+	 *             if the bundle cannot be read or is malformed
+	 */
+	public AssetBundle(FileHandle file) {
+		// The index is written by a DataOutputStream
+		ByteBuffer buffer = map(file).order(ByteOrder.BIG_ENDIAN);
+		this.lastModified = file.lastModified();
+
+		try {
+			if (buffer.getInt() != MAGIC)
+				throw new GdxRuntimeException(
+						"'" + file + "' is not an asset bundle");
+			int version = buffer.getInt();
+			if (version != VERSION)
+				throw new GdxRuntimeException("The asset bundle '" + file
+						+ "' has an unsupported version: " + version);
+
+			int fileCount = buffer.getInt();
+			directories.add("");
+			for (int i = 0; i < fileCount; i++) {
+				byte[] pathBytes = new byte[buffer.getInt()];
+				buffer.get(pathBytes);
+				String path = new String(pathBytes, StandardCharsets.UTF_8);
+				long offset = buffer.getLong();
+				long length = buffer.getLong();
+
+				if (offset < 0 || length < 0
+						|| offset + length > buffer.capacity())
+					throw new GdxRuntimeException("The asset bundle '" + file
+							+ "' is malformed: '" + path
+							+ "' is out of bounds");
+
+				ByteBuffer contents = buffer.duplicate();
+				contents.position((int) offset).limit((int) (offset + length));
+				files.put(path, contents.slice().asReadOnlyBuffer());
+
+				for (int j = path.indexOf('/'); j != -1; j = path.indexOf('/',
+						j + 1))
+					directories.add(path.substring(0, j));
+			}
+		} catch (BufferUnderflowException | IllegalArgumentException
+				| NegativeArraySizeException e) {
+			throw new GdxRuntimeException(
+					"The asset bundle '" + file + "' is malformed", e);
+		}
+	}
+
+	/**
+	 * Memory-maps the given file. If the file cannot be mapped, e.g. because
+	 * it is located inside a JAR, it is read into a direct buffer instead.
+	 * Loaders like FreeType require direct buffers.
+	 */
+	private static ByteBuffer map(FileHandle file) {
+		try {
+			return file.map();
+		} catch (GdxRuntimeException e) {
+			LOG.warn(
+					"The asset bundle '%s' cannot be memory-mapped, so it is copied into memory instead. Place it next to the application, e.g. in the working directory, to avoid this.",
+					file);
+			byte[] bytes = file.readBytes();
+			ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+			buffer.put(bytes).flip();
+			return buffer;
+		}
+	}
+
+	/**
+	 * @param path
+	 * @return the read-only contents of the bundled file; {@code null} if the
+	 *         file is not part of this bundle
+	 */
+	public @Nullable ByteBuffer getContents(String path) {
+		ByteBuffer contents = files.get(normalize(path));
+		// Every caller gets its own position & limit
+		return contents != null ? contents.duplicate() : null;
+	}
+
+	public boolean isFile(String path) {
+		return files.containsKey(normalize(path));
+	}
+
+	public boolean isDirectory(String path) {
+		return directories.contains(normalize(path));
+	}
+
+	/**
+	 * @param path
+	 *            a directory in this bundle
+	 * @return the names of the files and directories directly contained in the
+	 *         directory
+	 */
+	public Set<String> list(String path) {
+		String prefix = normalize(path);
+		if (!directories.contains(prefix))
+			return Collections.emptySet();
+		if (!prefix.isEmpty())
+			prefix += "/";
+
+		Set<String> names = new LinkedHashSet<>();
+		for (String file : files.keySet()) {
+			if (file.startsWith(prefix)) {
+				int end = file.indexOf('/', prefix.length());
+				names.add(file.substring(prefix.length(),
+						end != -1 ? end : file.length()));
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * @return the paths of all bundled files
+	 */
+	public Set<String> getFiles() {
+		return Collections.unmodifiableSet(files.keySet());
+	}
+
+	/**
+	 * @return the time the bundle file was last modified
+	 */
+	public long getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * Looks for a bundled file whose loose counterpart was modified after the
+	 * bundle was created, i.e. for assets that were changed without packing
+	 * them again. Only the modification times are compared; no file is
+	 * opened.
+	 * 
+	 * @param resolver
+	 *            resolves the loose files the bundle was created from
+	 * @return the path of such a file; {@code null} if there is none
+	 */
+	public @Nullable String findModifiedFile(FileHandleResolver resolver) {
+		for (String path : files.keySet()) {
+			if (resolver.resolve(path).lastModified() > lastModified)
+				return path;
+		}
+		return null;
+	}
+
+	/**
+	 * Converts a path to the form used in the index, i.e. without leading or
+	 * trailing slashes and with forward slashes as separators.
+	 * 
+	 * @param path
+	 * @return the normalized path
+	 */
+	static String normalize(String path) {
+		path = path.replace('\\', '/');
+		while (path.startsWith("./"))
+			path = path.substring(2);
+
+		int start = 0, end = path.length();
+		while (start < end && path.charAt(start) == '/')
+			start++;
+		while (end > start && path.charAt(end - 1) == '/')
+			end--;
+		return path.substring(start, end);
+	}
+
+}
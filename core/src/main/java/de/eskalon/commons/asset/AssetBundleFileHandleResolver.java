@@ -0,0 +1,238 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.asset;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Set;
+
+import com.badlogic.gdx.Files.FileType;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import de.damios.guacamole.annotations.GwtIncompatible;
+
+/**
+ * A {@link FileHandleResolver} that serves the files contained in an
+ * {@link AssetBundle}. Files that are not part of the bundle are resolved by a
+ * fallback resolver, so an asset manager using this resolver can load bundled
+ * and loose files alike:
+ * 
+ * <pre>
+ * {@code
+ * AssetBundle bundle = new AssetBundle(Gdx.files.internal("assets.bundle"));
+ * AnnotationAssetManager assetManager = new AnnotationAssetManager(
+ * 		new AssetBundleFileHandleResolver(bundle));
+ * }
+ * </pre>
+ * 
+ * The returned file handles are read-only and read straight from the
+ * (memory-mapped) bundle; {@link FileHandle#map()} returns the bundled
+ * contents without copying them.
+ */
+@GwtIncompatible
+public class AssetBundleFileHandleResolver implements FileHandleResolver {
+
+	private final AssetBundle bundle;
+	private final FileHandleResolver fallback;
+
+	/**
+	 * @param bundle
+	 * @param fallback
+	 *            the resolver used for files that are not part of the bundle
+	 */
+	public AssetBundleFileHandleResolver(AssetBundle bundle,
+			FileHandleResolver fallback) {
+		this.bundle = bundle;
+		this.fallback = fallback;
+	}
+
+	/**
+	 * Creates a resolver falling back to {@linkplain InternalFileHandleResolver
+	 * internal files}.
+	 * 
+	 * @param bundle
+	 */
+	public AssetBundleFileHandleResolver(AssetBundle bundle) {
+		this(bundle, new InternalFileHandleResolver());
+	}
+
+	@Override
+	public FileHandle resolve(String fileName) {
+		String path = AssetBundle.normalize(fileName);
+		if (bundle.isFile(path) || bundle.isDirectory(path))
+			return new BundledFileHandle(path);
+
+		return fallback.resolve(fileName);
+	}
+
+	public AssetBundle getBundle() {
+		return bundle;
+	}
+
+	/**
+	 * A file or directory in an {@link AssetBundle}. Siblings, children and
+	 * parents are resolved by the resolver that created the handle.
+	 */
+	public class BundledFileHandle extends FileHandle {
+
+		private BundledFileHandle(String path) {
+			super(path, FileType.Internal);
+		}
+
+		private ByteBuffer getContents() {
+			ByteBuffer contents = bundle.getContents(path());
+			if (contents == null)
+				throw new GdxRuntimeException(
+						"Cannot read a directory: " + path());
+			return contents;
+		}
+
+		@Override
+		public InputStream read() {
+			return new ByteBufferInputStream(getContents());
+		}
+
+		@Override
+		public byte[] readBytes() {
+			ByteBuffer contents = getContents();
+			byte[] bytes = new byte[contents.remaining()];
+			contents.get(bytes);
+			return bytes;
+		}
+
+		@Override
+		public ByteBuffer map() {
+			return getContents();
+		}
+
+		@Override
+		public ByteBuffer map(MapMode mode) {
+			if (mode != MapMode.READ_ONLY)
+				throw new GdxRuntimeException(
+						"Cannot write to a bundled file: " + path());
+			return getContents();
+		}
+
+		@Override
+		public boolean exists() {
+			return true;
+		}
+
+		@Override
+		public boolean isDirectory() {
+			return bundle.isDirectory(path());
+		}
+
+		@Override
+		public long length() {
+			ByteBuffer contents = bundle.getContents(path());
+			return contents != null ? contents.remaining() : 0;
+		}
+
+		@Override
+		public long lastModified() {
+			return bundle.getLastModified();
+		}
+
+		@Override
+		public FileHandle[] list() {
+			Set<String> names = bundle.list(path());
+			FileHandle[] handles = new FileHandle[names.size()];
+			int i = 0;
+			for (String name : names)
+				handles[i++] = child(name);
+			return handles;
+		}
+
+		@Override
+		public FileHandle[] list(String suffix) {
+			FileHandle[] handles = list();
+			int count = 0;
+			for (FileHandle handle : handles) {
+				if (handle.name().endsWith(suffix))
+					handles[count++] = handle;
+			}
+
+			FileHandle[] ret = new FileHandle[count];
+			System.arraycopy(handles, 0, ret, 0, count);
+			return ret;
+		}
+
+		@Override
+		public FileHandle child(String name) {
+			return resolve(path().isEmpty() ? name : path() + "/" + name);
+		}
+
+		@Override
+		public FileHandle sibling(String name) {
+			if (path().isEmpty())
+				throw new GdxRuntimeException(
+						"Cannot get the sibling of the root.");
+			return parent().child(name);
+		}
+
+		@Override
+		public FileHandle parent() {
+			int i = path().lastIndexOf('/');
+			return resolve(i != -1 ? path().substring(0, i) : "");
+		}
+
+	}
+
+	private static class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			if (length == 0)
+				return 0;
+			if (!buffer.hasRemaining())
+				return -1;
+
+			length = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, length);
+			return length;
+		}
+
+		@Override
+		public long skip(long n) {
+			int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+			buffer.position(buffer.position() + skipped);
+			return skipped;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+
+	}
+
+}
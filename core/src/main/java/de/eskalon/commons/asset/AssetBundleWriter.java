@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.asset;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import de.damios.guacamole.annotations.GwtIncompatible;
+
+/**
+ * Packs all files in a directory into an {@link AssetBundle}. Only uses plain
+ * Java, so it can be run as part of the build (see the {@code packAssets}
+ * Gradle task):
+ * 
+ * <pre>
+ * java de.eskalon.commons.asset.AssetBundleWriter path/to/assets path/to/assets.bundle
+ * </pre>
+ */
+@GwtIncompatible
+public final class AssetBundleWriter {
+
+	private AssetBundleWriter() {
+		throw new UnsupportedOperationException();
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println(
+					"Usage: AssetBundleWriter <assetDirectory> <bundleFile>");
+			System.exit(1);
+		}
+
+		int fileCount = write(new File(args[0]), new File(args[1]));
+		System.out.println(
+				"Packed " + fileCount + " files into '" + args[1] + "'");
+	}
+
+	/**
+	 * Packs all files in the given directory and its subdirectories into a
+	 * bundle. The files are bundled in alphabetical order of their paths.
+	 * 
+	 * @param directory
+	 *            the asset directory; the paths in the bundle are relative to
+	 *            it
+	 * @param bundleFile
+	 * @return the number of bundled files
+	 * @throws IOException
+	 */
+	public static int write(File directory, File bundleFile)
+			throws IOException {
+		Path root = directory.toPath();
+		Path bundle = bundleFile.toPath().toAbsolutePath();
+		List<Path> files;
+		try (Stream<Path> stream = Files.walk(root)) {
+			files = stream.filter(Files::isRegularFile)
+					.filter(p -> !p.toAbsolutePath().equals(bundle)).sorted()
+					.collect(Collectors.toList());
+		}
+
+		List<byte[]> paths = new ArrayList<>(files.size());
+		long indexSize = 3 * Integer.BYTES;
+		for (Path file : files) {
+			byte[] path = root.relativize(file).toString().replace('\\', '/')
+					.getBytes(StandardCharsets.UTF_8);
+			paths.add(path);
+			indexSize += Integer.BYTES + path.length + 2 * Long.BYTES;
+		}
+
+		if (bundleFile.getParentFile() != null)
+			bundleFile.getParentFile().mkdirs();
+
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(bundleFile)))) {
+			// Index
+			out.writeInt(AssetBundle.MAGIC);
+			out.writeInt(AssetBundle.VERSION);
+			out.writeInt(files.size());
+
+			long offset = align(indexSize);
+			for (int i = 0; i < files.size(); i++) {
+				long length = Files.size(files.get(i));
+				out.writeInt(paths.get(i).length);
+				out.write(paths.get(i));
+				out.writeLong(offset);
+				out.writeLong(length);
+				offset = align(offset + length);
+			}
+
+			// Contents
+			long position = indexSize;
+			for (Path file : files) {
+				for (long end = align(position); position < end; position++)
+					out.writeByte(0);
+				position += Files.copy(file, out);
+			}
+		}
+
+		return files.size();
+	}
+
+	private static long align(long offset) {
+		return (offset + AssetBundle.ALIGNMENT - 1)
+				/ AssetBundle.ALIGNMENT * AssetBundle.ALIGNMENT;
+	}
+
+}
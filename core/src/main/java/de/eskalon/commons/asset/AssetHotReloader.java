@@ -0,0 +1,571 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.asset;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.jspecify.annotations.Nullable;
+
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.Field;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+
+import de.damios.guacamole.Exceptions;
+import de.damios.guacamole.annotations.GwtIncompatible;
+import de.damios.guacamole.gdx.log.Logger;
+import de.damios.guacamole.gdx.log.LoggerService;
+import de.damios.guacamole.gdx.reflection.ReflectionUtils;
+import de.eskalon.commons.asset.AssetBundleFileHandleResolver.BundledFileHandle;
+import de.eskalon.commons.event.LatencyHistogram;
+import de.eskalon.commons.inject.IInjector;
+import de.eskalon.commons.inject.annotations.Reloadable;
+
+/**
+ * Reloads assets whose files were changed on disk, so that textures, shaders,
+ * skins, etc. can be iterated on without restarting the application. Is meant
+ * to be used during development only.
+ * <p>
+ * The {@linkplain #watch(String) watched} directories are observed via a
+ * {@link WatchService} on a separate thread. When a loaded asset's file
+ * changes, the asset and all assets depending on it are unloaded and queued
+ * again with the same parameters. They are then loaded in the background by
+ * the asset manager, like any other asset. Afterwards, the
+ * {@linkplain #addHolder(Object) holders} whose {@link Reloadable} fields
+ * referenced one of the old assets get their
+ * {@linkplain IInjector#reloadMembers(Object) members reloaded}. The old
+ * assets are only disposed then, so that the holders can keep using them in
+ * the meantime.
+ * <p>
+ * If an asset cannot be reloaded, e.g. because its file was only written
+ * partially, its old instance is kept. Holders referencing it are not
+ * reloaded until a later reload of the asset succeeds.
+ * <p>
+ * The time between a change being detected and the changed assets being
+ * reloaded is recorded in {@link #getReloadTimes()}.
+ * <p>
+ * Has to be {@linkplain #update() updated} on the rendering thread.
+ * 
+ * @see AnnotationAssetManager#enableHotReloading(IInjector, String...)
+ */
+@GwtIncompatible
+public class AssetHotReloader implements Disposable {
+
+	private static final Logger LOG = LoggerService
+			.getLogger(AssetHotReloader.class);
+
+	/**
+	 * How long a file has to stay unchanged before it is reloaded. Editors
+	 * often write a file in multiple steps.
+	 */
+	private static final long SETTLE_TIME = TimeUnit.MILLISECONDS
+			.toNanos(100);
+
+	private final AnnotationAssetManager assetManager;
+	private final IInjector injector;
+
+	private final WatchService watchService;
+	private final Map<WatchKey, WatchedDirectory> watchedDirectories = new ConcurrentHashMap<>();
+	private final Thread watchThread;
+
+	/**
+	 * The changed files that were not reloaded yet. Is accessed by both the
+	 * watch thread and the rendering thread.
+	 */
+	private final Map<String, Change> changes = new LinkedHashMap<>();
+	private final List<WeakReference<Object>> holders = new ArrayList<>();
+
+	private @Nullable Reload reload;
+	/**
+	 * The assets whose reload failed. They are queued again once the next
+	 * file is changed.
+	 */
+	private final Map<String, ReloadedAsset> failedAssets = new LinkedHashMap<>();
+	/**
+	 * The old instances of reloaded assets that could not be disposed yet, as
+	 * they are still referenced by holders, and their file names.
+	 */
+	private final Map<Object, String> staleAssets = new IdentityHashMap<>();
+
+	private final LatencyHistogram reloadTimes = new LatencyHistogram();
+
+	/**
+	 * Creates a hot reloader. No directory is watched until
+	 * {@link #watch(String)} is called.
+	 * 
+	 * @param assetManager
+	 * @param injector
+	 *            the injector used to reload the members of the holders
+	 * @throws IOException
+	 *             if the file system cannot be watched
+	 */
+	public AssetHotReloader(AnnotationAssetManager assetManager,
+			IInjector injector) throws IOException {
+		this.assetManager = assetManager;
+		this.injector = injector;
+		this.watchService = FileSystems.getDefault().newWatchService();
+
+		this.watchThread = new Thread(this::processWatchEvents, "AssetWatcher");
+		this.watchThread.setDaemon(true);
+		this.watchThread.start();
+	}
+
+	/**
+	 * Watches an asset directory and all of its subdirectories.
+	 * 
+	 * @param directory
+	 *            the path of the directory, as resolved by the asset manager's
+	 *            {@linkplain AnnotationAssetManager#getFileHandleResolver()
+	 *            resolver}; an empty string for the root
+	 * @return whether the directory exists on disk and can be watched;
+	 *         directories that are e.g. packed into a JAR or an
+	 *         {@linkplain AssetBundle asset bundle} cannot
+	 */
+	public boolean watch(String directory) {
+		FileHandle file = assetManager.getFileHandleResolver()
+				.resolve(directory);
+		if (file instanceof BundledFileHandle) {
+			LOG.debug("'%s' is read from an asset bundle; it is not watched.",
+					directory);
+			return false;
+		}
+		Path path = file.file().toPath().toAbsolutePath();
+
+		if (!Files.isDirectory(path)) {
+			LOG.debug("'%s' is not a directory on disk; it is not watched.",
+					path);
+			return false;
+		}
+
+		try {
+			register(path, directory);
+			return true;
+		} catch (IOException e) {
+			LOG.error("Error while watching '%s': %s", path,
+					Exceptions.getStackTraceAsString(e));
+			return false;
+		}
+	}
+
+	private void register(Path root, String rootFileName) throws IOException {
+		try (Stream<Path> directories = Files.walk(root)) {
+			for (Iterator<Path> it = directories.filter(Files::isDirectory)
+					.iterator(); it.hasNext();) {
+				Path path = it.next();
+				WatchKey key = path.register(watchService, ENTRY_CREATE,
+						ENTRY_MODIFY);
+				watchedDirectories.put(key, new WatchedDirectory(path,
+						getFileName(rootFileName, root.relativize(path))));
+			}
+		}
+	}
+
+	/**
+	 * @param holder
+	 *            an object whose {@link Reloadable} fields should be reloaded
+	 *            if they reference a reloaded asset, e.g. a screen; is only
+	 *            referenced weakly
+	 */
+	public synchronized void addHolder(Object holder) {
+		for (WeakReference<Object> reference : holders) {
+			if (reference.get() == holder)
+				return;
+		}
+		holders.add(new WeakReference<>(holder));
+	}
+
+	public synchronized void removeHolder(Object holder) {
+		holders.removeIf(r -> r.get() == null || r.get() == holder);
+	}
+
+	/**
+	 * Runs on the watch thread.
+	 */
+	private void processWatchEvents() {
+		try {
+			while (true) {
+				WatchKey key = watchService.take();
+				WatchedDirectory directory = watchedDirectories.get(key);
+
+				if (directory != null) {
+					for (WatchEvent<?> event : key.pollEvents()) {
+						if (event.kind() != ENTRY_CREATE
+								&& event.kind() != ENTRY_MODIFY)
+							continue; // e.g. an overflow
+
+						Path relativePath = (Path) event.context();
+						Path path = directory.path.resolve(relativePath);
+						String fileName = getFileName(directory.fileName,
+								relativePath);
+
+						if (Files.isDirectory(path)) {
+							if (event.kind() == ENTRY_CREATE)
+								register(path, fileName);
+							continue;
+						}
+
+						long now = System.nanoTime();
+						synchronized (changes) {
+							Change change = changes.get(fileName);
+							if (change == null)
+								changes.put(fileName, new Change(now));
+							else
+								change.lastTime = now;
+						}
+					}
+				}
+
+				if (!key.reset())
+					watchedDirectories.remove(key);
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// The reloader was disposed
+		} catch (IOException e) {
+			LOG.error("Error while watching the asset directories: %s",
+					Exceptions.getStackTraceAsString(e));
+		}
+	}
+
+	/**
+	 * Reloads the assets whose files were changed. While assets are being
+	 * reloaded, the asset manager is
+	 * {@linkplain AnnotationAssetManager#update() updated} every frame.
+	 */
+	public synchronized void update() {
+		if (reload != null) {
+			try {
+				if (!assetManager.update())
+					return;
+			} catch (GdxRuntimeException e) {
+				// The other queued assets are still loaded on the next update
+				LOG.error("Error while reloading an asset: %s",
+						Exceptions.getStackTraceAsString(e));
+				return;
+			}
+
+			try {
+				finishReload(reload);
+			} finally {
+				reload = null;
+			}
+		}
+
+		List<String> changedFiles = new ArrayList<>();
+		long startTime = Long.MAX_VALUE;
+		long now = System.nanoTime();
+		synchronized (changes) {
+			for (Iterator<Map.Entry<String, Change>> it = changes.entrySet()
+					.iterator(); it.hasNext();) {
+				Map.Entry<String, Change> e = it.next();
+				if (now - e.getValue().lastTime >= SETTLE_TIME) {
+					changedFiles.add(e.getKey());
+					startTime = Math.min(startTime, e.getValue().firstTime);
+					it.remove();
+				}
+			}
+		}
+
+		if (!changedFiles.isEmpty())
+			reload = startReload(changedFiles, startTime);
+	}
+
+	private @Nullable Reload startReload(List<String> changedFiles,
+			long startTime) {
+		Set<String> fileNames = new LinkedHashSet<>();
+		for (String fileName : changedFiles) {
+			if (assetManager.isLoaded(fileName))
+				addWithDependents(fileName, fileNames);
+		}
+
+		if (fileNames.isEmpty() && failedAssets.isEmpty())
+			return null; // none of the files belongs to a loaded asset
+
+		LOG.info("%s changed; reloading %s.", changedFiles,
+				fileNames.isEmpty() ? failedAssets.keySet() : fileNames);
+
+		// Assets that are loaded as dependencies only are queued again by
+		// their dependents
+		List<ReloadedAsset> assets = new ArrayList<>(failedAssets.values());
+		failedAssets.clear();
+		for (String fileName : fileNames) {
+			assets.add(new ReloadedAsset(fileName,
+					assetManager.getAssetType(fileName),
+					assetManager.getLoadParameters(fileName),
+					getOwnReferenceCount(fileName)));
+		}
+
+		// The holders keep using the old instances until the new ones are
+		// loaded
+		assetManager.deferDisposal();
+		for (ReloadedAsset asset : assets) {
+			for (int i = 0; i < asset.referenceCount; i++) {
+				if (assetManager.isLoaded(asset.fileName))
+					assetManager.unload(asset.fileName);
+			}
+		}
+		for (ReloadedAsset asset : assets)
+			asset.queue(assetManager);
+
+		return new Reload(assets, startTime);
+	}
+
+	/**
+	 * Adds the given asset and all loaded assets (indirectly) depending on
+	 * it.
+	 * 
+	 * @param fileName
+	 * @param fileNames
+	 */
+	private void addWithDependents(String fileName, Set<String> fileNames) {
+		if (!fileNames.add(fileName))
+			return;
+
+		for (String other : assetManager.getAssetNames()) {
+			Array<String> dependencies = assetManager.getDependencies(other);
+			if (dependencies != null && dependencies.contains(fileName, false))
+				addWithDependents(other, fileNames);
+		}
+	}
+
+	/**
+	 * @param fileName
+	 * @return how often the asset was loaded itself, i.e. not as a
+	 *         dependency of another asset
+	 */
+	private int getOwnReferenceCount(String fileName) {
+		int count = assetManager.getReferenceCount(fileName);
+		for (String other : assetManager.getAssetNames()) {
+			Array<String> dependencies = assetManager.getDependencies(other);
+			if (dependencies != null && dependencies.contains(fileName, false))
+				count -= assetManager.getReferenceCount(other);
+		}
+		return Math.max(0, count);
+	}
+
+	private void finishReload(Reload reload) {
+		for (ReloadedAsset asset : reload.assets) {
+			if (asset.referenceCount > 0
+					&& !assetManager.isLoaded(asset.fileName))
+				failedAssets.put(asset.fileName, asset);
+		}
+
+		for (Map.Entry<String, Object> e : assetManager.takeDeferredAssets()
+				.entrySet())
+			staleAssets.put(e.getValue(), e.getKey());
+
+		// The old instances of assets that could not be reloaded stay in use
+		Set<Object> keptAssets = Collections
+				.newSetFromMap(new IdentityHashMap<>());
+		for (Map.Entry<Object, String> e : staleAssets.entrySet()) {
+			if (!assetManager.isLoaded(e.getValue()))
+				keptAssets.add(e.getKey());
+		}
+
+		for (Iterator<WeakReference<Object>> it = holders.iterator(); it
+				.hasNext();) {
+			Object holder = it.next().get();
+			if (holder == null) {
+				it.remove();
+				continue;
+			}
+
+			List<Object> values = getReloadableValues(holder);
+			if (Collections.disjoint(values, staleAssets.keySet()))
+				continue; // the holder does not reference any old asset
+
+			if (Collections.disjoint(values, keptAssets))
+				injector.reloadMembers(holder);
+			else
+				keptAssets.addAll(values); // is reloaded once all succeeded
+		}
+
+		for (Iterator<Object> it = staleAssets.keySet().iterator(); it
+				.hasNext();) {
+			Object asset = it.next();
+			if (!keptAssets.contains(asset)) {
+				if (asset instanceof Disposable)
+					((Disposable) asset).dispose();
+				it.remove();
+			}
+		}
+
+		long time = System.nanoTime() - reload.startTime;
+		reloadTimes.record(time);
+
+		if (failedAssets.isEmpty())
+			LOG.info("Reloaded %d asset(s) in %d ms.", reload.assets.size(),
+					TimeUnit.NANOSECONDS.toMillis(time));
+		else
+			LOG.warn(
+					"%s could not be reloaded; they are reloaded again once a file is changed.",
+					failedAssets.keySet());
+	}
+
+	/**
+	 * @param holder
+	 * @return the values of the holder's {@link Reloadable} fields
+	 */
+	private static List<Object> getReloadableValues(Object holder) {
+		List<Object> values = new ArrayList<>();
+		for (Class<?> type : ReflectionUtils
+				.retrieveAllSuperTypes(holder.getClass())) {
+			for (Field field : ClassReflection.getDeclaredFields(type)) {
+				if (!field.isAnnotationPresent(Reloadable.class))
+					continue;
+
+				try {
+					field.setAccessible(true);
+					Object value = field.get(holder);
+					if (value != null)
+						values.add(value);
+				} catch (ReflectionException e) {
+					// is not reloaded
+				}
+			}
+		}
+		return values;
+	}
+
+	private static String getFileName(String directory, Path relativePath) {
+		StringBuilder builder = new StringBuilder(directory);
+		for (Path name : relativePath) {
+			if (name.toString().isEmpty())
+				continue;
+			if (builder.length() > 0)
+				builder.append('/');
+			builder.append(name);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * @return the time between a change being detected and the changed
+	 *         assets being reloaded, in nanoseconds
+	 */
+	public LatencyHistogram getReloadTimes() {
+		return reloadTimes;
+	}
+
+	/**
+	 * @return whether assets are currently being reloaded
+	 */
+	public synchronized boolean isReloading() {
+		return reload != null;
+	}
+
+	@Override
+	public synchronized void dispose() {
+		watchThread.interrupt();
+		try {
+			watchService.close();
+		} catch (IOException e) {
+			// is not used anymore anyway
+		}
+
+		for (Object asset : staleAssets.keySet()) {
+			if (asset instanceof Disposable)
+				((Disposable) asset).dispose();
+		}
+		staleAssets.clear();
+	}
+
+	private static class WatchedDirectory {
+		private final Path path;
+		/**
+		 * The path as it is used by the asset manager.
+		 */
+		private final String fileName;
+
+		WatchedDirectory(Path path, String fileName) {
+			this.path = path;
+			this.fileName = fileName;
+		}
+	}
+
+	private static class Change {
+		private final long firstTime;
+		private long lastTime;
+
+		Change(long time) {
+			this.firstTime = time;
+			this.lastTime = time;
+		}
+	}
+
+	private static class Reload {
+		private final List<ReloadedAsset> assets;
+		private final long startTime;
+
+		Reload(List<ReloadedAsset> assets, long startTime) {
+			this.assets = assets;
+			this.startTime = startTime;
+		}
+	}
+
+	private static class ReloadedAsset {
+		private final String fileName;
+		private final Class<?> type;
+		private final @Nullable AssetLoaderParameters<?> parameter;
+		/**
+		 * How often the asset was loaded itself, i.e. not as a dependency.
+		 */
+		private final int referenceCount;
+
+		ReloadedAsset(String fileName, Class<?> type,
+				@Nullable AssetLoaderParameters<?> parameter,
+				int referenceCount) {
+			this.fileName = fileName;
+			this.type = type;
+			this.parameter = parameter;
+			this.referenceCount = referenceCount;
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		void queue(AnnotationAssetManager assetManager) {
+			for (int i = 0; i < referenceCount; i++)
+				assetManager.load(fileName, (Class) type,
+						(AssetLoaderParameters) parameter);
+		}
+	}
+
+}
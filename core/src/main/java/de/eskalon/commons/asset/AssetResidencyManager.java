@@ -0,0 +1,476 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.asset;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.jspecify.annotations.Nullable;
+
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import de.damios.guacamole.Preconditions;
+import de.damios.guacamole.gdx.log.Logger;
+import de.damios.guacamole.gdx.log.LoggerService;
+import de.eskalon.commons.asset.AnnotationAssetManager.Asset;
+import de.eskalon.commons.inject.Provider;
+
+/**
+ * Keeps track of which assets are still in use and unloads the least recently
+ * used assets that are not, once the loaded assets exceed a
+ * {@linkplain #setBudget(long) memory budget}. Unloaded assets are loaded
+ * again when they are {@linkplain #get(Asset, Object) requested} the next
+ * time.
+ * <p>
+ * Assets are used by <i>owners</i>, e.g. screens. An asset is in use as long
+ * as one of its owners has not {@linkplain #release(Object) released} it.
+ * Owners are only referenced weakly, so an owner that is garbage collected
+ * without being released, e.g. a screen that was never shown, does not keep
+ * its assets in use.
+ * <p>
+ * Assets requested without an owner are <i>pinned</i>: they are not unloaded
+ * until they are {@linkplain #unpin(String) unpinned}. Only assets requested
+ * via this manager are taken into account; assets that are
+ * {@linkplain AnnotationAssetManager#load(String, Class) loaded} multiple
+ * times or that are dependencies of other loaded assets are not unloaded
+ * either.
+ * <p>
+ * The memory used by an asset is {@linkplain SizeEstimator estimated} from its
+ * type, e.g. the dimensions and format of a texture. Each loaded file is
+ * counted once, so a dependency shared by multiple assets, e.g. the page of a
+ * texture atlas, is only counted once as well, and only stops being counted
+ * once it is actually unloaded.
+ * <p>
+ * The manager synchronizes on the asset manager: it loads and unloads assets
+ * while holding its lock and the asset manager calls it while holding its
+ * own lock, so separate locks could deadlock.
+ * 
+ * @see AnnotationAssetManager#getResidencyManager()
+ */
+public class AssetResidencyManager {
+
+	private static final Logger LOG = LoggerService
+			.getLogger(AssetResidencyManager.class);
+
+	private final AnnotationAssetManager assetManager;
+	private final HashMap<Class<?>, SizeEstimator<?>> sizeEstimators = new HashMap<>();
+	private @Nullable Provider<@Nullable Object> defaultOwnerProvider;
+
+	/**
+	 * The requested assets, from the least to the most recently used one.
+	 */
+	private final Map<String, ResidentAsset> assets = new LinkedHashMap<>(16,
+			0.75F, true);
+	/**
+	 * The estimated size of each loaded file, i.e. of the requested assets
+	 * and their dependencies.
+	 */
+	private final Map<String, Long> residentFiles = new HashMap<>();
+	private long budget = Long.MAX_VALUE;
+	private long residentSize = 0;
+
+	AssetResidencyManager(AnnotationAssetManager assetManager) {
+		this.assetManager = assetManager;
+
+		registerSizeEstimator(Texture.class,
+				(texture, file) -> getTextureSize(texture));
+		registerSizeEstimator(Pixmap.class,
+				(pixmap, file) -> (long) pixmap.getWidth() * pixmap.getHeight()
+						* getBytesPerPixel(pixmap.getFormat()));
+		// The pages are dependencies of the atlas
+		registerSizeEstimator(TextureAtlas.class, (atlas, file) -> 0);
+		registerSizeEstimator(BitmapFont.class, (font, file) -> {
+			if (!font.ownsTexture())
+				return 0; // the pages are dependencies of the font
+
+			long size = 0;
+			Set<Texture> textures = Collections
+					.newSetFromMap(new IdentityHashMap<>());
+			for (TextureRegion region : font.getRegions()) {
+				if (textures.add(region.getTexture()))
+					size += getTextureSize(region.getTexture());
+			}
+			return size;
+		});
+		// Sounds are kept in memory uncompressed
+		registerSizeEstimator(Sound.class,
+				(sound, file) -> file.extension().equalsIgnoreCase("wav")
+						? file.length()
+						: file.length() * 10);
+		// Music is streamed
+		registerSizeEstimator(Music.class, (music, file) -> 0);
+	}
+
+	/**
+	 * Sets the memory budget. Whenever the loaded assets exceed the budget,
+	 * the least recently used assets that are not in use anymore are
+	 * unloaded.
+	 * 
+	 * @param bytes
+	 *            the budget in bytes; {@link Long#MAX_VALUE} if assets should
+	 *            never be unloaded
+	 */
+	public void setBudget(long bytes) {
+		synchronized (assetManager) {
+			Preconditions.checkArgument(bytes >= 0,
+					"The budget cannot be negative.");
+
+			this.budget = bytes;
+			evictIfOverBudget();
+		}
+	}
+
+	public long getBudget() {
+		synchronized (assetManager) {
+			return budget;
+		}
+	}
+
+	/**
+	 * @return the estimated memory in bytes used by the assets requested via
+	 *         this manager that are currently loaded, including their
+	 *         dependencies
+	 */
+	public long getResidentSize() {
+		synchronized (assetManager) {
+			removeUnloadedFiles();
+			return residentSize;
+		}
+	}
+
+	/**
+	 * Sets the provider of the owner that is used if an asset is requested
+	 * without one, e.g. the context of the screen that is currently created.
+	 * 
+	 * @param defaultOwnerProvider
+	 */
+	public void setDefaultOwnerProvider(
+			@Nullable Provider<@Nullable Object> defaultOwnerProvider) {
+		synchronized (assetManager) {
+			this.defaultOwnerProvider = defaultOwnerProvider;
+		}
+	}
+
+	/**
+	 * Registers how the memory used by assets of the given type is estimated.
+	 * Assets without a registered estimator are assumed to use as much memory
+	 * as their file's size.
+	 * 
+	 * @param <T>
+	 * @param type
+	 * @param estimator
+	 */
+	public <T> void registerSizeEstimator(Class<T> type,
+			SizeEstimator<T> estimator) {
+		synchronized (assetManager) {
+			sizeEstimators.put(type, estimator);
+		}
+	}
+
+	/**
+	 * Retrieves a loaded asset. If the asset was unloaded because it was not
+	 * used anymore, it is loaded again right away.
+	 * 
+	 * @param <T>
+	 * @param fileName
+	 * @param parameter
+	 *            the parameters used if the asset has to be loaded again
+	 * @param owner
+	 *            the owner using the asset; if {@code null}, the
+	 *            {@linkplain #setDefaultOwnerProvider(Provider) default owner}
+	 *            is used; if there is none either, the asset is pinned
+	 * @return the asset
+	 * @throws GdxRuntimeException
+	 *             if the asset was never loaded
+	 */
+	public <T> T get(String fileName,
+			@Nullable AssetLoaderParameters<T> parameter,
+			@Nullable Object owner) {
+		return get(fileName, null, parameter, owner);
+	}
+
+	/**
+	 * Retrieves a loaded asset. If the asset was unloaded because it was not
+	 * used anymore, it is loaded again right away, using the
+	 * {@linkplain Asset#params() parameters} specified by the annotation.
+	 * 
+	 * @param <T>
+	 * @param asset
+	 * @param owner
+	 *            the owner using the asset; if {@code null}, the
+	 *            {@linkplain #setDefaultOwnerProvider(Provider) default owner}
+	 *            is used; if there is none either, the asset is pinned
+	 * @return the asset
+	 * @throws GdxRuntimeException
+	 *             if the asset was never loaded
+	 */
+	public <T> T get(Asset asset, @Nullable Object owner) {
+		return get(asset.value(), asset, null, owner);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private <T> T get(String fileName, @Nullable Asset annotation,
+			@Nullable AssetLoaderParameters<T> parameter,
+			@Nullable Object owner) {
+		synchronized (assetManager) {
+			if (owner == null && defaultOwnerProvider != null)
+				owner = defaultOwnerProvider.provide();
+
+			ResidentAsset asset = assets.get(fileName);
+
+			if (asset == null) {
+				if (!assetManager.isLoaded(fileName))
+					throw new GdxRuntimeException(
+							"Asset not loaded: " + fileName);
+
+				asset = new ResidentAsset(assetManager.getAssetType(fileName));
+				assets.put(fileName, asset);
+			}
+
+			if (!assetManager.isLoaded(fileName)) {
+				if (!assetManager.contains(fileName)) {
+					LOG.debug("Loading '%s' again.", fileName);
+					AssetLoaderParameters params = annotation != null
+							? assetManager.getAssetLoaderParameters(annotation,
+									asset.type)
+							: parameter;
+					assetManager.load(fileName, (Class) asset.type, params);
+				}
+				assetManager.finishLoadingAsset(fileName);
+			}
+			addResidentFile(fileName);
+
+			if (owner == null)
+				asset.isPinned = true;
+			else
+				asset.owners.add(owner);
+
+			T result = assetManager.get(fileName);
+			evictIfOverBudget();
+			return result;
+		}
+	}
+
+	/**
+	 * Releases all assets used by the given owner. Assets that are not used
+	 * anymore may be unloaded from now on.
+	 * 
+	 * @param owner
+	 */
+	public void release(Object owner) {
+		synchronized (assetManager) {
+			for (ResidentAsset asset : assets.values())
+				asset.owners.remove(owner);
+
+			evictIfOverBudget();
+		}
+	}
+
+	/**
+	 * Unpins an asset that was requested without an owner, e.g. by an object
+	 * that is not used anymore. The asset may be unloaded from now on, as
+	 * soon as no owner uses it either.
+	 * 
+	 * @param fileName
+	 */
+	public void unpin(String fileName) {
+		synchronized (assetManager) {
+			ResidentAsset asset = assets.get(fileName);
+			if (asset != null) {
+				asset.isPinned = false;
+				evictIfOverBudget();
+			}
+		}
+	}
+
+	private void evictIfOverBudget() {
+		if (residentSize <= budget)
+			return;
+
+		// Files unloaded by someone else do not count anymore
+		removeUnloadedFiles();
+
+		for (Iterator<Map.Entry<String, ResidentAsset>> it = assets.entrySet()
+				.iterator(); it.hasNext() && residentSize > budget;) {
+			Map.Entry<String, ResidentAsset> e = it.next();
+			ResidentAsset asset = e.getValue();
+
+			if (asset.isPinned || !asset.owners.isEmpty()
+					|| !assetManager.isLoaded(e.getKey()))
+				continue;
+
+			if (assetManager.getReferenceCount(e.getKey()) > 1)
+				continue; // loaded by someone else or a dependency as well
+
+			assetManager.unload(e.getKey());
+			LOG.debug(
+					"Unloaded '%s' to stay within the budget; ~%d KB were freed.",
+					e.getKey(), removeUnloadedFiles() / 1024);
+		}
+	}
+
+	/**
+	 * Starts counting the memory used by a loaded file and its dependencies,
+	 * unless it is already counted.
+	 * 
+	 * @param fileName
+	 */
+	private void addResidentFile(String fileName) {
+		if (residentFiles.containsKey(fileName))
+			return;
+
+		long size = estimateSize(fileName);
+		residentFiles.put(fileName, size);
+		residentSize += size;
+
+		Array<String> dependencies = assetManager.getDependencies(fileName);
+		if (dependencies != null) {
+			for (String dependency : dependencies)
+				addResidentFile(dependency);
+		}
+	}
+
+	/**
+	 * Stops counting the memory used by the files that are not loaded
+	 * anymore, e.g. the dependencies that were unloaded together with an
+	 * asset.
+	 * 
+	 * @return the estimated memory in bytes that was freed
+	 */
+	private long removeUnloadedFiles() {
+		long freedSize = 0;
+		for (Iterator<Map.Entry<String, Long>> it = residentFiles.entrySet()
+				.iterator(); it.hasNext();) {
+			Map.Entry<String, Long> e = it.next();
+			if (!assetManager.isLoaded(e.getKey())) {
+				freedSize += e.getValue();
+				it.remove();
+			}
+		}
+		residentSize -= freedSize;
+		return freedSize;
+	}
+
+	/**
+	 * Forgets all assets. Is called when all assets are unloaded.
+	 */
+	void clear() {
+		synchronized (assetManager) {
+			assets.clear();
+			residentFiles.clear();
+			residentSize = 0;
+		}
+	}
+
+	/**
+	 * @param fileName
+	 *            a loaded file
+	 * @return the estimated memory in bytes used by the file, excluding its
+	 *         dependencies
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private long estimateSize(String fileName) {
+		Object asset = assetManager.get(fileName);
+		FileHandle file = assetManager.getFileHandleResolver()
+				.resolve(fileName);
+
+		SizeEstimator estimator = sizeEstimators.get(asset.getClass());
+		if (estimator == null) {
+			for (Map.Entry<Class<?>, SizeEstimator<?>> e : sizeEstimators
+					.entrySet()) {
+				if (e.getKey().isInstance(asset)) {
+					estimator = e.getValue();
+					break;
+				}
+			}
+		}
+
+		return estimator != null ? estimator.estimateSize(asset, file)
+				: file.length();
+	}
+
+	private static long getTextureSize(Texture texture) {
+		long size = (long) texture.getWidth() * texture.getHeight()
+				* getBytesPerPixel(texture.getTextureData().getFormat());
+		if (texture.getMinFilter().isMipMap())
+			size = size * 4 / 3;
+		return size;
+	}
+
+	private static int getBytesPerPixel(Format format) {
+		switch (format) {
+		case Alpha:
+		case Intensity:
+			return 1;
+		case LuminanceAlpha:
+		case RGB565:
+		case RGBA4444:
+			return 2;
+		case RGB888:
+			return 3;
+		default:
+			return 4;
+		}
+	}
+
+	/**
+	 * Estimates the memory used by an asset of a certain type.
+	 * 
+	 * @param <T>
+	 */
+	public interface SizeEstimator<T> {
+
+		/**
+		 * @param asset
+		 *            the loaded asset
+		 * @param file
+		 *            the asset's file
+		 * @return the estimated memory in bytes used by the asset, excluding
+		 *         its dependencies
+		 */
+		public long estimateSize(T asset, FileHandle file);
+
+	}
+
+	private static class ResidentAsset {
+		private final Class<?> type;
+		private final Set<Object> owners = Collections
+				.newSetFromMap(new WeakHashMap<>());
+		private boolean isPinned = false;
+
+		ResidentAsset(Class<?> type) {
+			this.type = type;
+		}
+	}
+
+}
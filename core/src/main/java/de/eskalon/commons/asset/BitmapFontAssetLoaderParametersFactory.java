@@ -41,13 +41,21 @@ public class BitmapFontAssetLoaderParametersFactory
 		String[] param = params.split(",");
 
 		if (param.length == 2) {
-			font.fontFileName = param[0];
-			font.fontParameters.size = Integer.valueOf(param[1].trim());
-			return font;
+			try {
+				font.fontFileName = param[0].trim();
+				font.fontParameters.size = Integer.parseInt(param[1].trim());
+
+				if (!font.fontFileName.isEmpty()
+						&& font.fontParameters.size > 0)
+					return font;
+			} catch (NumberFormatException e) {
+				// handled below
+			}
 		}
 
 		throw new IllegalArgumentException("The params '" + params
-				+ "' for the asset '" + path + "' are not in a valid format.");
+				+ "' for the asset '" + path
+				+ "' are not in a valid format; expected 'path/to/font.ttf, size'.");
 	}
 
 }
@@ -0,0 +1,467 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.asset;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import org.jspecify.annotations.Nullable;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.BitmapFontData;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeFontParameter;
+import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader;
+import com.badlogic.gdx.graphics.glutils.FileTextureData;
+import com.badlogic.gdx.graphics.glutils.PixmapTextureData;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import de.damios.guacamole.annotations.GwtIncompatible;
+import de.damios.guacamole.gdx.log.Logger;
+import de.damios.guacamole.gdx.log.LoggerService;
+
+/**
+ * A {@link FreetypeFontLoader} that caches the generated fonts on disk. When
+ * a font with the same font file and the same
+ * {@linkplain FreeTypeFontParameter parameters} is loaded again, e.g. on the
+ * next start, its glyphs are read from the cache instead of being rasterized
+ * by FreeType again. In this case, the font file is not even opened by
+ * FreeType.
+ * <p>
+ * A cached font consists of a file containing its metrics and glyphs as well
+ * as a PNG file for each of its pages. The files are named after a hash of the
+ * font file's contents and the parameters, so changing either of them results
+ * in the font being generated again. Fonts that are generated
+ * {@linkplain FreeTypeFontParameter#incremental incrementally} or onto a
+ * {@linkplain FreeTypeFontParameter#packer given packer} are not cached.
+ */
+@GwtIncompatible
+public class CachingFreetypeFontLoader extends FreetypeFontLoader {
+
+	private static final Logger LOG = LoggerService
+			.getLogger(CachingFreetypeFontLoader.class);
+
+	/**
+	 * Has to be increased whenever the format of the cached files changes.
+	 */
+	private static final int CACHE_VERSION = 1;
+	private static final String FONT_FILE_EXT = ".font";
+	private static final String PNG_FILE_EXT = ".png";
+
+	private final FileHandle cacheDirectory;
+	/**
+	 * The cacheable fonts that are currently being loaded, by file name.
+	 */
+	private final Map<String, CachedFont> cachedFonts = new HashMap<>();
+
+	/**
+	 * @param resolver
+	 * @param cacheDirectory
+	 *            the directory the generated fonts are cached in
+	 */
+	public CachingFreetypeFontLoader(FileHandleResolver resolver,
+			FileHandle cacheDirectory) {
+		super(resolver);
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Override
+	public @Nullable Array<AssetDescriptor> getDependencies(String fileName,
+			FileHandle file, FreeTypeFontLoaderParameter parameter) {
+		String key = parameter != null ? getCacheKey(parameter) : null;
+
+		if (key != null) {
+			CachedFont cachedFont = new CachedFont(key,
+					getFontFile(key).exists());
+			synchronized (cachedFonts) {
+				cachedFonts.put(fileName, cachedFont);
+			}
+
+			// A cached font is not generated, so no generator is needed
+			if (cachedFont.isCached)
+				return null;
+		}
+
+		return super.getDependencies(fileName, file, parameter);
+	}
+
+	@Override
+	public void loadAsync(AssetManager manager, String fileName,
+			FileHandle file, FreeTypeFontLoaderParameter parameter) {
+		super.loadAsync(manager, fileName, file, parameter);
+
+		CachedFont cachedFont;
+		synchronized (cachedFonts) {
+			cachedFont = cachedFonts.get(fileName);
+		}
+
+		if (cachedFont != null && cachedFont.isCached) {
+			try {
+				readCache(cachedFont);
+			} catch (IOException | GdxRuntimeException e) {
+				LOG.warn(
+						"The cached font '%s' could not be read; it is generated again: %s",
+						fileName, e);
+				cachedFont.dispose();
+			}
+		}
+	}
+
+	@Override
+	public BitmapFont loadSync(AssetManager manager, String fileName,
+			FileHandle file, FreeTypeFontLoaderParameter parameter) {
+		CachedFont cachedFont;
+		synchronized (cachedFonts) {
+			cachedFont = cachedFonts.remove(fileName);
+		}
+
+		if (cachedFont == null)
+			return super.loadSync(manager, fileName, file, parameter);
+
+		if (cachedFont.data != null)
+			return createFont(cachedFont, parameter.fontParameters);
+
+		BitmapFont font;
+		if (cachedFont.isCached) {
+			// The cache could not be read, so the generator was not loaded as
+			// a dependency
+			FreeTypeFontGenerator generator = new FreeTypeFontGenerator(
+					resolve(parameter.fontFileName));
+			try {
+				font = generator.generateFont(parameter.fontParameters);
+			} finally {
+				generator.dispose();
+			}
+		} else {
+			font = super.loadSync(manager, fileName, file, parameter);
+		}
+
+		writeCache(cachedFont.key, font);
+		return font;
+	}
+
+	/**
+	 * @param parameter
+	 * @return a hash of the font file's contents and the parameters;
+	 *         {@code null} if the font cannot be cached
+	 */
+	private @Nullable String getCacheKey(
+			FreeTypeFontLoaderParameter parameter) {
+		FreeTypeFontParameter p = parameter.fontParameters;
+		if (parameter.fontFileName == null || p.packer != null
+				|| p.incremental)
+			return null;
+
+		String params = CACHE_VERSION + "|" + p.size + "|" + p.mono + "|"
+				+ p.hinting + "|" + p.color + "|" + p.gamma + "|"
+				+ p.renderCount + "|" + p.borderWidth + "|" + p.borderColor
+				+ "|" + p.borderStraight + "|" + p.borderGamma + "|"
+				+ p.shadowOffsetX + "|" + p.shadowOffsetY + "|"
+				+ p.shadowColor + "|" + p.spaceX + "|" + p.spaceY + "|"
+				+ p.padTop + "|" + p.padLeft + "|" + p.padBottom + "|"
+				+ p.padRight + "|" + p.characters + "|" + p.kerning + "|"
+				+ p.flip + "|" + p.genMipMaps + "|" + p.minFilter + "|"
+				+ p.magFilter;
+
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(resolve(parameter.fontFileName).readBytes());
+			digest.update(params.getBytes(StandardCharsets.UTF_8));
+
+			StringBuilder key = new StringBuilder();
+			byte[] hash = digest.digest();
+			for (int i = 0; i < 16; i++)
+				key.append(Character.forDigit((hash[i] >> 4) & 0xF, 16))
+						.append(Character.forDigit(hash[i] & 0xF, 16));
+			return key.toString();
+		} catch (NoSuchAlgorithmException | GdxRuntimeException e) {
+			// The generator reports a missing font file
+			return null;
+		}
+	}
+
+	private FileHandle getFontFile(String key) {
+		return cacheDirectory.child(key + FONT_FILE_EXT);
+	}
+
+	private FileHandle getPageFile(String key, int page) {
+		return cacheDirectory.child(key + "_" + page + PNG_FILE_EXT);
+	}
+
+	/**
+	 * Reads the glyphs and pages of a cached font. Is called on the loading
+	 * thread.
+	 * 
+	 * @param cachedFont
+	 * @throws IOException
+	 */
+	private void readCache(CachedFont cachedFont) throws IOException {
+		BitmapFontData data = new BitmapFontData();
+		int pageCount;
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+				getFontFile(cachedFont.key).read()))) {
+			if (in.readInt() != CACHE_VERSION)
+				throw new IOException("Unsupported version");
+
+			data.flipped = in.readBoolean();
+			data.markupEnabled = in.readBoolean();
+			data.padTop = in.readFloat();
+			data.padRight = in.readFloat();
+			data.padBottom = in.readFloat();
+			data.padLeft = in.readFloat();
+			data.lineHeight = in.readFloat();
+			data.capHeight = in.readFloat();
+			data.ascent = in.readFloat();
+			data.descent = in.readFloat();
+			data.down = in.readFloat();
+			data.blankLineScale = in.readFloat();
+			data.scaleX = in.readFloat();
+			data.scaleY = in.readFloat();
+			data.cursorX = in.readFloat();
+			data.spaceXadvance = in.readFloat();
+			data.xHeight = in.readFloat();
+
+			int glyphCount = in.readInt();
+			for (int i = 0; i < glyphCount; i++) {
+				Glyph glyph = readGlyph(in);
+				data.setGlyph(glyph.id, glyph);
+			}
+
+			if (in.readBoolean())
+				data.missingGlyph = readGlyph(in);
+
+			pageCount = in.readInt();
+		}
+
+		cachedFont.pages = new Pixmap[pageCount];
+		for (int i = 0; i < pageCount; i++)
+			cachedFont.pages[i] = new Pixmap(getPageFile(cachedFont.key, i));
+		cachedFont.data = data;
+	}
+
+	private static Glyph readGlyph(DataInputStream in) throws IOException {
+		Glyph glyph = new Glyph();
+		glyph.id = in.readInt();
+		glyph.srcX = in.readInt();
+		glyph.srcY = in.readInt();
+		glyph.width = in.readInt();
+		glyph.height = in.readInt();
+		glyph.xoffset = in.readInt();
+		glyph.yoffset = in.readInt();
+		glyph.xadvance = in.readInt();
+		glyph.page = in.readInt();
+		glyph.fixedWidth = in.readBoolean();
+
+		int kerningCount = in.readInt();
+		for (int i = 0; i < kerningCount; i++)
+			glyph.setKerning(in.readInt(), in.readByte());
+
+		return glyph;
+	}
+
+	private BitmapFont createFont(CachedFont cachedFont,
+			FreeTypeFontParameter parameter) {
+		Array<TextureRegion> regions = new Array<>(cachedFont.pages.length);
+		for (int i = 0; i < cachedFont.pages.length; i++) {
+			// The texture can be reloaded from the cached file if the GL
+			// context is lost
+			Texture texture = new Texture(new FileTextureData(
+					getPageFile(cachedFont.key, i), cachedFont.pages[i], null,
+					parameter.genMipMaps));
+			texture.setFilter(parameter.minFilter, parameter.magFilter);
+			regions.add(new TextureRegion(texture));
+		}
+
+		BitmapFont font = new BitmapFont(cachedFont.data, regions, true);
+		font.setOwnsTexture(true);
+		return font;
+	}
+
+	/**
+	 * Writes a generated font to the cache. The pages are written first, so
+	 * that a font whose writing was interrupted is not considered cached.
+	 * 
+	 * @param key
+	 * @param font
+	 */
+	private void writeCache(String key, BitmapFont font) {
+		Array<TextureRegion> regions = font.getRegions();
+		Pixmap[] pages = new Pixmap[regions.size];
+
+		for (int i = 0; i < regions.size; i++) {
+			TextureRegion region = regions.get(i);
+			TextureData textureData = region.getTexture().getTextureData();
+
+			// Only the pixmaps kept by FreeType's packer can be read back
+			if (!(textureData instanceof PixmapTextureData)
+					|| textureData.disposePixmap() || region.getRegionX() != 0
+					|| region.getRegionY() != 0
+					|| region.getRegionWidth() != textureData.getWidth()
+					|| region.getRegionHeight() != textureData.getHeight())
+				return;
+
+			pages[i] = textureData.consumePixmap();
+		}
+
+		try {
+			for (int i = 0; i < pages.length; i++)
+				PixmapIO.writePNG(getPageFile(key, i), pages[i],
+						Deflater.BEST_SPEED, false);
+
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(getFontFile(key).write(false)))) {
+				writeData(out, font.getData(), pages.length);
+			}
+		} catch (IOException | GdxRuntimeException e) {
+			LOG.warn("The generated font could not be cached: %s", e);
+			getFontFile(key).delete();
+		}
+	}
+
+	private static void writeData(DataOutputStream out, BitmapFontData data,
+			int pageCount) throws IOException {
+		out.writeInt(CACHE_VERSION);
+
+		out.writeBoolean(data.flipped);
+		out.writeBoolean(data.markupEnabled);
+		out.writeFloat(data.padTop);
+		out.writeFloat(data.padRight);
+		out.writeFloat(data.padBottom);
+		out.writeFloat(data.padLeft);
+		out.writeFloat(data.lineHeight);
+		out.writeFloat(data.capHeight);
+		out.writeFloat(data.ascent);
+		out.writeFloat(data.descent);
+		out.writeFloat(data.down);
+		out.writeFloat(data.blankLineScale);
+		out.writeFloat(data.scaleX);
+		out.writeFloat(data.scaleY);
+		out.writeFloat(data.cursorX);
+		out.writeFloat(data.spaceXadvance);
+		out.writeFloat(data.xHeight);
+
+		Array<Glyph> glyphs = new Array<>();
+		for (Glyph[] page : data.glyphs) {
+			if (page == null)
+				continue;
+			for (Glyph glyph : page) {
+				if (glyph != null)
+					glyphs.add(glyph);
+			}
+		}
+		out.writeInt(glyphs.size);
+		for (Glyph glyph : glyphs)
+			writeGlyph(out, glyph);
+
+		out.writeBoolean(data.missingGlyph != null);
+		if (data.missingGlyph != null)
+			writeGlyph(out, data.missingGlyph);
+		out.writeInt(pageCount);
+	}
+
+	private static void writeGlyph(DataOutputStream out, Glyph glyph)
+			throws IOException {
+		out.writeInt(glyph.id);
+		out.writeInt(glyph.srcX);
+		out.writeInt(glyph.srcY);
+		out.writeInt(glyph.width);
+		out.writeInt(glyph.height);
+		out.writeInt(glyph.xoffset);
+		out.writeInt(glyph.yoffset);
+		out.writeInt(glyph.xadvance);
+		out.writeInt(glyph.page);
+		out.writeBoolean(glyph.fixedWidth);
+
+		int kerningCount = 0;
+		if (glyph.kerning != null) {
+			for (byte[] page : glyph.kerning) {
+				if (page == null)
+					continue;
+				for (byte amount : page) {
+					if (amount != 0)
+						kerningCount++;
+				}
+			}
+		}
+
+		out.writeInt(kerningCount);
+		if (kerningCount > 0) {
+			for (int p = 0; p < glyph.kerning.length; p++) {
+				byte[] page = glyph.kerning[p];
+				if (page == null)
+					continue;
+				for (int i = 0; i < page.length; i++) {
+					if (page[i] != 0) {
+						out.writeInt(p * page.length + i);
+						out.writeByte(page[i]);
+					}
+				}
+			}
+		}
+	}
+
+	private static class CachedFont {
+		private final String key;
+		/**
+		 * Whether the font was found in the cache.
+		 */
+		private boolean isCached;
+		private @Nullable BitmapFontData data;
+		private Pixmap @Nullable [] pages;
+
+		CachedFont(String key, boolean isCached) {
+			this.key = key;
+			this.isCached = isCached;
+		}
+
+		/**
+		 * Disposes the pages read so far.
+		 */
+		void dispose() {
+			if (pages != null) {
+				for (Pixmap page : pages) {
+					if (page != null)
+						page.dispose();
+				}
+			}
+			pages = null;
+			data = null;
+		}
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.asset;
+
+import org.jspecify.annotations.Nullable;
+
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+
+/**
+ * An asset loader whose assets can be decoded (e.g. read from disk and parsed)
+ * ahead of time and concurrently with other assets. Only the decoding is done
+ * in parallel; the remaining steps, in particular uploading data to the GPU,
+ * are still taken care of one asset at a time by the
+ * {@link com.badlogic.gdx.assets.AssetManager AssetManager}.
+ * <p>
+ * If {@linkplain AnnotationAssetManager#enableParallelLoading(int) enabled},
+ * the {@link AnnotationAssetManager} calls {@link #prefetch(AsyncExecutor,
+ * String, FileHandle, AssetLoaderParameters)} as soon as an asset is queued.
+ * The loader then uses the prefetched data instead of decoding the asset
+ * itself. Implementations usually delegate to {@link PrefetchedAssets}.
+ * 
+ * @param <P>
+ *            the type of the loader's parameters
+ * @see AnnotationAssetManager#enableParallelLoading(int)
+ */
+public interface ParallelAssetLoader<P extends AssetLoaderParameters<?>> {
+
+	/**
+	 * Starts decoding the given asset on the given executor.
+	 * 
+	 * @param executor
+	 * @param fileName
+	 * @param file
+	 *            the resolved file
+	 * @param parameter
+	 */
+	public void prefetch(AsyncExecutor executor, String fileName,
+			FileHandle file, @Nullable P parameter);
+
+	/**
+	 * Frees the prefetched data of the given asset, if it was not used. Is
+	 * called when an asset is unloaded before it was loaded.
+	 * 
+	 * @param fileName
+	 */
+	public void discardPrefetched(String fileName);
+
+}
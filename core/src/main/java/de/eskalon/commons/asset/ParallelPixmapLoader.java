@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.asset;
+
+import org.jspecify.annotations.Nullable;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.PixmapLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+
+/**
+ * A {@link PixmapLoader} whose image files can be decoded in parallel.
+ * 
+ * @see ParallelAssetLoader
+ */
+public class ParallelPixmapLoader extends PixmapLoader
+		implements ParallelAssetLoader<PixmapLoader.PixmapParameter> {
+
+	private final PrefetchedAssets<Pixmap> prefetchedAssets = new PrefetchedAssets<>(
+			Pixmap::dispose);
+
+	private @Nullable Pixmap pixmap;
+
+	public ParallelPixmapLoader(FileHandleResolver resolver) {
+		super(resolver);
+	}
+
+	@Override
+	public void prefetch(AsyncExecutor executor, String fileName,
+			FileHandle file, @Nullable PixmapParameter parameter) {
+		prefetchedAssets.prefetch(executor, fileName, () -> new Pixmap(file));
+	}
+
+	@Override
+	public void discardPrefetched(String fileName) {
+		prefetchedAssets.discard(fileName);
+	}
+
+	@Override
+	public void loadAsync(AssetManager manager, String fileName,
+			FileHandle file, @Nullable PixmapParameter parameter) {
+		pixmap = prefetchedAssets.take(fileName);
+		if (pixmap == null)
+			pixmap = new Pixmap(file);
+	}
+
+	@Override
+	public Pixmap loadSync(AssetManager manager, String fileName,
+			FileHandle file, @Nullable PixmapParameter parameter) {
+		Pixmap pixmap = this.pixmap;
+		this.pixmap = null;
+		return pixmap;
+	}
+
+}
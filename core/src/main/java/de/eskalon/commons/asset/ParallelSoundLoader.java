@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.asset;
+
+import org.jspecify.annotations.Nullable;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.SoundLoader;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+
+/**
+ * A {@link SoundLoader} whose sound files can be decoded in parallel.
+ * 
+ * @see ParallelAssetLoader
+ */
+public class ParallelSoundLoader extends SoundLoader
+		implements ParallelAssetLoader<SoundLoader.SoundParameter> {
+
+	private final PrefetchedAssets<Sound> prefetchedAssets = new PrefetchedAssets<>(
+			Sound::dispose);
+
+	private @Nullable Sound sound;
+
+	public ParallelSoundLoader(FileHandleResolver resolver) {
+		super(resolver);
+	}
+
+	@Override
+	public void prefetch(AsyncExecutor executor, String fileName,
+			FileHandle file, @Nullable SoundParameter parameter) {
+		// The audio backends fully decode sounds upon creation
+		prefetchedAssets.prefetch(executor, fileName,
+				() -> Gdx.audio.newSound(file));
+	}
+
+	@Override
+	public void discardPrefetched(String fileName) {
+		prefetchedAssets.discard(fileName);
+	}
+
+	@Override
+	public void loadAsync(AssetManager manager, String fileName,
+			FileHandle file, @Nullable SoundParameter parameter) {
+		sound = prefetchedAssets.take(fileName);
+		if (sound == null)
+			sound = Gdx.audio.newSound(file);
+	}
+
+	@Override
+	public Sound loadSync(AssetManager manager, String fileName,
+			FileHandle file, @Nullable SoundParameter parameter) {
+		Sound sound = this.sound;
+		this.sound = null;
+		return sound;
+	}
+
+}
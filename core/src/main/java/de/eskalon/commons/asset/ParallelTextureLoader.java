@@ -0,0 +1,261 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.asset;
+
+import org.jspecify.annotations.Nullable;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.TextureData.TextureDataType;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+
+import de.eskalon.commons.asset.UploadScheduler.MipMapUpload;
+
+/**
+ * A {@link TextureLoader} whose image files can be decoded in parallel. The
+ * texture itself is still created on the rendering thread.
+ * <p>
+ * If an {@link UploadScheduler} is given, only the first level of textures
+ * with {@linkplain TextureParameter#genMipMaps mipmaps} is uploaded when the
+ * texture is loaded. The other levels are uploaded by the scheduler, one level
+ * at a time, afterwards. Until then, the texture is minified without
+ * mipmaps.
+ * 
+ * @see ParallelAssetLoader
+ */
+public class ParallelTextureLoader extends TextureLoader
+		implements ParallelAssetLoader<TextureLoader.TextureParameter> {
+
+	private final PrefetchedAssets<TextureData> prefetchedAssets = new PrefetchedAssets<>(
+			ParallelTextureLoader::discard);
+	private final @Nullable UploadScheduler uploadScheduler;
+
+	public ParallelTextureLoader(FileHandleResolver resolver) {
+		this(resolver, null);
+	}
+
+	/**
+	 * @param resolver
+	 * @param uploadScheduler
+	 *            the scheduler used to upload mipmap levels; if {@code null},
+	 *            all levels are uploaded right away
+	 */
+	public ParallelTextureLoader(FileHandleResolver resolver,
+			@Nullable UploadScheduler uploadScheduler) {
+		super(resolver);
+		this.uploadScheduler = uploadScheduler;
+	}
+
+	@Override
+	public void prefetch(AsyncExecutor executor, String fileName,
+			FileHandle file, @Nullable TextureParameter parameter) {
+		if (parameter != null && parameter.textureData != null)
+			return; // nothing to decode
+
+		prefetchedAssets.prefetch(executor, fileName,
+				() -> decode(file, parameter));
+	}
+
+	@Override
+	public void discardPrefetched(String fileName) {
+		prefetchedAssets.discard(fileName);
+	}
+
+	@Override
+	public void loadAsync(AssetManager manager, String fileName,
+			FileHandle file, @Nullable TextureParameter parameter) {
+		TextureData data = prefetchedAssets.take(fileName);
+
+		if (uploadScheduler != null && parameter != null
+				&& parameter.genMipMaps && parameter.textureData == null) {
+			if (data == null)
+				data = decode(file, parameter);
+			if (data.getType() == TextureDataType.Pixmap)
+				data = new DeferredMipMapTextureData(data);
+		}
+
+		if (data != null) {
+			// TextureLoader uses the given texture data instead of loading
+			// the file itself
+			TextureParameter prefetchedParameter = new TextureParameter();
+			if (parameter != null) {
+				prefetchedParameter.format = parameter.format;
+				prefetchedParameter.genMipMaps = parameter.genMipMaps;
+				prefetchedParameter.texture = parameter.texture;
+			}
+			prefetchedParameter.textureData = data;
+			parameter = prefetchedParameter;
+		}
+
+		super.loadAsync(manager, fileName, file, parameter);
+	}
+
+	@Override
+	public Texture loadSync(AssetManager manager, String fileName,
+			FileHandle file, @Nullable TextureParameter parameter) {
+		Texture texture = super.loadSync(manager, fileName, file, parameter);
+
+		if (texture.getTextureData() instanceof DeferredMipMapTextureData) {
+			DeferredMipMapTextureData data = (DeferredMipMapTextureData) texture
+					.getTextureData();
+			Pixmap pixmap = data.takeFirstLevel();
+
+			if (pixmap != null) {
+				// The texture is incomplete as long as not all levels are
+				// uploaded
+				TextureFilter minFilter = texture.getMinFilter();
+				texture.setFilter(getFilterWithoutMipMaps(minFilter),
+						texture.getMagFilter());
+
+				uploadScheduler.schedule(fileName, new MipMapUpload(texture,
+						pixmap, data.disposePixmap(), minFilter));
+			}
+		}
+
+		return texture;
+	}
+
+	private static TextureFilter getFilterWithoutMipMaps(
+			TextureFilter filter) {
+		switch (filter) {
+		case MipMapNearestNearest:
+		case MipMapNearestLinear:
+			return TextureFilter.Nearest;
+		case MipMap:
+		case MipMapLinearNearest:
+		case MipMapLinearLinear:
+			return TextureFilter.Linear;
+		default:
+			return filter;
+		}
+	}
+
+	private static TextureData decode(FileHandle file,
+			@Nullable TextureParameter parameter) {
+		TextureData data = TextureData.Factory.loadFromFile(file,
+				parameter != null ? parameter.format : null,
+				parameter != null && parameter.genMipMaps);
+
+		if (!data.isPrepared())
+			data.prepare();
+		return data;
+	}
+
+	private static void discard(TextureData data) {
+		if (data.getType() == TextureDataType.Pixmap) {
+			Pixmap pixmap = data.consumePixmap();
+			if (data.disposePixmap())
+				pixmap.dispose();
+		}
+	}
+
+	/**
+	 * Texture data whose first upload only contains the first mipmap level.
+	 * The image data of this level is kept, so that the other levels can be
+	 * generated from it afterwards. When the texture is reloaded (e.g. after
+	 * the GL context was lost), all levels are uploaded right away.
+	 */
+	private static class DeferredMipMapTextureData implements TextureData {
+		private final TextureData data;
+		private boolean isFirstUpload = true;
+		private @Nullable Pixmap firstLevel;
+
+		DeferredMipMapTextureData(TextureData data) {
+			this.data = data;
+		}
+
+		/**
+		 * @return the image data of the first mipmap level or {@code null} if
+		 *         the texture was not uploaded yet
+		 */
+		@Nullable
+		Pixmap takeFirstLevel() {
+			Pixmap pixmap = firstLevel;
+			firstLevel = null;
+			isFirstUpload = false;
+			return pixmap;
+		}
+
+		@Override
+		public TextureDataType getType() {
+			return data.getType();
+		}
+
+		@Override
+		public boolean isPrepared() {
+			return data.isPrepared();
+		}
+
+		@Override
+		public void prepare() {
+			data.prepare();
+		}
+
+		@Override
+		public Pixmap consumePixmap() {
+			Pixmap pixmap = data.consumePixmap();
+			if (isFirstUpload)
+				firstLevel = pixmap;
+			return pixmap;
+		}
+
+		@Override
+		public boolean disposePixmap() {
+			// The first level is still needed for the other levels
+			return !isFirstUpload && data.disposePixmap();
+		}
+
+		@Override
+		public void consumeCustomData(int target) {
+			throw new GdxRuntimeException(
+					"This TextureData implementation does not upload data itself");
+		}
+
+		@Override
+		public int getWidth() {
+			return data.getWidth();
+		}
+
+		@Override
+		public int getHeight() {
+			return data.getHeight();
+		}
+
+		@Override
+		public Format getFormat() {
+			return data.getFormat();
+		}
+
+		@Override
+		public boolean useMipMaps() {
+			return !isFirstUpload && data.useMipMaps();
+		}
+
+		@Override
+		public boolean isManaged() {
+			return data.isManaged();
+		}
+	}
+
+}
@@ -17,6 +17,8 @@ package de.eskalon.commons.asset;
 
 import java.io.UnsupportedEncodingException;
 
+import org.jspecify.annotations.Nullable;
+
 import com.badlogic.gdx.assets.AssetDescriptor;
 import com.badlogic.gdx.assets.AssetLoaderParameters;
 import com.badlogic.gdx.assets.AssetManager;
@@ -26,6 +28,7 @@ import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
 
 import de.eskalon.commons.asset.PlaylistDefinitionLoader.PlaylistDefinitionParameter;
 
@@ -35,31 +38,53 @@ import de.eskalon.commons.asset.PlaylistDefinitionLoader.PlaylistDefinitionParam
  * @author damios
  */
 public class PlaylistDefinitionLoader extends
-		AsynchronousAssetLoader<PlaylistDefinition, PlaylistDefinitionParameter> {
+		AsynchronousAssetLoader<PlaylistDefinition, PlaylistDefinitionParameter>
+		implements ParallelAssetLoader<PlaylistDefinitionParameter> {
 
-	private Json jsonParser;
+	private final PrefetchedAssets<PlaylistDefinition> prefetchedAssets = new PrefetchedAssets<>(
+			d -> {
+				// nothing to free
+			});
 
 	private PlaylistDefinition data;
 
 	public PlaylistDefinitionLoader(FileHandleResolver resolver) {
 		super(resolver);
+	}
 
-		this.jsonParser = new Json();
-		this.jsonParser.setTypeName(null);
+	@Override
+	public void prefetch(AsyncExecutor executor, String fileName,
+			FileHandle file, @Nullable PlaylistDefinitionParameter parameter) {
+		prefetchedAssets.prefetch(executor, fileName, () -> parse(file));
 	}
 
-	@SuppressWarnings("rawtypes")
 	@Override
-	public Array<AssetDescriptor> getDependencies(String fileName,
-			FileHandle file, PlaylistDefinitionParameter parameter) {
-		Array<AssetDescriptor> deps = new Array<>();
+	public void discardPrefetched(String fileName) {
+		prefetchedAssets.discard(fileName);
+	}
+
+	private static PlaylistDefinition parse(FileHandle file) {
 		String json;
 		try { // Charset.defaultCharset(), etc. is not supported on GWT
 			json = new String(file.readBytes(), "UTF-8");
 		} catch (UnsupportedEncodingException e) {
 			json = new String(file.readBytes());
 		}
-		data = jsonParser.fromJson(PlaylistDefinition.class, json);
+
+		// Json is not thread-safe, so each file gets its own parser
+		Json jsonParser = new Json();
+		jsonParser.setTypeName(null);
+		return jsonParser.fromJson(PlaylistDefinition.class, json);
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Override
+	public Array<AssetDescriptor> getDependencies(String fileName,
+			FileHandle file, PlaylistDefinitionParameter parameter) {
+		Array<AssetDescriptor> deps = new Array<>();
+		data = prefetchedAssets.take(fileName);
+		if (data == null)
+			data = parse(file);
 
 		for (String[] s : data.music) {
 			FileHandle f = file.parent().child(s[1]);
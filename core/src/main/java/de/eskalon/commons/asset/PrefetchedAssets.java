@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.asset;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.jspecify.annotations.Nullable;
+
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+
+/**
+ * Keeps track of the data a {@link ParallelAssetLoader} decodes ahead of time.
+ * 
+ * @param <D>
+ *            the type of the decoded data
+ */
+public class PrefetchedAssets<D> {
+
+	private final Map<String, Prefetch<D>> prefetches = new ConcurrentHashMap<>();
+	private final Consumer<D> discarder;
+
+	/**
+	 * @param discarder
+	 *            frees decoded data that is not used after all, e.g. by
+	 *            disposing it
+	 */
+	public PrefetchedAssets(Consumer<D> discarder) {
+		this.discarder = discarder;
+	}
+
+	/**
+	 * Starts decoding an asset. Has no effect if the asset is already being
+	 * decoded. Is not supposed to be called concurrently for the same asset.
+	 * 
+	 * @param executor
+	 * @param fileName
+	 * @param decoder
+	 *            decodes the asset; is called on the executor, concurrently
+	 *            with other decoders
+	 */
+	public void prefetch(AsyncExecutor executor, String fileName,
+			AsyncTask<D> decoder) {
+		if (prefetches.containsKey(fileName))
+			return;
+
+		Prefetch<D> prefetch = new Prefetch<>();
+		prefetch.result = executor.submit(() -> {
+			D data = decoder.call();
+
+			synchronized (prefetch) {
+				if (prefetch.discarded) {
+					if (data != null)
+						discarder.accept(data);
+					return null;
+				}
+				prefetch.completed = true;
+				return data;
+			}
+		});
+		prefetches.put(fileName, prefetch);
+	}
+
+	/**
+	 * Retrieves the decoded data of an asset. Waits for the decoding to finish
+	 * if necessary.
+	 * 
+	 * @param fileName
+	 * @return the decoded data; {@code null} if the asset was not prefetched
+	 * @throws com.badlogic.gdx.utils.GdxRuntimeException
+	 *             if the asset could not be decoded
+	 */
+	public @Nullable D take(String fileName) {
+		Prefetch<D> prefetch = prefetches.remove(fileName);
+		if (prefetch == null)
+			return null;
+
+		return prefetch.result.get();
+	}
+
+	/**
+	 * Frees the decoded data of an asset, if it was not
+	 * {@linkplain #take(String) taken}.
+	 * 
+	 * @param fileName
+	 */
+	public void discard(String fileName) {
+		Prefetch<D> prefetch = prefetches.remove(fileName);
+		if (prefetch == null)
+			return;
+
+		synchronized (prefetch) {
+			prefetch.discarded = true;
+			if (!prefetch.completed)
+				return; // the decoder discards the data itself
+		}
+
+		D data = prefetch.result.get();
+		if (data != null)
+			discarder.accept(data);
+	}
+
+	private static final class Prefetch<D> {
+		private @Nullable AsyncResult<D> result;
+		/**
+		 * Whether the data was decoded and handed over to {@link #result}.
+		 */
+		private boolean completed = false;
+		private boolean discarded = false;
+	}
+
+}
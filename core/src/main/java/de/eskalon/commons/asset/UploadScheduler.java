@@ -0,0 +1,255 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.asset;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Blending;
+import com.badlogic.gdx.graphics.Pixmap.Filter;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import de.damios.guacamole.Preconditions;
+import de.damios.guacamole.gdx.log.Logger;
+import de.damios.guacamole.gdx.log.LoggerService;
+import de.eskalon.commons.event.LatencyHistogram;
+
+/**
+ * Spreads expensive GL work, like uploading mipmap levels, over multiple
+ * frames. The work is split into small
+ * {@linkplain UploadTask#uploadNextSlice() slices}; every frame, only as many
+ * slices are uploaded as fit into the given time budget.
+ * <p>
+ * The time taken by each slice is recorded in {@link #getSliceTimes()}.
+ * <p>
+ * Has to be used on the rendering thread.
+ * 
+ * @see ParallelTextureLoader
+ */
+public class UploadScheduler {
+
+	private static final Logger LOG = LoggerService
+			.getLogger(UploadScheduler.class);
+
+	private final Queue<ScheduledUpload> uploads = new ArrayDeque<>();
+	private final LatencyHistogram sliceTimes = new LatencyHistogram();
+
+	/**
+	 * Schedules an upload. Uploads are processed in the order they were
+	 * scheduled.
+	 * 
+	 * @param name
+	 *            the name of the upload, e.g. the file name of the asset;
+	 *            used for logging
+	 * @param task
+	 */
+	public void schedule(String name, UploadTask task) {
+		Preconditions.checkNotNull(task);
+
+		uploads.add(new ScheduledUpload(name, task));
+	}
+
+	/**
+	 * Uploads slices until the given time budget is used up. At least one
+	 * slice is uploaded per call, so that progress is made even if a single
+	 * slice exceeds the budget. Another slice is only started if the
+	 * previous slice of the same upload took less time than there is left.
+	 * 
+	 * @param budgetNanos
+	 *            the time in nanoseconds that may be spent
+	 * @return whether all scheduled uploads are finished
+	 */
+	public boolean update(long budgetNanos) {
+		long startTime = TimeUtils.nanoTime();
+		boolean uploadedSlice = false;
+		ScheduledUpload upload;
+
+		while ((upload = uploads.peek()) != null) {
+			long remainingNanos = budgetNanos
+					- (TimeUtils.nanoTime() - startTime);
+			if (uploadedSlice && (remainingNanos <= 0
+					|| upload.lastSliceTime > remainingNanos))
+				break;
+
+			long sliceStartTime = TimeUtils.nanoTime();
+			boolean finished = upload.task.uploadNextSlice();
+			upload.lastSliceTime = TimeUtils.nanoTime() - sliceStartTime;
+			upload.sliceCount++;
+			uploadedSlice = true;
+
+			sliceTimes.record(upload.lastSliceTime);
+			LOG.trace("Uploaded slice %d of '%s' in %d us.",
+					upload.sliceCount, upload.name,
+					upload.lastSliceTime / 1000);
+
+			if (finished)
+				uploads.poll();
+		}
+
+		return uploads.isEmpty();
+	}
+
+	/**
+	 * @return whether all scheduled uploads are finished
+	 */
+	public boolean isFinished() {
+		return uploads.isEmpty();
+	}
+
+	/**
+	 * @return the number of uploads that are not finished yet
+	 */
+	public int getPendingUploadCount() {
+		return uploads.size();
+	}
+
+	/**
+	 * @return the time taken by the uploaded slices
+	 */
+	public LatencyHistogram getSliceTimes() {
+		return sliceTimes;
+	}
+
+	/**
+	 * Cancels all uploads that are not finished yet.
+	 */
+	public void clear() {
+		for (ScheduledUpload upload : uploads)
+			upload.task.cancel();
+		uploads.clear();
+	}
+
+	/**
+	 * GL work that can be split into slices.
+	 */
+	public interface UploadTask {
+
+		/**
+		 * Uploads the next slice. Is called on the rendering thread.
+		 * 
+		 * @return whether the task is finished
+		 */
+		public boolean uploadNextSlice();
+
+		/**
+		 * Is called if the task is cancelled before it is finished, e.g. to
+		 * free resources.
+		 */
+		public default void cancel() {
+			// nothing to free by default
+		}
+
+	}
+
+	/**
+	 * Uploads the mipmap levels of a texture, one level per slice. Level 0
+	 * has to be uploaded already.
+	 * <p>
+	 * As long as not all levels are uploaded, the texture has to use a
+	 * minification filter without mipmaps; the given filter is set once the
+	 * last level is uploaded. If the texture is disposed in the meantime,
+	 * the remaining levels are skipped.
+	 */
+	public static class MipMapUpload implements UploadTask {
+		private final Texture texture;
+		private final TextureFilter minFilter;
+		private Pixmap previousLevel;
+		private boolean ownsPreviousLevel;
+		private int level = 0;
+
+		/**
+		 * @param texture
+		 * @param pixmap
+		 *            the image data of level 0
+		 * @param disposePixmap
+		 *            whether the pixmap is disposed after it was used
+		 * @param minFilter
+		 *            the minification filter to use once all levels are
+		 *            uploaded
+		 */
+		public MipMapUpload(Texture texture, Pixmap pixmap,
+				boolean disposePixmap, TextureFilter minFilter) {
+			this.texture = texture;
+			this.previousLevel = pixmap;
+			this.ownsPreviousLevel = disposePixmap;
+			this.minFilter = minFilter;
+		}
+
+		@Override
+		public boolean uploadNextSlice() {
+			int width = previousLevel.getWidth();
+			int height = previousLevel.getHeight();
+
+			if (texture.getTextureObjectHandle() == 0
+					|| (width == 1 && height == 1)) {
+				cancel();
+				if (texture.getTextureObjectHandle() != 0)
+					texture.setFilter(minFilter, texture.getMagFilter());
+				return true;
+			}
+
+			width = Math.max(1, width / 2);
+			height = Math.max(1, height / 2);
+			level++;
+
+			Pixmap pixmap = new Pixmap(width, height,
+					texture.getTextureData().getFormat());
+			pixmap.setBlending(Blending.None);
+			pixmap.setFilter(Filter.BiLinear);
+			pixmap.drawPixmap(previousLevel, 0, 0, previousLevel.getWidth(),
+					previousLevel.getHeight(), 0, 0, width, height);
+
+			texture.bind();
+			Gdx.gl.glPixelStorei(GL20.GL_UNPACK_ALIGNMENT, 1);
+			Gdx.gl.glTexImage2D(GL20.GL_TEXTURE_2D, level,
+					pixmap.getGLInternalFormat(), width, height, 0,
+					pixmap.getGLFormat(), pixmap.getGLType(),
+					pixmap.getPixels());
+
+			cancel();
+			previousLevel = pixmap;
+			ownsPreviousLevel = true;
+
+			return false;
+		}
+
+		@Override
+		public void cancel() {
+			if (ownsPreviousLevel) {
+				previousLevel.dispose();
+				ownsPreviousLevel = false;
+			}
+		}
+	}
+
+	private static class ScheduledUpload {
+		private final String name;
+		private final UploadTask task;
+		private long lastSliceTime = 0;
+		private int sliceCount = 0;
+
+		ScheduledUpload(String name, UploadTask task) {
+			this.name = name;
+			this.task = task;
+		}
+	}
+
+}
@@ -15,8 +15,13 @@
 
 package de.eskalon.commons.core;
 
+import java.util.concurrent.Executor;
+
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
@@ -30,8 +35,14 @@ import de.damios.guacamole.Exceptions;
 import de.damios.guacamole.gdx.assets.Text;
 import de.damios.guacamole.gdx.assets.TextLoader;
 import de.damios.guacamole.gdx.log.Logger;
+import de.damios.guacamole.gdx.log.LoggerService;
 import de.eskalon.commons.asset.AnnotationAssetManager;
+import de.eskalon.commons.asset.AssetHotReloader;
 import de.eskalon.commons.asset.BitmapFontAssetLoaderParametersFactory;
+import de.eskalon.commons.asset.CachingFreetypeFontLoader;
+import de.eskalon.commons.asset.ParallelPixmapLoader;
+import de.eskalon.commons.asset.ParallelSoundLoader;
+import de.eskalon.commons.asset.ParallelTextureLoader;
 import de.eskalon.commons.asset.PlaylistDefinition;
 import de.eskalon.commons.asset.PlaylistDefinitionLoader;
 import de.eskalon.commons.asset.SkinAssetLoaderParametersFactory;
@@ -75,10 +86,12 @@ import de.eskalon.commons.utils.ScreenshotUtils;
  * <li>the {@link StartArguments}</li>
  * </ul>
  * In addition, the application registers some convenience keybinds, in
- * particular F2 to toggle a {@linkplain DebugInfoRenderer debug overlay} and
- * F12 to take a screenshot.
+ * particular F2 to toggle a {@linkplain DebugInfoRenderer debug overlay}, F3
+ * to switch between its pages and F12 to take a screenshot.
  * <p>
  * When the application is created, an {@link EskalonSplashScreen} is pushed.
+ * If {@linkplain EskalonApplicationConfiguration#createSingletonsOnStartup()
+ * configured}, the application's singletons are created while it is shown.
  * 
  * @author damios
  * @see ManagedGame
@@ -128,11 +141,32 @@ public abstract class AbstractEskalonApplication
 		assetManager.setLoader(FreeTypeFontGenerator.class,
 				new FreeTypeFontGeneratorLoader(resolver));
 		assetManager.setLoader(BitmapFont.class, ".ttf",
-				new FreetypeFontLoader(resolver));
+				config.getFontCacheDirectory() != null
+						? new CachingFreetypeFontLoader(resolver,
+								Gdx.files.local(config.getFontCacheDirectory()))
+						: new FreetypeFontLoader(resolver));
 		assetManager.setLoader(Text.class, new TextLoader(resolver));
 		assetManager.setLoader(PlaylistDefinition.class,
 				new PlaylistDefinitionLoader(resolver));
 		assetManager.setLoader(Skin.class, new FreeTypeSkinLoader(resolver));
+		if (config.getAssetLoadingThreadCount() > 0
+				|| config.getUploadBudget() != Long.MAX_VALUE) {
+			assetManager.setLoader(Texture.class,
+					new ParallelTextureLoader(resolver,
+							config.getUploadBudget() != Long.MAX_VALUE
+									? assetManager.getUploadScheduler()
+									: null));
+		}
+		if (config.getAssetLoadingThreadCount() > 0) {
+			assetManager.setLoader(Pixmap.class,
+					new ParallelPixmapLoader(resolver));
+			assetManager.setLoader(Sound.class,
+					new ParallelSoundLoader(resolver));
+			assetManager
+					.enableParallelLoading(config.getAssetLoadingThreadCount());
+		}
+		assetManager.getResidencyManager()
+				.setBudget(config.getAssetMemoryBudget());
 
 		// Loader Parameter Factories
 		assetManager.registerAssetLoaderParametersFactory(BitmapFont.class,
@@ -153,6 +187,12 @@ public abstract class AbstractEskalonApplication
 		this.getScreenManager().setHasDepth(config.shouldProvideDepthBuffers());
 		this.getScreenManager().setAutoDispose(true, false);
 
+		/*
+		 * HOT RELOADING
+		 */
+		if (startArgs.shouldHotReloadAssets())
+			assetManager.enableHotReloading(injector, "");
+
 		/*
 		 * POST PROCESSING
 		 */
@@ -168,7 +208,7 @@ public abstract class AbstractEskalonApplication
 		 * MISC
 		 */
 		debugInfoRenderer = new DebugInfoRenderer(batch,
-				appContext.getVersion(), soundManager);
+				appContext.getVersion(), soundManager, eventBus, assetManager);
 
 		/*
 		 * INPUT
@@ -193,28 +233,32 @@ public abstract class AbstractEskalonApplication
 						Gdx.graphics.getHeight(), assetManager
 								.get(EskalonCommonsAssets.DEFAULT_FONT_NAME));
 
-				// Push second screen (usually asset loading)
-				if (!startArgs.shouldSkipSplashScreen()) {
-					injector.bindToConstructor(BlankScreen.class);
-					screenManager.pushScreen(
-							injector.getInstance(BlankScreen.class),
-							new BlendingTransition(batch, 0.18F,
-									Interpolation.fade));
-					screenManager.pushScreen(
-							injector.getInstance(BlankScreen.class),
-							new BlankTimedTransition(0.22F));
-					screenManager.pushScreen(injector.getInstance(initApp()),
-							new BlendingTransition(batch, 0.35F,
-									Interpolation.pow2In));
+				Class<? extends AbstractEskalonScreen> screenClass = initApp();
+
+				// Report problems with the bindings set up by the application
+				// now instead of when the affected types are first requested
+				if (LoggerService.isDebugEnabled()) {
+					for (String problem : injector.validateBindings())
+						LOG.debug(problem);
+				}
+
+				if (config.shouldCreateSingletonsOnStartup()) {
+					// The splash screen stays up until the singletons exist
+					Executor executor = config.getSingletonExecutor();
+					if (executor == null)
+						executor = Gdx.app::postRunnable;
+					injector.createSingletons(executor).whenComplete(
+							(v, t) -> Gdx.app.postRunnable(() -> {
+								if (t != null)
+									handleInitialisationError(t);
+								else
+									pushFirstScreen(screenClass);
+							}));
 				} else {
-					screenManager.pushScreen(injector.getInstance(initApp()),
-							null);
+					pushFirstScreen(screenClass);
 				}
 			} catch (Exception e) {
-				LOG.error(
-						"An unexpected error occurred while initialising the application: %s",
-						Exceptions.getStackTraceAsString(e));
-				Gdx.app.exit();
+				handleInitialisationError(e);
 			}
 		});
 
@@ -231,6 +275,44 @@ public abstract class AbstractEskalonApplication
 								Interpolation.exp10In));
 	}
 
+	private void pushFirstScreen(
+			Class<? extends AbstractEskalonScreen> screenClass) {
+		IInjector injector = EskalonInjector.instance();
+
+		try {
+			// Push second screen (usually asset loading)
+			if (!startArgs.shouldSkipSplashScreen()) {
+				injector.bindToConstructor(BlankScreen.class);
+				screenManager.pushScreen(
+						injector.getInstance(BlankScreen.class),
+						new BlendingTransition(batch, 0.18F,
+								Interpolation.fade));
+				screenManager.pushScreen(
+						injector.getInstance(BlankScreen.class),
+						new BlankTimedTransition(0.22F));
+				screenManager.pushScreen(
+						((EskalonScreenManager) screenManager)
+								.createScreen(screenClass),
+						new BlendingTransition(batch, 0.35F,
+								Interpolation.pow2In));
+			} else {
+				screenManager.pushScreen(
+						((EskalonScreenManager) screenManager)
+								.createScreen(screenClass),
+						null);
+			}
+		} catch (Exception e) {
+			handleInitialisationError(e);
+		}
+	}
+
+	private void handleInitialisationError(Throwable t) {
+		LOG.error(
+				"An unexpected error occurred while initialising the application: %s",
+				Exceptions.getStackTraceAsString(t));
+		Gdx.app.exit();
+	}
+
 	/**
 	 * Takes care of initializing the application.
 	 * 
@@ -242,7 +324,15 @@ public abstract class AbstractEskalonApplication
 	@Override
 	public void render() {
 		// Take care of posting the events in the rendering thread
-		eventBus.dispatchEvents();
+		eventBus.dispatchEvents(config.getEventDispatchBudget());
+
+		// Upload the assets whose uploading was spread over multiple frames
+		assetManager.getUploadScheduler().update(config.getUploadBudget());
+
+		// Reload the assets whose files were changed
+		AssetHotReloader hotReloader = assetManager.getHotReloader();
+		if (hotReloader != null)
+			hotReloader.update();
 
 		// Profile stuff
 		debugInfoRenderer.resetProfiler();
@@ -255,6 +345,8 @@ public abstract class AbstractEskalonApplication
 		debugInfoRenderer.update(Gdx.graphics.getDeltaTime());
 
 		// Render debug overlay
+		if (eskalonInputProcessor.pollNextDebugOverlayPage())
+			debugInfoRenderer.nextPage();
 		if (eskalonInputProcessor.isDebugOverlayEnabled()) {
 			debugInfoRenderer.render();
 		}
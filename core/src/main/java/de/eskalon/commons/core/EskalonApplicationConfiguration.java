@@ -15,6 +15,18 @@
 
 package de.eskalon.commons.core;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.jspecify.annotations.Nullable;
+
+import de.eskalon.commons.asset.AnnotationAssetManager;
+import de.eskalon.commons.asset.AssetResidencyManager;
+import de.eskalon.commons.asset.CachingFreetypeFontLoader;
+import de.eskalon.commons.asset.UploadScheduler;
+import de.eskalon.commons.event.EventQueueBus;
+import de.eskalon.commons.inject.IInjector;
+
 /**
  * This class holds the configuration for an {@link AbstractEskalonApplication}.
  * Unlike {@link StartArguments}, properties of
@@ -49,6 +61,110 @@ public class EskalonApplicationConfiguration {
 			return this;
 		}
 
+		/**
+		 * Limits the time spent per frame on dispatching the events queued in
+		 * the application's {@link EventQueueBus}. Events that could not be
+		 * dispatched in time are carried over to the next frame.
+		 * 
+		 * @param millis
+		 * @see EventQueueBus#dispatchEvents(long)
+		 */
+		public EskalonApplicationConfigurationBuilder limitEventDispatchTime(
+				long millis) {
+			ret.eventDispatchBudget = TimeUnit.MILLISECONDS.toNanos(millis);
+			return this;
+		}
+
+		/**
+		 * Decodes textures, pixmaps, sounds and playlists on a pool of worker
+		 * threads, so that multiple assets can be read from disk and parsed
+		 * at the same time.
+		 * 
+		 * @param threadCount
+		 *            the number of worker threads
+		 * @see AnnotationAssetManager#enableParallelLoading(int)
+		 */
+		public EskalonApplicationConfigurationBuilder loadAssetsInParallel(
+				int threadCount) {
+			ret.assetLoadingThreadCount = threadCount;
+			return this;
+		}
+
+		/**
+		 * Limits the time spent per frame on uploading assets to the GPU. If
+		 * set, only the first level of textures with mipmaps is uploaded when
+		 * the texture is loaded; the other levels are uploaded over the
+		 * following frames.
+		 * 
+		 * @param millis
+		 * @see UploadScheduler
+		 */
+		public EskalonApplicationConfigurationBuilder limitUploadTime(
+				long millis) {
+			ret.uploadBudget = TimeUnit.MILLISECONDS.toNanos(millis);
+			return this;
+		}
+
+		/**
+		 * Limits the memory used by the assets injected into screens. Once the
+		 * limit is exceeded, the least recently used assets that are not
+		 * used by any screen anymore are unloaded.
+		 * 
+		 * @param bytes
+		 * @see AssetResidencyManager
+		 */
+		public EskalonApplicationConfigurationBuilder limitAssetMemory(
+				long bytes) {
+			ret.assetMemoryBudget = bytes;
+			return this;
+		}
+
+		/**
+		 * Caches the fonts generated from TrueType fonts in the given local
+		 * directory, e.g. {@code .cache/fonts}, so that they do not have to
+		 * be generated again on the next start. Is disabled by default.
+		 * 
+		 * @param directory
+		 * @see CachingFreetypeFontLoader
+		 */
+		public EskalonApplicationConfigurationBuilder cacheFontsIn(
+				String directory) {
+			ret.fontCacheDirectory = directory;
+			return this;
+		}
+
+		/**
+		 * Creates the singletons bound by the application in
+		 * {@link AbstractEskalonApplication#initApp()} while the splash
+		 * screen is shown, instead of on first use. The first screen of the
+		 * application is only pushed once all of them were created.
+		 * <p>
+		 * The singletons are created on the rendering thread, so they may use
+		 * the GL context. Each frame, only the singletons whose dependencies
+		 * already exist are created.
+		 * 
+		 * @see IInjector#createSingletons(Executor)
+		 */
+		public EskalonApplicationConfigurationBuilder createSingletonsOnStartup() {
+			ret.createSingletonsOnStartup = true;
+			return this;
+		}
+
+		/**
+		 * Like {@link #createSingletonsOnStartup()}, but independent
+		 * singletons are created in parallel via the given executor. Thus,
+		 * none of the singletons may use the GL context.
+		 * 
+		 * @param executor
+		 * @see IInjector#createSingletons(Executor)
+		 */
+		public EskalonApplicationConfigurationBuilder createSingletonsOnStartup(
+				Executor executor) {
+			ret.createSingletonsOnStartup = true;
+			ret.singletonExecutor = executor;
+			return this;
+		}
+
 		public EskalonApplicationConfiguration build() {
 			return ret;
 		}
@@ -58,6 +174,13 @@ public class EskalonApplicationConfiguration {
 	/* Class itself */
 	private boolean createPostProcessor;
 	private boolean provideDepthBuffers;
+	private long eventDispatchBudget = Long.MAX_VALUE;
+	private int assetLoadingThreadCount = 0;
+	private long uploadBudget = Long.MAX_VALUE;
+	private long assetMemoryBudget = Long.MAX_VALUE;
+	private @Nullable String fontCacheDirectory;
+	private boolean createSingletonsOnStartup;
+	private @Nullable Executor singletonExecutor;
 
 	private EskalonApplicationConfiguration() {
 		// reduce visibility
@@ -71,11 +194,70 @@ public class EskalonApplicationConfiguration {
 		return provideDepthBuffers;
 	}
 
+	/**
+	 * @return the time in nanoseconds that may be spent per frame on
+	 *         dispatching events
+	 */
+	public long getEventDispatchBudget() {
+		return eventDispatchBudget;
+	}
+
+	/**
+	 * @return the number of threads used to decode assets; {@code 0} if assets
+	 *         are not loaded in parallel
+	 */
+	public int getAssetLoadingThreadCount() {
+		return assetLoadingThreadCount;
+	}
+
+	/**
+	 * @return the time in nanoseconds that may be spent per frame on
+	 *         uploading assets; {@link Long#MAX_VALUE} if uploads are not
+	 *         spread over multiple frames
+	 */
+	public long getUploadBudget() {
+		return uploadBudget;
+	}
+
+	/**
+	 * @return the memory in bytes that may be used by assets;
+	 *         {@link Long#MAX_VALUE} if assets are never unloaded
+	 */
+	public long getAssetMemoryBudget() {
+		return assetMemoryBudget;
+	}
+
+	/**
+	 * @return the local directory that generated fonts are cached in;
+	 *         {@code null} if fonts are not cached
+	 */
+	public @Nullable String getFontCacheDirectory() {
+		return fontCacheDirectory;
+	}
+
+	public boolean shouldCreateSingletonsOnStartup() {
+		return createSingletonsOnStartup;
+	}
+
+	/**
+	 * @return the executor used to create the singletons on startup;
+	 *         {@code null} if they are created on the rendering thread
+	 */
+	public @Nullable Executor getSingletonExecutor() {
+		return singletonExecutor;
+	}
+
 	@Override
 	public String toString() {
 		return "EskalonApplicationConfiguration{createPostProcessor="
 				+ createPostProcessor + ",provideDepthBuffers="
-				+ provideDepthBuffers + "}";
+				+ provideDepthBuffers + ",eventDispatchBudget="
+				+ eventDispatchBudget + ",assetLoadingThreadCount="
+				+ assetLoadingThreadCount + ",uploadBudget=" + uploadBudget
+				+ ",assetMemoryBudget=" + assetMemoryBudget
+				+ ",fontCacheDirectory=" + fontCacheDirectory
+				+ ",createSingletonsOnStartup=" + createSingletonsOnStartup
+				+ ",singletonExecutor=" + singletonExecutor + "}";
 	}
 
 }
@@ -22,7 +22,9 @@ import com.badlogic.gdx.ApplicationListener;
 import com.badlogic.gdx.ApplicationLogger;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
 import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.utils.BufferUtils;
@@ -33,18 +35,22 @@ import de.damios.guacamole.gdx.log.Logger;
 import de.damios.guacamole.gdx.log.LoggerService;
 import de.damios.guacamole.gdx.reflection.ReflectionUtils;
 import de.eskalon.commons.asset.AnnotationAssetManager;
+import de.eskalon.commons.asset.AssetBundle;
+import de.eskalon.commons.asset.AssetBundleFileHandleResolver;
 import de.eskalon.commons.audio.DefaultSoundManager;
 import de.eskalon.commons.audio.ISoundManager;
 import de.eskalon.commons.event.EventBus;
 import de.eskalon.commons.event.EventQueueBus;
 import de.eskalon.commons.graphics.PostProcessingPipeline;
 import de.eskalon.commons.inject.EskalonInjector;
+import de.eskalon.commons.inject.annotations.ScreenScoped;
 import de.eskalon.commons.inject.providers.AssetProviders;
 import de.eskalon.commons.inject.providers.LoggerProvider;
 import de.eskalon.commons.inject.providers.LoggerProvider.Log;
 import de.eskalon.commons.screen.ScreenManager;
 import de.eskalon.commons.screens.EskalonScreenManager;
 import de.eskalon.commons.screens.EskalonSplashScreen;
+import de.eskalon.commons.screens.ScreenScope;
 import de.eskalon.commons.settings.EskalonSettings;
 import de.eskalon.commons.utils.ContextUtils;
 import de.eskalon.commons.utils.GL32CMacIssueHandler;
@@ -150,9 +156,29 @@ public class EskalonApplicationStarter implements ApplicationListener {
 		// App context
 		injector.bindToInstance(EskalonApplicationContext.class, appContext);
 
-		// Asset manager
+		// Asset manager; if the assets were packed into a bundle, they are
+		// read from it, unless the bundle is outdated. Packaged builds ship
+		// the bundle next to the application, where it can be memory-mapped
+		FileHandleResolver resolver = new InternalFileHandleResolver();
+		FileHandle bundleFile = Gdx.files.local(AssetBundle.DEFAULT_FILE_NAME);
+		if (!bundleFile.exists())
+			bundleFile = Gdx.files.internal(AssetBundle.DEFAULT_FILE_NAME);
+		if (bundleFile.exists()) {
+			AssetBundle bundle = new AssetBundle(bundleFile);
+			String modifiedFile = bundle.findModifiedFile(resolver);
+			if (modifiedFile != null) {
+				LOG.warn(
+						"'%s' was modified after the bundle '%s' was created, so the loose asset files are used instead. Pack the assets again to use the bundle.",
+						modifiedFile, bundleFile);
+			} else {
+				resolver = new AssetBundleFileHandleResolver(bundle,
+						resolver);
+				LOG.debug("Reading %d assets from the bundle '%s'",
+						bundle.getFiles().size(), bundleFile);
+			}
+		}
 		AnnotationAssetManager assetManager = new AnnotationAssetManager(
-				new InternalFileHandleResolver());
+				resolver);
 		injector.bindToInstance(AnnotationAssetManager.class, assetManager);
 		injector.bindToSubclass(AssetManager.class,
 				AnnotationAssetManager.class);
@@ -192,6 +218,17 @@ public class EskalonApplicationStarter implements ApplicationListener {
 		// Start args
 		injector.bindToInstance(StartArguments.class, startArgs);
 
+		// Screen scope
+		ScreenScope screenScope = new ScreenScope();
+		injector.bindToInstance(ScreenScope.class, screenScope);
+		injector.bindScope(ScreenScoped.class, screenScope);
+		// Assets injected into a screen or its screen scoped dependencies are
+		// used by the screen; all other assets are pinned
+		assetManager.getResidencyManager()
+				.setDefaultOwnerProvider(() -> screenScope.getOwningContext(
+						injector.getInjectionTarget(),
+						injector.getInjectionTargetScope()));
+
 		// Splash screen
 		injector.bindToConstructor(EskalonSplashScreen.class);
 
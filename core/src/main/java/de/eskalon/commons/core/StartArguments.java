@@ -24,6 +24,7 @@ public class StartArguments {
 
 	private LogLevel logLevel = LogLevel.INFO;
 	private boolean skipSplashScreen;
+	private boolean hotReloadAssets;
 
 	/* Builder */
 	public static StartArgumentsBuilder create() {
@@ -53,6 +54,17 @@ public class StartArguments {
 			return this;
 		}
 
+		/**
+		 * Enables reloading assets when their files are changed. Is meant to be
+		 * used during development only.
+		 * 
+		 * @see de.eskalon.commons.asset.AssetHotReloader
+		 */
+		public StartArgumentsBuilder enableAssetHotReloading() {
+			ret.hotReloadAssets = true;
+			return this;
+		}
+
 		public StartArguments build() {
 			return ret;
 		}
@@ -72,10 +84,15 @@ public class StartArguments {
 		return skipSplashScreen;
 	}
 
+	public boolean shouldHotReloadAssets() {
+		return hotReloadAssets;
+	}
+
 	@Override
 	public String toString() {
 		return "StartArguments{logLevel=" + logLevel + ",skipSplashScreen="
-				+ skipSplashScreen + "}";
+				+ skipSplashScreen + ",hotReloadAssets=" + hotReloadAssets
+				+ "}";
 	}
 
 }
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.event;
+
+/**
+ * An event that can be cancelled by its subscribers. Once an event is
+ * cancelled, it is not dispatched to any further subscribers.
+ * <p>
+ * As subscribers are called in the order of their
+ * {@linkplain Subscribe#priority() priority}, this allows a subscriber with a
+ * high priority to consume an event, e.g. an input event that should only be
+ * handled by one screen.
+ */
+public interface Cancellable {
+
+	/**
+	 * Cancels this event. It is not dispatched to any subscribers that were
+	 * not called yet.
+	 */
+	void cancel();
+
+	/**
+	 * @return whether this event was cancelled
+	 */
+	boolean isCancelled();
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.event;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an event type whose instances are coalesced when posted to an
+ * {@link EventQueueBus}: if an instance of the same class is still queued, it
+ * is replaced by the newly posted one. This way, only the latest event is
+ * dispatched per {@link EventQueueBus#dispatchEvents() dispatch}.
+ * <p>
+ * This is meant for events where only the latest value matters, e.g. a camera
+ * that was moved or a window that was resized. To coalesce events by a more
+ * specific key, use
+ * {@link EventQueueBus#coalesce(Class, java.util.function.Function)}.
+ * 
+ * @see EventQueueBus#coalesce(Class)
+ */
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Coalesce {
+
+}
@@ -15,31 +15,39 @@
 
 package de.eskalon.commons.event;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
+import org.jspecify.annotations.Nullable;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.Field;
 import com.badlogic.gdx.utils.reflect.Method;
 import com.badlogic.gdx.utils.reflect.ReflectionException;
 
-import de.damios.guacamole.ConcatenatedIterator;
 import de.damios.guacamole.Exceptions;
-import de.damios.guacamole.MoreObjects;
 import de.damios.guacamole.Preconditions;
 import de.damios.guacamole.gdx.log.Logger;
 import de.damios.guacamole.gdx.log.LoggerService;
 import de.damios.guacamole.gdx.reflection.ReflectionUtils;
+import de.eskalon.commons.index.AnnotationIndex;
+import de.eskalon.commons.index.AnnotationIndex.IndexedClass;
 
 /**
  * A simple event bus which utilises reflection. This class is inspired by
@@ -49,66 +57,185 @@ import de.damios.guacamole.gdx.reflection.ReflectionUtils;
  * public method annotated with {@linkplain Subscribe @Subscribe} and with only
  * one parameter (see {@link #register(Object)}) or they extend {@link Consumer}
  * (see {@link #register(Class, Consumer)}).
+ * <p>
+ * By default, subscriber methods are not called via reflection, but via
+ * classes generated at registration time (see {@link DispatchMode}). The
+ * subscriber methods of classes compiled with pancake's annotation processor
+ * are looked up via the {@link AnnotationIndex}.
+ * <p>
+ * Subscribers are called on the posting thread, unless they request to be
+ * called asynchronously or on the main thread (see {@link ThreadMode}).
+ * <p>
+ * Subscribers with a higher {@linkplain Subscribe#priority() priority} are
+ * called first. Events implementing {@link Cancellable} are not dispatched to
+ * any further subscribers once they are cancelled.
+ * <p>
+ * Optionally, the event bus can record {@linkplain EventBusMetrics metrics}
+ * per event class (see {@link #setMetricsEnabled(boolean)}).
+ * <p>
+ * Usually, the event bus keeps strong references to all registered
+ * subscribers. Objects registered via {@link #registerWeakly(Object)} can be
+ * garbage collected though, even if they are never unregistered.
  */
 public class EventBus {
 
 	private static final Logger LOG = LoggerService.getLogger(EventBus.class);
+	/**
+	 * This executor runs each task in the thread that invokes
+	 * {@link Executor#execute(Runnable)}. Subscribers are called directly when
+	 * it is used, so no task has to be allocated per subscriber.
+	 */
+	static final Executor DIRECT_EXECUTOR = Runnable::run;
 
 	/**
 	 * All registered subscribers, indexed by event type.
 	 */
-	private final ConcurrentMap<Integer, HashSet<Subscriber>> subscribers;
-	private final Map<Class<?>, Iterable<Method>> subscriberMethodsCache;
+	private final SubscriberRegistry subscribers;
+	private final Map<Class<?>, List<SubscriberMethod>> subscriberMethodsCache;
 	private final Map<Class<?>, Set<Class<?>>> typeHierarchyCache;
-	final Executor executor;
+	private final Map<Method, Function<Object, SubscriberInvoker>> invokerFactoryCache;
+	private final Map<Method, UnboundInvoker> unboundInvokerCache;
+	private final Executor asyncExecutor;
+	private final Executor mainThreadExecutor;
+	private final AnnotationIndex annotationIndex;
+
+	private DispatchMode dispatchMode = DispatchMode.GENERATED;
+	/**
+	 * Is {@code null} while no metrics are recorded.
+	 */
+	private volatile @Nullable EventBusMetrics metrics;
 
+	/**
+	 * Creates an event bus which calls {@linkplain ThreadMode#ASYNC
+	 * asynchronous subscribers} via the common fork-join pool and
+	 * {@linkplain ThreadMode#MAIN main thread subscribers} via
+	 * {@link Application#postRunnable(Runnable)}.
+	 */
 	public EventBus() {
-		this.subscribers = new ConcurrentHashMap<>();
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param asyncExecutor
+	 *            the executor used to call {@linkplain ThreadMode#ASYNC
+	 *            asynchronous subscribers}
+	 */
+	public EventBus(Executor asyncExecutor) {
+		this(asyncExecutor, (r) -> Gdx.app.postRunnable(r));
+	}
+
+	/**
+	 * @param asyncExecutor
+	 *            the executor used to call {@linkplain ThreadMode#ASYNC
+	 *            asynchronous subscribers}
+	 * @param mainThreadExecutor
+	 *            the executor used to call {@linkplain ThreadMode#MAIN main
+	 *            thread subscribers}
+	 */
+	public EventBus(Executor asyncExecutor, Executor mainThreadExecutor) {
+		this(asyncExecutor, mainThreadExecutor, AnnotationIndex.instance());
+	}
+
+	/**
+	 * @param asyncExecutor
+	 * @param mainThreadExecutor
+	 * @param annotationIndex
+	 *            the index used to look up subscriber methods; is only
+	 *            replaced in tests
+	 */
+	EventBus(Executor asyncExecutor, Executor mainThreadExecutor,
+			AnnotationIndex annotationIndex) {
+		Preconditions.checkNotNull(asyncExecutor);
+		Preconditions.checkNotNull(mainThreadExecutor);
+		Preconditions.checkNotNull(annotationIndex);
+
+		this.subscribers = new SubscriberRegistry(this::retrieveAllSuperTypes);
 		this.subscriberMethodsCache = new ConcurrentHashMap<>();
 		this.typeHierarchyCache = new ConcurrentHashMap<>();
-		this.executor = Runnable::run; // this executor runs each task in the
-										// thread that invokes Executor#execute
+		this.invokerFactoryCache = new ConcurrentHashMap<>();
+		this.unboundInvokerCache = new ConcurrentHashMap<>();
+		this.asyncExecutor = asyncExecutor;
+		this.mainThreadExecutor = mainThreadExecutor;
+		this.annotationIndex = annotationIndex;
 	}
 
 	/**
 	 * Registers all subscriber methods of the given object.
+	 * <p>
+	 * This method can safely be called from any thread, even while events are
+	 * being dispatched. The subscriber only receives events that are posted
+	 * after this method returns.
 	 *
 	 * @param subscriber
 	 */
 	public void register(Object subscriberObject) {
-		Map<Integer, List<Subscriber>> subscribersWithinObject = findAllSubscribers(
-				subscriberObject);
+		register(subscriberObject, false);
+	}
+
+	/**
+	 * Registers all subscriber methods of the given object, but only keeps a
+	 * weak reference to it. This way, the object can still be garbage
+	 * collected if it is not unregistered, e.g. because a screen was disposed
+	 * without being {@linkplain #unregister(Object) unregistered}. Collected
+	 * subscribers are removed when the next event is dispatched to them.
+	 * <p>
+	 * Apart from that, the object is treated like any other subscriber (see
+	 * {@link #register(Object)}).
+	 *
+	 * @param subscriberObject
+	 */
+	public void registerWeakly(Object subscriberObject) {
+		register(subscriberObject, true);
+	}
+
+	private void register(Object subscriberObject, boolean weak) {
+		Map<Class<?>, List<Subscriber>> subscribersWithinObject = findAllSubscribers(
+				subscriberObject, weak);
 
-		for (Map.Entry<Integer, List<Subscriber>> entry : subscribersWithinObject
+		for (Map.Entry<Class<?>, List<Subscriber>> entry : subscribersWithinObject
 				.entrySet()) {
-			int hashCode = entry.getKey();
-			Collection<Subscriber> subsribersWithinObjectForEvent = entry
-					.getValue();
-			HashSet<Subscriber> registeredSubscribers = subscribers
-					.get(hashCode);
-			if (registeredSubscribers == null) {
-				HashSet<Subscriber> newSet = new HashSet<>();
-				registeredSubscribers = MoreObjects.firstNonNull(
-						subscribers.putIfAbsent(hashCode, newSet), newSet);
-			}
-			registeredSubscribers.addAll(subsribersWithinObjectForEvent);
+			subscribers.add(entry.getKey(), entry.getValue());
 		}
 	}
 
 	public <T> void register(Class<T> eventType, Consumer<T> consumer) {
-		int hashCode = eventType.getName().hashCode();
+		register(eventType, consumer, ThreadMode.POSTING);
+	}
 
-		HashSet<Subscriber> registeredSubscribers = subscribers.get(hashCode);
-		if (registeredSubscribers == null) {
-			HashSet<Subscriber> newSet = new HashSet<>();
-			registeredSubscribers = MoreObjects.firstNonNull(
-					subscribers.putIfAbsent(hashCode, newSet), newSet);
-		}
+	public <T> void register(Class<T> eventType, Consumer<T> consumer,
+			ThreadMode threadMode) {
+		register(eventType, consumer, threadMode, 0);
+	}
+
+	/**
+	 * Registers a consumer for the given event type.
+	 * 
+	 * @param <T>
+	 *            the event type
+	 * @param eventType
+	 * @param consumer
+	 * @param threadMode
+	 *            the thread the consumer is called on
+	 * @param priority
+	 *            consumers and subscriber methods with a higher priority are
+	 *            called first (see {@link Subscribe#priority()})
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> void register(Class<T> eventType, Consumer<T> consumer,
+			ThreadMode threadMode, int priority) {
 		try {
 			Method m = ClassReflection.getDeclaredMethod(consumer.getClass(),
 					"accept", Object.class);
 			m.setAccessible(true); // Consumer#accept(T) is package private
-			registeredSubscribers.add(new Subscriber(consumer, m));
+			SubscriberInvoker invoker;
+			if (dispatchMode == DispatchMode.GENERATED)
+				invoker = (event) -> consumer.accept((T) event);
+			else
+				invoker = SubscriberInvokers.reflectiveFactory(m)
+						.apply(consumer);
+			subscribers.add(eventType,
+					Collections.singletonList(new Subscriber(consumer, m,
+							invoker, threadMode, priority)));
 		} catch (ReflectionException e) {
 			LOG.error(
 					"Cannot retrieve the accept(Object) method of the given consumer. "
@@ -118,48 +245,61 @@ public class EventBus {
 
 	/**
 	 * Unregisters all subscriber methods of the given object.
+	 * <p>
+	 * If an event is dispatched concurrently, the subscriber may still
+	 * receive it.
 	 * 
 	 * @param subscriber
 	 */
 	public void unregister(Object subscriberObject) {
-		Map<Integer, List<Subscriber>> subscribersWithinObject = findAllSubscribers(
-				subscriberObject);
-		for (Map.Entry<Integer, List<Subscriber>> entry : subscribersWithinObject
+		Map<Class<?>, List<Subscriber>> subscribersWithinObject = findAllSubscribers(
+				subscriberObject, false);
+		for (Map.Entry<Class<?>, List<Subscriber>> entry : subscribersWithinObject
 				.entrySet()) {
-			int hashCode = entry.getKey();
 			Collection<Subscriber> subsribersWithinObjectForEvent = entry
 					.getValue();
-			HashSet<Subscriber> registeredSubscribers = subscribers
-					.get(hashCode);
-			if (registeredSubscribers != null) {
-				registeredSubscribers.removeAll(subsribersWithinObjectForEvent);
-			}
+			subscribers.removeIf(entry.getKey(),
+					subsribersWithinObjectForEvent::contains);
 		}
 	}
 
 	public <T> void unregister(Class<T> eventType, Consumer<T> consumer) {
-		int hashCode = eventType.getName().hashCode();
-
-		HashSet<Subscriber> registeredSubscribers = subscribers.get(hashCode);
-		if (registeredSubscribers != null) {
-			registeredSubscribers.removeIf((s) -> {
-				return s.instance == consumer;
-			});
-		}
+		subscribers.removeIf(eventType, (s) -> {
+			return s.getInstance() == consumer;
+		});
 	}
 
-	private Map<Integer, List<Subscriber>> findAllSubscribers(
-			Object subscriberObject) {
-		Map<Integer, List<Subscriber>> methodsInListener = new HashMap<>();
+	private Map<Class<?>, List<Subscriber>> findAllSubscribers(
+			Object subscriberObject, boolean weak) {
+		Map<Class<?>, List<Subscriber>> methodsInListener = new HashMap<>();
 		Class<?> clazz = subscriberObject.getClass();
-		for (Method method : findSubscriberMethods(clazz)) {
+		WeakReference<Object> subscriberRef = weak
+				? new WeakReference<>(subscriberObject)
+				: null;
+		for (SubscriberMethod subscriberMethod : findSubscriberMethods(
+				clazz)) {
+			Method method = subscriberMethod.method;
 			Class<?> parameterClass = method.getParameterTypes()[0];
-			int hashCode = parameterClass.getName().hashCode();
 
 			List<Subscriber> subscriberList = methodsInListener
-					.computeIfAbsent(hashCode, k -> new ArrayList<>());
+					.computeIfAbsent(parameterClass, k -> new ArrayList<>());
 			method.setAccessible(true); // the method may be private
-			subscriberList.add(new Subscriber(subscriberObject, method));
+
+			if (subscriberRef != null) {
+				UnboundInvoker invoker = getUnboundInvoker(method);
+				subscriberList.add(Subscriber.weak(subscriberRef, method,
+						(event) -> {
+							Object instance = subscriberRef.get();
+							if (instance != null)
+								invoker.invoke(instance, event);
+						}, subscriberMethod.threadMode,
+						subscriberMethod.priority));
+			} else {
+				subscriberList.add(new Subscriber(subscriberObject, method,
+						getInvokerFactory(method).apply(subscriberObject),
+						subscriberMethod.threadMode,
+						subscriberMethod.priority));
+			}
 		}
 		return methodsInListener;
 	}
@@ -172,30 +312,73 @@ public class EventBus {
 	 * If no subscribers have been subscribed for {@code event}'s class, and
 	 * {@code event} is not already a {@link DeadEvent}, it will be wrapped in a
 	 * DeadEvent and reposted as such.
+	 * <p>
+	 * The event is dispatched to the subscribers registered at the time this
+	 * method is called, in the order of their priority. If the event is
+	 * {@linkplain Cancellable cancelled}, it is not dispatched to the remaining
+	 * subscribers. Cancelling an event in an {@linkplain ThreadMode#ASYNC
+	 * asynchronous} or {@linkplain ThreadMode#MAIN main thread} subscriber
+	 * only affects subscribers that were not handed over to their executor
+	 * yet.
 	 * 
 	 * @param event
 	 */
 	public void post(Object event) {
 		Preconditions.checkNotNull(event);
-		Iterator<Subscriber> subscribers = getSubscribers(event);
-
-		if (subscribers.hasNext()) {
-			while (subscribers.hasNext()) {
-				Subscriber s = subscribers.next();
-				executor.execute(() -> {
-					try {
-						s.method.invoke(s.instance, event);
-					} catch (ReflectionException e) {
-						// do not post if an exception occurs while already
-						// handling an exception
-						if (!(event instanceof ExceptionEvent)) {
-							post(new ExceptionEvent(this, s.instance, s.method,
-									event, e.getCause()));
-						}
-					}
-				});
 
+		EventBusMetrics metrics = this.metrics;
+		if (metrics != null)
+			metrics.get(event.getClass()).recordPost();
+
+		dispatch(event);
+	}
+
+	/**
+	 * Dispatches an event to all subscribers registered for its type.
+	 * 
+	 * @param event
+	 * @see #post(Object)
+	 */
+	void dispatch(Object event) {
+		Subscriber[] eventSubscribers = subscribers.get(event.getClass());
+
+		EventBusMetrics metrics = this.metrics;
+		EventTypeMetrics typeMetrics = null;
+		if (metrics != null) {
+			typeMetrics = metrics.get(event.getClass());
+			typeMetrics.recordDispatch(eventSubscribers.length);
+		}
+
+		if (eventSubscribers.length > 0) {
+			Cancellable cancellable = event instanceof Cancellable
+					? (Cancellable) event
+					: null;
+
+			boolean hasCollectedSubscribers = false;
+
+			for (Subscriber s : eventSubscribers) {
+				if (cancellable != null && cancellable.isCancelled())
+					break;
+
+				if (s.isCollected()) {
+					hasCollectedSubscribers = true;
+					continue;
+				}
+
+				switch (s.threadMode) {
+				case ASYNC:
+					invokeSubscriber(asyncExecutor, s, event, typeMetrics);
+					break;
+				case MAIN:
+					invokeSubscriber(mainThreadExecutor, s, event, typeMetrics);
+					break;
+				default:
+					invokeSubscriber(s, event, typeMetrics);
+				}
 			}
+
+			if (hasCollectedSubscribers)
+				subscribers.removeCollected();
 		} else {
 			if (event instanceof ExceptionEvent)
 				LOG.warn(
@@ -208,42 +391,310 @@ public class EventBus {
 		}
 	}
 
+	private void invokeSubscriber(Executor executor, Subscriber s,
+			Object event, @Nullable EventTypeMetrics typeMetrics) {
+		if (executor == DIRECT_EXECUTOR)
+			invokeSubscriber(s, event, typeMetrics);
+		else
+			executor.execute(() -> invokeSubscriber(s, event, typeMetrics));
+	}
+
+	private void invokeSubscriber(Subscriber s, Object event,
+			@Nullable EventTypeMetrics typeMetrics) {
+		// Keeps the object of a weak subscriber reachable during the call
+		Object instance = s.getInstance();
+		if (instance == null)
+			return;
+
+		long startTime = typeMetrics != null ? TimeUtils.nanoTime() : 0;
+		Throwable exception = null;
+
+		try {
+			s.invoker.invoke(event);
+		} catch (Throwable t) {
+			exception = t;
+		}
+
+		if (typeMetrics != null)
+			typeMetrics.recordSubscriberCall(TimeUtils.nanoTime() - startTime,
+					exception != null);
+
+		// do not post if an exception occurs while already handling an
+		// exception
+		if (exception != null && !(event instanceof ExceptionEvent)) {
+			post(new ExceptionEvent(this, instance, s.method, event,
+					exception));
+		}
+	}
+
 	/**
-	 * @param event
-	 * @return an iterator of all subscribers registered for the given event
-	 */
-	private Iterator<Subscriber> getSubscribers(Object event) {
-		Set<Class<?>> eventTypes = retrieveAllSuperTypes(event.getClass());
-		LinkedList<Iterator<Subscriber>> subscriberIterators = new LinkedList<>();
-		for (Class<?> eventType : eventTypes) {
-			int hashCode = eventType.getName().hashCode();
-			HashSet<Subscriber> eventSubscribers = subscribers.get(hashCode);
-			if (eventSubscribers != null) {
-				subscriberIterators.add(eventSubscribers.iterator());
+	 * Looks for registered subscriber objects that are either the given object
+	 * itself or directly reference it via one of their fields. This includes
+	 * the implicit references of inner classes and lambdas to their enclosing
+	 * instance.
+	 * <p>
+	 * This is meant to find subscribers that should have been unregistered
+	 * together with the given object, e.g. a screen. As it relies on
+	 * reflection, it is rather expensive.
+	 * 
+	 * @param object
+	 * @return the subscriber objects referencing the given object
+	 */
+	public List<Object> findSubscribersReferencing(Object object) {
+		Preconditions.checkNotNull(object);
+
+		Map<Object, Boolean> subscriberObjects = new IdentityHashMap<>();
+		for (Subscriber s : subscribers.getAll()) {
+			Object instance = s.getInstance();
+			if (instance != null && !subscriberObjects.containsKey(instance))
+				subscriberObjects.put(instance,
+						instance == object || references(instance, object));
+		}
+
+		List<Object> result = new ArrayList<>();
+		for (Map.Entry<Object, Boolean> entry : subscriberObjects.entrySet()) {
+			if (entry.getValue())
+				result.add(entry.getKey());
+		}
+		return result;
+	}
+
+	private static boolean references(Object instance, Object object) {
+		for (Class<?> c = instance.getClass(); c != null
+				&& c != Object.class; c = c.getSuperclass()) {
+			for (Field field : ClassReflection.getDeclaredFields(c)) {
+				if (field.isStatic() || field.getType().isPrimitive())
+					continue;
+
+				try {
+					field.setAccessible(true);
+					if (field.get(instance) == object)
+						return true;
+				} catch (ReflectionException | RuntimeException e) {
+					// the field is not accessible on this platform
+				}
 			}
 		}
-		return new ConcatenatedIterator<>(subscriberIterators);
+		return false;
+	}
+
+	/**
+	 * @param eventClass
+	 * @return the subscribers for the given event class, bypassing all caches
+	 * @see SubscriberRegistry#collect(Class)
+	 */
+	Subscriber[] collectSubscribers(Class<?> eventClass) {
+		return subscribers.collect(eventClass);
 	}
 
-	private Iterable<Method> findSubscriberMethods(Class<?> clazz) {
+	/**
+	 * @param clazz
+	 * @return all subscriber methods of the given class, including the ones
+	 *         declared by its super types; overridden methods are only
+	 *         contained once
+	 */
+	private List<SubscriberMethod> findSubscriberMethods(Class<?> clazz) {
 		return subscriberMethodsCache.computeIfAbsent(clazz, (c) -> {
-			return ReflectionUtils.findAnnotatedMethods(Subscribe.class, c,
-					(m) -> {
-						Class<?>[] parameterTypes = m.getParameterTypes();
-						if (parameterTypes.length != 1) {
-							throw new IllegalArgumentException("Method " + m
-									+ " has the @Subscribe annotation but has "
-									+ parameterTypes.length + " parameters."
-									+ " Subscriber methods must have exactly 1 parameter.");
-						}
-						return true;
-					});
+			List<SubscriberMethod> methods = new ArrayList<>();
+			Set<String> signatures = new HashSet<>();
+			for (Class<?> type : retrieveAllSuperTypes(c)) {
+				for (SubscriberMethod method : findDeclaredSubscriberMethods(
+						type)) {
+					if (signatures.add(method.method.getName() + "("
+							+ method.method.getParameterTypes()[0].getName()
+							+ ")"))
+						methods.add(method);
+				}
+			}
+			return methods;
 		});
 	}
 
+	/**
+	 * Returns the subscriber methods declared by the given type. If the type is
+	 * contained in the {@link AnnotationIndex}, the methods are looked up by
+	 * name instead of checking the annotations of all declared methods.
+	 * 
+	 * @param type
+	 * @return the subscriber methods
+	 */
+	private List<SubscriberMethod> findDeclaredSubscriberMethods(
+			Class<?> type) {
+		IndexedClass indexedClass = annotationIndex.get(type);
+
+		if (indexedClass != null) {
+			List<SubscriberMethod> methods = new ArrayList<>(
+					indexedClass.getSubscriberMethods().size());
+			try {
+				for (AnnotationIndex.SubscriberMethod m : indexedClass
+						.getSubscriberMethods()) {
+					methods.add(new SubscriberMethod(
+							ClassReflection.getDeclaredMethod(type,
+									m.getName(), ClassReflection
+											.forName(m.getEventClassName())),
+							ThreadMode.valueOf(m.getThreadMode()),
+							m.getPriority()));
+				}
+				return methods;
+			} catch (ReflectionException | IllegalArgumentException e) {
+				// The index is out of date (or the class was obfuscated)
+				LOG.debug(
+						"The indexed subscriber methods of '%s' could not be resolved; falling back to reflection.",
+						type.getName());
+			}
+		}
+
+		List<SubscriberMethod> methods = new ArrayList<>();
+		for (Method m : ClassReflection.getDeclaredMethods(type)) {
+			if (!m.isAnnotationPresent(Subscribe.class))
+				continue;
+
+			Class<?>[] parameterTypes = m.getParameterTypes();
+			if (parameterTypes.length != 1) {
+				throw new IllegalArgumentException("Method " + m
+						+ " has the @Subscribe annotation but has "
+						+ parameterTypes.length + " parameters."
+						+ " Subscriber methods must have exactly 1 parameter.");
+			}
+
+			Subscribe annotation = m.getDeclaredAnnotation(Subscribe.class)
+					.getAnnotation(Subscribe.class);
+			methods.add(new SubscriberMethod(m, annotation.threadMode(),
+					annotation.priority()));
+		}
+		return methods;
+	}
+
 	private Set<Class<?>> retrieveAllSuperTypes(Class<?> clazz) {
 		return typeHierarchyCache.computeIfAbsent(clazz,
 				ReflectionUtils::retrieveAllSuperTypes);
 	}
 
-}
\ No newline at end of file
+	/**
+	 * @param method
+	 *            a subscriber method; the method objects are cached per class
+	 *            (see {@link #findSubscriberMethods(Class)}), which is why they
+	 *            can be used as keys
+	 * @return a factory creating the invokers for the given subscriber method
+	 */
+	private Function<Object, SubscriberInvoker> getInvokerFactory(
+			Method method) {
+		return invokerFactoryCache.computeIfAbsent(method, (m) -> {
+			if (dispatchMode == DispatchMode.GENERATED) {
+				Function<Object, SubscriberInvoker> factory = SubscriberInvokers
+						.generatedFactory(m);
+
+				if (factory != null)
+					return factory;
+
+				LOG.debug(
+						"No invoker could be generated for the subscriber method '%s' of '%s'. Falling back to reflection.",
+						m.getName(), m.getDeclaringClass().getSimpleName());
+			}
+
+			return SubscriberInvokers.reflectiveFactory(m);
+		});
+	}
+
+	/**
+	 * @param method
+	 *            a subscriber method
+	 * @return an invoker calling the given method on any instance; is used for
+	 *         {@linkplain #registerWeakly(Object) weak subscribers}
+	 */
+	private UnboundInvoker getUnboundInvoker(Method method) {
+		return unboundInvokerCache.computeIfAbsent(method, (m) -> {
+			if (dispatchMode == DispatchMode.GENERATED) {
+				UnboundInvoker invoker = SubscriberInvokers
+						.generatedUnboundInvoker(m);
+
+				if (invoker != null)
+					return invoker;
+
+				LOG.debug(
+						"No weak invoker could be generated for the subscriber method '%s' of '%s'. Falling back to reflection.",
+						m.getName(), m.getDeclaringClass().getSimpleName());
+			}
+
+			return SubscriberInvokers.reflectiveUnboundInvoker(m);
+		});
+	}
+
+	/**
+	 * Sets how subscriber methods are called. Only affects subscribers that
+	 * are registered afterwards.
+	 * 
+	 * @param dispatchMode
+	 */
+	public void setDispatchMode(DispatchMode dispatchMode) {
+		Preconditions.checkNotNull(dispatchMode);
+		if (this.dispatchMode != dispatchMode) {
+			this.dispatchMode = dispatchMode;
+			invokerFactoryCache.clear();
+			unboundInvokerCache.clear();
+		}
+	}
+
+	public DispatchMode getDispatchMode() {
+		return dispatchMode;
+	}
+
+	/**
+	 * Enables or disables the recording of {@linkplain EventBusMetrics
+	 * metrics}. While disabled, no metrics are recorded at all. Disabling the
+	 * recording discards the metrics recorded so far.
+	 * 
+	 * @param enabled
+	 */
+	public void setMetricsEnabled(boolean enabled) {
+		if (enabled) {
+			if (metrics == null)
+				metrics = new EventBusMetrics();
+		} else {
+			metrics = null;
+		}
+	}
+
+	/**
+	 * @return the recorded metrics or {@code null} if recording them is not
+	 *         {@linkplain #setMetricsEnabled(boolean) enabled}
+	 */
+	public @Nullable EventBusMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * The ways in which subscriber methods can be called by an event bus.
+	 */
+	public enum DispatchMode {
+		/**
+		 * Subscriber methods are called via reflection. This works on every
+		 * platform, but adds some overhead to each dispatched event.
+		 */
+		REFLECTION,
+		/**
+		 * When a subscriber is registered, a class directly calling the
+		 * subscriber method is generated. If this is not possible, e.g.
+		 * because the platform does not support {@code java.lang.invoke}, the
+		 * event bus falls back to {@link #REFLECTION}.
+		 */
+		GENERATED;
+	}
+
+	/**
+	 * A method annotated with {@link Subscribe} together with the values of
+	 * the annotation.
+	 */
+	private static final class SubscriberMethod {
+		private final Method method;
+		private final ThreadMode threadMode;
+		private final int priority;
+
+		SubscriberMethod(Method method, ThreadMode threadMode, int priority) {
+			this.method = method;
+			this.threadMode = threadMode;
+			this.priority = priority;
+		}
+	}
+
+}
@@ -40,6 +40,13 @@ public class EventBusLogger {
 				Exceptions.getStackTraceAsString(ev.getCause()));
 	}
 
+	@Subscribe
+	public void onEventQueueOverflowEvent(EventQueueOverflowEvent ev) {
+		LOG.warn(
+				"The event queue overflowed; %d events were dropped, the last one being '%s'",
+				ev.getDroppedEventCount(), ev.getEvent());
+	}
+
 	@Subscribe
 	public void onDeadEvent(DeadEvent ev) {
 		LOG.debug(
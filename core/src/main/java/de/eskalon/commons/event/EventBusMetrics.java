@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.event;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The metrics recorded by an {@link EventBus}, grouped by event class.
+ * <p>
+ * Recording is disabled by default and can be enabled via
+ * {@link EventBus#setMetricsEnabled(boolean)}. Apart from the first event of
+ * each class, recording does not allocate.
+ * 
+ * @see EventTypeMetrics
+ */
+public final class EventBusMetrics {
+
+	private final ConcurrentMap<Class<?>, EventTypeMetrics> eventTypes = new ConcurrentHashMap<>();
+
+	EventBusMetrics() {
+		// not supposed to be instantiated outside of this package
+	}
+
+	EventTypeMetrics get(Class<?> eventClass) {
+		EventTypeMetrics metrics = eventTypes.get(eventClass);
+		if (metrics == null) {
+			EventTypeMetrics newMetrics = new EventTypeMetrics(eventClass);
+			metrics = eventTypes.putIfAbsent(eventClass, newMetrics);
+			if (metrics == null)
+				metrics = newMetrics;
+		}
+		return metrics;
+	}
+
+	/**
+	 * @param eventClass
+	 * @return the metrics for the given event class or {@code null} if no
+	 *         event of this class was posted yet
+	 */
+	public @Nullable EventTypeMetrics getEventTypeMetrics(
+			Class<?> eventClass) {
+		return eventTypes.get(eventClass);
+	}
+
+	/**
+	 * @return the metrics of all event classes that were posted so far; the
+	 *         returned collection is a live view
+	 */
+	public Collection<EventTypeMetrics> getEventTypeMetrics() {
+		return Collections.unmodifiableCollection(eventTypes.values());
+	}
+
+	/**
+	 * Resets all recorded metrics.
+	 */
+	public void reset() {
+		for (EventTypeMetrics metrics : eventTypes.values())
+			metrics.reset();
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.event;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The queue backing an {@link EventQueueBus}. Events can be added from any
+ * thread, but are only taken out by the thread dispatching the events (as
+ * well as by producers discarding old events, see
+ * {@link EventQueueBus.OverflowPolicy#DROP_OLDEST}).
+ */
+interface EventQueue {
+
+	/**
+	 * @param event
+	 * @param enqueueTime
+	 *            the time the event was posted at in nanoseconds; {@code 0} if
+	 *            it is not recorded
+	 * @return whether the event was added; {@code false} if the queue is full
+	 */
+	boolean offer(Object event, long enqueueTime);
+
+	/**
+	 * @return the oldest event in the queue or {@code null} if it is empty
+	 */
+	@Nullable
+	Object poll();
+
+	/**
+	 * Removes as many events as possible from the queue, up to the length of
+	 * the given arrays, and puts them into the arrays.
+	 * 
+	 * @param batch
+	 *            the array the events are put into
+	 * @param enqueueTimes
+	 *            the array the {@linkplain #offer(Object, long) enqueue times}
+	 *            of the events are put into; has the same length as
+	 *            {@code batch}
+	 * @return the number of events that were removed
+	 */
+	int drainTo(Object[] batch, long[] enqueueTimes);
+
+	/**
+	 * @return the number of events in the queue
+	 */
+	int size();
+
+}
@@ -15,9 +15,21 @@
 
 package de.eskalon.commons.event;
 
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
+import org.jspecify.annotations.Nullable;
+
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.async.ThreadUtils;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+
+import de.damios.guacamole.Preconditions;
 import de.eskalon.commons.inject.annotations.Inject;
 import de.eskalon.commons.inject.annotations.Singleton;
 
@@ -25,33 +37,204 @@ import de.eskalon.commons.inject.annotations.Singleton;
  * This event bus queues events and only posts them to the subscribers when
  * {@link #dispatchEvents()} is called. This can be useful if events have to get
  * handled in a certain thread.
+ * <p>
+ * Subscribers with {@link ThreadMode#MAIN} are called directly when the events
+ * are dispatched, as this is supposed to happen on the rendering thread.
+ * <p>
+ * To prevent bursts of events from stalling a frame, the time spent
+ * dispatching can be limited via {@link #dispatchEvents(long, int)}. Events
+ * that could not be dispatched within the budget are carried over to the next
+ * call.
+ * <p>
+ * By default, the queue is unbounded. Alternatively, a bounded queue backed by
+ * a pre-allocated ring buffer can be used (see
+ * {@link #EventQueueBus(Executor, int, OverflowPolicy)}).
+ * <p>
+ * Events of types annotated with {@link Coalesce} or registered via
+ * {@link #coalesce(Class, Function)} are coalesced: if an event with the same
+ * key is still queued, it is replaced by the newly posted one, which keeps the
+ * queue position of the replaced event.
+ * <p>
+ * If {@linkplain #setMetricsEnabled(boolean) metrics are recorded}, the time
+ * the events spend in the queue is recorded as well.
  * 
  * @author damios
  */
 public class EventQueueBus extends EventBus {
 
+	private static final int MAX_BATCH_SIZE = 256;
+	private static final Coalescer NO_COALESCING = new Coalescer(null);
+
 	@Inject
 	@Singleton
 	public EventQueueBus() {
-		// empty default constructor
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param asyncExecutor
+	 *            the executor used to call {@linkplain ThreadMode#ASYNC
+	 *            asynchronous subscribers}
+	 */
+	public EventQueueBus(Executor asyncExecutor) {
+		super(asyncExecutor, DIRECT_EXECUTOR);
+		this.eventQueue = new UnboundedEventQueue();
+		this.overflowPolicy = OverflowPolicy.BLOCK; // never used
+		this.batch = new Object[MAX_BATCH_SIZE];
+		this.batchEnqueueTimes = new long[MAX_BATCH_SIZE];
+	}
+
+	/**
+	 * Creates an event queue bus backed by a bounded ring buffer.
+	 * 
+	 * @param capacity
+	 *            the maximum number of queued events; has to be at least 2
+	 * @param overflowPolicy
+	 *            what to do when an event is posted while the queue is full
+	 */
+	public EventQueueBus(int capacity, OverflowPolicy overflowPolicy) {
+		this(ForkJoinPool.commonPool(), capacity, overflowPolicy);
+	}
+
+	/**
+	 * Creates an event queue bus backed by a bounded ring buffer.
+	 * 
+	 * @param asyncExecutor
+	 *            the executor used to call {@linkplain ThreadMode#ASYNC
+	 *            asynchronous subscribers}
+	 * @param capacity
+	 *            the maximum number of queued events; has to be at least 2
+	 * @param overflowPolicy
+	 *            what to do when an event is posted while the queue is full
+	 */
+	public EventQueueBus(Executor asyncExecutor, int capacity,
+			OverflowPolicy overflowPolicy) {
+		super(asyncExecutor, DIRECT_EXECUTOR);
+		Preconditions.checkNotNull(overflowPolicy);
+
+		this.eventQueue = new RingBufferEventQueue(capacity);
+		this.overflowPolicy = overflowPolicy;
+		this.batch = new Object[Math.min(capacity, MAX_BATCH_SIZE)];
+		this.batchEnqueueTimes = new long[batch.length];
 	}
 
 	/**
 	 * Queue of posted events. Is taken care of when {@link #dispatchEvents()}
 	 * is called.
 	 */
-	private Queue<Object> eventQueue = new ConcurrentLinkedQueue<>();
+	private final EventQueue eventQueue;
+	private final OverflowPolicy overflowPolicy;
+
+	/**
+	 * The events are taken out of the queue in batches. Events that could not
+	 * be dispatched within the budget of a {@link #dispatchEvents(long, int)}
+	 * call remain in here until the next call.
+	 */
+	private final Object[] batch;
+	private final long[] batchEnqueueTimes;
+	private int batchIndex;
+	private int batchSize;
+	/**
+	 * The thread currently dispatching events. Is used to prevent the
+	 * dispatching thread from blocking itself.
+	 */
+	private volatile @Nullable Thread dispatchingThread;
+
+	private final AtomicInteger droppedEventCount = new AtomicInteger();
+	private final AtomicInteger pendingOverflowCount = new AtomicInteger();
+	private final AtomicReference<Object> lastDroppedEvent = new AtomicReference<>();
+
+	/**
+	 * The coalescing settings per event class. Event classes that are not
+	 * coalesced are mapped to {@link #NO_COALESCING}.
+	 */
+	private final ConcurrentMap<Class<?>, Coalescer> coalescers = new ConcurrentHashMap<>();
+	private final AtomicInteger coalescedEventCount = new AtomicInteger();
+
+	private int lastDispatchedEventCount;
+	private int carriedOverEventCount;
 
 	/**
 	 * After this method is called the {@linkplain #eventQueue queued events}
 	 * get posted to their respective subscribers.
 	 */
 	public void dispatchEvents() {
-		Object event = eventQueue.poll();
-		while (event != null) {
-			super.post(event);
-			event = eventQueue.poll();
+		dispatchEvents(Long.MAX_VALUE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Posts the {@linkplain #eventQueue queued events} to their respective
+	 * subscribers until the given time budget is used up. The remaining events
+	 * stay queued until the next call.
+	 * 
+	 * @param maxNanos
+	 *            the time budget in nanoseconds
+	 * @see #dispatchEvents(long, int)
+	 */
+	public void dispatchEvents(long maxNanos) {
+		dispatchEvents(maxNanos, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Posts the {@linkplain #eventQueue queued events} to their respective
+	 * subscribers until either the given time budget is used up or the given
+	 * number of events was dispatched. The remaining events stay queued until
+	 * the next call.
+	 * <p>
+	 * At least one event is dispatched per call (if there is one), so that the
+	 * queue always makes progress. Events posted by subscribers while the
+	 * events are dispatched are handled in the same call, as long as the
+	 * budget allows it.
+	 * 
+	 * @param maxNanos
+	 *            the time budget in nanoseconds
+	 * @param maxEvents
+	 *            the maximum number of events to dispatch
+	 */
+	public void dispatchEvents(long maxNanos, int maxEvents) {
+		long startTime = TimeUtils.nanoTime();
+		int dispatchedEvents = 0;
+		dispatchingThread = Thread.currentThread();
+
+		try {
+			int overflowCount = pendingOverflowCount.getAndSet(0);
+			if (overflowCount > 0) {
+				super.post(new EventQueueOverflowEvent(lastDroppedEvent.get(),
+						overflowCount));
+			}
+
+			EventBusMetrics metrics = getMetrics();
+
+			while (dispatchedEvents < maxEvents) {
+				if (batchIndex == batchSize) {
+					batchIndex = 0;
+					batchSize = eventQueue.drainTo(batch, batchEnqueueTimes);
+
+					if (batchSize == 0)
+						break;
+				}
+
+				Object event = unwrap(batch[batchIndex]);
+				long enqueueTime = batchEnqueueTimes[batchIndex];
+				batch[batchIndex++] = null;
+
+				if (metrics != null && enqueueTime != 0) {
+					metrics.get(event.getClass()).recordQueueWait(
+							TimeUtils.nanoTime() - enqueueTime);
+				}
+
+				dispatch(event);
+				dispatchedEvents++;
+
+				if (TimeUtils.nanoTime() - startTime >= maxNanos)
+					break;
+			}
+		} finally {
+			dispatchingThread = null;
 		}
+
+		lastDispatchedEventCount = dispatchedEvents;
+		carriedOverEventCount = getQueueSize();
 	}
 
 	/**
@@ -61,7 +244,283 @@ public class EventQueueBus extends EventBus {
 	 */
 	@Override
 	public void post(Object event) {
-		this.eventQueue.add(event);
+		Preconditions.checkNotNull(event);
+
+		long enqueueTime = 0;
+		EventBusMetrics metrics = getMetrics();
+		if (metrics != null) {
+			metrics.get(event.getClass()).recordPost();
+			enqueueTime = TimeUtils.nanoTime();
+		}
+
+		Coalescer coalescer = getCoalescer(event.getClass());
+		if (coalescer != NO_COALESCING) {
+			Object key = coalescer.getKey(event);
+			if (key != null) {
+				postCoalesced(coalescer, key, event, enqueueTime);
+				return;
+			}
+		}
+
+		enqueue(event, enqueueTime);
+	}
+
+	private void postCoalesced(Coalescer coalescer, Object key, Object event,
+			long enqueueTime) {
+		while (true) {
+			CoalescedEvent queuedEvent = coalescer.queuedEvents.get(key);
+
+			if (queuedEvent == null) {
+				CoalescedEvent newEvent = new CoalescedEvent(coalescer, key,
+						event);
+				if (coalescer.queuedEvents.putIfAbsent(key, newEvent) == null) {
+					enqueue(newEvent, enqueueTime);
+					return;
+				}
+			} else if (queuedEvent.replace(event)) {
+				coalescedEventCount.incrementAndGet();
+				return;
+			} else {
+				// The queued event was just taken out of the queue
+				coalescer.queuedEvents.remove(key, queuedEvent);
+			}
+		}
+	}
+
+	private void enqueue(Object event, long enqueueTime) {
+		if (!eventQueue.offer(event, enqueueTime))
+			handleOverflow(event, enqueueTime);
+	}
+
+	private void handleOverflow(Object event, long enqueueTime) {
+		switch (overflowPolicy) {
+		case BLOCK:
+			if (Thread.currentThread() == dispatchingThread) {
+				// Waiting would block forever, as this thread is the one
+				// supposed to empty the queue
+				dispatch(unwrap(event));
+				return;
+			}
+			while (!eventQueue.offer(event, enqueueTime)) {
+				ThreadUtils.yield();
+			}
+			break;
+		case DROP_OLDEST:
+			do {
+				Object droppedEvent = eventQueue.poll();
+				if (droppedEvent != null) {
+					unwrap(droppedEvent);
+					droppedEventCount.incrementAndGet();
+				}
+			} while (!eventQueue.offer(event, enqueueTime));
+			break;
+		case DROP_NEWEST:
+			unwrap(event);
+			droppedEventCount.incrementAndGet();
+			break;
+		case POST_OVERFLOW_EVENT:
+			droppedEventCount.incrementAndGet();
+			lastDroppedEvent.set(unwrap(event));
+			pendingOverflowCount.incrementAndGet();
+			break;
+		}
+	}
+
+	/**
+	 * Returns the actual event for an element taken out of the queue. If the
+	 * event was coalesced, it cannot be replaced anymore afterwards.
+	 */
+	private static Object unwrap(Object queuedEvent) {
+		if (queuedEvent instanceof CoalescedEvent)
+			return ((CoalescedEvent) queuedEvent).take();
+		return queuedEvent;
+	}
+
+	/**
+	 * Coalesces all events of the given type: if an event of this type is
+	 * still queued when another one is posted, the queued event is replaced
+	 * by the new one. This is the same as annotating the type with
+	 * {@link Coalesce}.
+	 * <p>
+	 * Only applies to events of exactly this type and to events posted after
+	 * this method was called.
+	 * 
+	 * @param eventType
+	 *            the event type
+	 * @see #coalesce(Class, Function)
+	 */
+	public void coalesce(Class<?> eventType) {
+		Preconditions.checkNotNull(eventType);
+
+		coalescers.put(eventType, new Coalescer(null));
+	}
+
+	/**
+	 * Coalesces events of the given type by a key: if an event with the same
+	 * key is still queued when another one is posted, the queued event is
+	 * replaced by the new one. This is useful if, for example, only the latest
+	 * change per entity matters.
+	 * <p>
+	 * Only applies to events of exactly this type and to events posted after
+	 * this method was called.
+	 * 
+	 * @param <T>
+	 *            the event type
+	 * @param eventType
+	 *            the event type
+	 * @param keyExtractor
+	 *            returns the key of an event; if it returns {@code null} the
+	 *            event is not coalesced
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> void coalesce(Class<T> eventType,
+			Function<? super T, ?> keyExtractor) {
+		Preconditions.checkNotNull(eventType);
+		Preconditions.checkNotNull(keyExtractor);
+
+		coalescers.put(eventType,
+				new Coalescer((Function<Object, ?>) keyExtractor));
+	}
+
+	private Coalescer getCoalescer(Class<?> eventType) {
+		Coalescer coalescer = coalescers.get(eventType);
+		if (coalescer == null) {
+			coalescer = ClassReflection.isAnnotationPresent(eventType,
+					Coalesce.class) ? new Coalescer(null) : NO_COALESCING;
+			Coalescer previous = coalescers.putIfAbsent(eventType, coalescer);
+			if (previous != null)
+				return previous;
+		}
+		return coalescer;
+	}
+
+	/**
+	 * @return the number of events that are currently queued
+	 */
+	public int getQueueSize() {
+		return eventQueue.size() + (batchSize - batchIndex);
+	}
+
+	/**
+	 * @return the number of events dispatched during the last call of
+	 *         {@link #dispatchEvents(long, int)}
+	 */
+	public int getLastDispatchedEventCount() {
+		return lastDispatchedEventCount;
+	}
+
+	/**
+	 * @return the number of events that were still queued after the last call
+	 *         of {@link #dispatchEvents(long, int)}; if this number keeps
+	 *         growing, events are posted faster than they can be dispatched
+	 */
+	public int getCarriedOverEventCount() {
+		return carriedOverEventCount;
+	}
+
+	/**
+	 * @return the total number of events that were dropped because the queue
+	 *         was full
+	 */
+	public int getDroppedEventCount() {
+		return droppedEventCount.get();
+	}
+
+	/**
+	 * @return the total number of events that were replaced by a newer event
+	 *         before they could be dispatched
+	 * @see Coalesce
+	 */
+	public int getCoalescedEventCount() {
+		return coalescedEventCount.get();
+	}
+
+	/**
+	 * The coalescing settings of an event class.
+	 */
+	private static final class Coalescer {
+		/**
+		 * Returns the key of an event. If this is {@code null}, all events of
+		 * the class share the same key.
+		 */
+		private final @Nullable Function<Object, ?> keyExtractor;
+		/**
+		 * The queued events of the class by their key.
+		 */
+		private final ConcurrentMap<Object, CoalescedEvent> queuedEvents = new ConcurrentHashMap<>();
+
+		Coalescer(@Nullable Function<Object, ?> keyExtractor) {
+			this.keyExtractor = keyExtractor;
+		}
+
+		@Nullable
+		Object getKey(Object event) {
+			return keyExtractor == null ? this : keyExtractor.apply(event);
+		}
+	}
+
+	/**
+	 * Holds a queued event that can be replaced as long as it was not taken
+	 * out of the queue.
+	 */
+	private static final class CoalescedEvent {
+		private static final Object TAKEN = new Object();
+
+		private final Coalescer coalescer;
+		private final Object key;
+		private final AtomicReference<Object> event;
+
+		CoalescedEvent(Coalescer coalescer, Object key, Object event) {
+			this.coalescer = coalescer;
+			this.key = key;
+			this.event = new AtomicReference<>(event);
+		}
+
+		/**
+		 * @return whether the event could be replaced; {@code false} if it was
+		 *         already taken out of the queue
+		 */
+		boolean replace(Object newEvent) {
+			Object current;
+			do {
+				current = event.get();
+				if (current == TAKEN)
+					return false;
+			} while (!event.compareAndSet(current, newEvent));
+			return true;
+		}
+
+		Object take() {
+			Object current = event.getAndSet(TAKEN);
+			coalescer.queuedEvents.remove(key, this);
+			return current;
+		}
+	}
+
+	/**
+	 * Determines what happens when an event is posted to a bounded
+	 * {@link EventQueueBus} whose queue is full.
+	 */
+	public enum OverflowPolicy {
+		/**
+		 * The posting thread waits until there is space in the queue. If the
+		 * event is posted by the thread dispatching the events, it is
+		 * dispatched right away instead.
+		 */
+		BLOCK,
+		/**
+		 * The oldest queued event is dropped to make space for the new one.
+		 */
+		DROP_OLDEST,
+		/**
+		 * The posted event is dropped.
+		 */
+		DROP_NEWEST,
+		/**
+		 * The posted event is dropped. Before the queued events are dispatched
+		 * the next time, an {@link EventQueueOverflowEvent} is posted.
+		 */
+		POST_OVERFLOW_EVENT;
 	}
 
-}
\ No newline at end of file
+}
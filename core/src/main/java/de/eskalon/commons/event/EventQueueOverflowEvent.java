@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.event;
+
+import java.util.Objects;
+
+/**
+ * This event is published by an {@link EventQueueBus} whose queue overflowed,
+ * if it uses {@link EventQueueBus.OverflowPolicy#POST_OVERFLOW_EVENT}. It
+ * wraps the last event that was dropped and is dispatched before the other
+ * queued events.
+ */
+public final class EventQueueOverflowEvent {
+
+	private final Object event;
+	private final int droppedEventCount;
+
+	public EventQueueOverflowEvent(Object event, int droppedEventCount) {
+		this.event = Objects.requireNonNull(event);
+		this.droppedEventCount = droppedEventCount;
+	}
+
+	/**
+	 * @return the last event that was dropped
+	 */
+	public Object getEvent() {
+		return event;
+	}
+
+	/**
+	 * @return the number of events that were dropped since the events were
+	 *         dispatched the last time
+	 */
+	public int getDroppedEventCount() {
+		return droppedEventCount;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "{event=" + event
+				+ ",droppedEventCount=" + droppedEventCount + "}";
+	}
+}
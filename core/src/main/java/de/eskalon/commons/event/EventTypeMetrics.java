@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The metrics an {@link EventBus} records for one event class.
+ * 
+ * @see EventBusMetrics
+ */
+public final class EventTypeMetrics {
+
+	private final Class<?> eventClass;
+
+	private final AtomicLong postCount = new AtomicLong();
+	private final AtomicLong dispatchCount = new AtomicLong();
+	private volatile int subscriberCount;
+	private final LatencyHistogram handlerTime = new LatencyHistogram();
+	private final LatencyHistogram queueWaitTime = new LatencyHistogram();
+	private final AtomicLong deadEventCount = new AtomicLong();
+	private final AtomicLong exceptionCount = new AtomicLong();
+
+	EventTypeMetrics(Class<?> eventClass) {
+		this.eventClass = eventClass;
+	}
+
+	void recordPost() {
+		postCount.incrementAndGet();
+	}
+
+	void recordDispatch(int subscriberCount) {
+		dispatchCount.incrementAndGet();
+		this.subscriberCount = subscriberCount;
+		if (subscriberCount == 0)
+			deadEventCount.incrementAndGet();
+	}
+
+	void recordSubscriberCall(long nanos, boolean failed) {
+		handlerTime.record(nanos);
+		if (failed)
+			exceptionCount.incrementAndGet();
+	}
+
+	void recordQueueWait(long nanos) {
+		queueWaitTime.record(nanos);
+	}
+
+	public Class<?> getEventClass() {
+		return eventClass;
+	}
+
+	/**
+	 * @return how often an event of this class was posted
+	 */
+	public long getPostCount() {
+		return postCount.get();
+	}
+
+	/**
+	 * @return how often an event of this class was dispatched to its
+	 *         subscribers; for an {@link EventQueueBus}, this can be lower
+	 *         than the {@linkplain #getPostCount() post count}, e.g. because
+	 *         events are still queued or were {@linkplain Coalesce coalesced}
+	 */
+	public long getDispatchCount() {
+		return dispatchCount.get();
+	}
+
+	/**
+	 * @return the number of subscribers the last event of this class was
+	 *         dispatched to
+	 */
+	public int getSubscriberCount() {
+		return subscriberCount;
+	}
+
+	/**
+	 * @return the time the subscribers took to handle the events of this
+	 *         class; each subscriber call is recorded separately
+	 */
+	public LatencyHistogram getHandlerTime() {
+		return handlerTime;
+	}
+
+	/**
+	 * @return the time the events of this class were queued before they got
+	 *         dispatched; is only recorded by an {@link EventQueueBus}
+	 */
+	public LatencyHistogram getQueueWaitTime() {
+		return queueWaitTime;
+	}
+
+	/**
+	 * @return how often an event of this class was dispatched without any
+	 *         subscribers being registered for it (see {@link DeadEvent})
+	 */
+	public long getDeadEventCount() {
+		return deadEventCount.get();
+	}
+
+	/**
+	 * @return how often a subscriber threw an exception while handling an
+	 *         event of this class (see {@link ExceptionEvent})
+	 */
+	public long getExceptionCount() {
+		return exceptionCount.get();
+	}
+
+	void reset() {
+		postCount.set(0);
+		dispatchCount.set(0);
+		subscriberCount = 0;
+		handlerTime.reset();
+		queueWaitTime.reset();
+		deadEventCount.set(0);
+		exceptionCount.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "{eventClass="
+				+ eventClass.getName() + ",postCount=" + getPostCount()
+				+ ",dispatchCount=" + getDispatchCount() + ",subscriberCount="
+				+ subscriberCount + ",handlerTime=" + handlerTime.getTotal()
+				+ "ns,maxHandlerTime=" + handlerTime.getMax()
+				+ "ns,queueWaitTime=" + queueWaitTime.getTotal()
+				+ "ns,deadEventCount=" + getDeadEventCount()
+				+ ",exceptionCount=" + getExceptionCount() + "}";
+	}
+
+}
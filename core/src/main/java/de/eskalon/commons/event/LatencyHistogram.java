@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations in nanoseconds. The durations are counted in
+ * buckets whose bounds are powers of two, i.e. bucket {@code i} contains all
+ * durations in {@code [2^i, 2^(i+1))} ns. Recording a duration therefore does
+ * not allocate and percentiles are only approximated.
+ * <p>
+ * All methods can be called from any thread.
+ */
+public final class LatencyHistogram {
+
+	/** Covers durations of up to ~9 minutes. */
+	public static final int BUCKET_COUNT = 40;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong total = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records a duration.
+	 * 
+	 * @param nanos
+	 *            the duration in nanoseconds
+	 */
+	public void record(long nanos) {
+		if (nanos < 0)
+			nanos = 0; // nanoTime() is not monotonic on every platform
+
+		buckets.incrementAndGet(getBucket(nanos));
+		count.incrementAndGet();
+		total.addAndGet(nanos);
+		max.accumulateAndGet(nanos, Math::max);
+	}
+
+	private static int getBucket(long nanos) {
+		return Math.min(BUCKET_COUNT - 1,
+				63 - Long.numberOfLeadingZeros(Math.max(1, nanos)));
+	}
+
+	/**
+	 * @return the number of recorded durations
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * @return the sum of all recorded durations in nanoseconds
+	 */
+	public long getTotal() {
+		return total.get();
+	}
+
+	/**
+	 * @return the longest recorded duration in nanoseconds
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * @return the mean of the recorded durations in nanoseconds
+	 */
+	public long getMean() {
+		long c = count.get();
+		return c == 0 ? 0 : total.get() / c;
+	}
+
+	/**
+	 * Approximates a percentile of the recorded durations. The returned value
+	 * is the upper bound of the bucket the percentile falls into, but never
+	 * more than {@linkplain #getMax() the maximum}.
+	 * 
+	 * @param percentile
+	 *            the percentile, between 0 and 1
+	 * @return the approximated percentile in nanoseconds
+	 */
+	public long getPercentile(double percentile) {
+		long c = count.get();
+		if (c == 0)
+			return 0;
+
+		long threshold = (long) Math.ceil(c * percentile);
+		long sum = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			sum += buckets.get(i);
+			if (sum >= threshold && sum > 0)
+				return Math.min(max.get(),
+						i == BUCKET_COUNT - 1 ? Long.MAX_VALUE : (2L << i) - 1);
+		}
+		return max.get();
+	}
+
+	/**
+	 * @param bucket
+	 *            the index of the bucket
+	 * @return the number of recorded durations in
+	 *         {@code [2^bucket, 2^(bucket+1))} ns
+	 */
+	public long getBucketCount(int bucket) {
+		return buckets.get(bucket);
+	}
+
+	void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++)
+			buckets.set(i, 0);
+		count.set(0);
+		total.set(0);
+		max.set(0);
+	}
+
+}
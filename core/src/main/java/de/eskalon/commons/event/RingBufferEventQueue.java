@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.jspecify.annotations.Nullable;
+
+import de.damios.guacamole.Preconditions;
+
+/**
+ * A bounded, lock-free event queue backed by a pre-allocated ring buffer.
+ * <p>
+ * This is an implementation of Dmitry Vyukov's bounded MPMC queue: each slot
+ * has a sequence number that tells producers and consumers whether the slot
+ * can currently be written or read. Positions are claimed via
+ * compare-and-set. Unlike a {@link UnboundedEventQueue}, adding an event does
+ * not allocate anything.
+ */
+final class RingBufferEventQueue implements EventQueue {
+
+	private final int capacity;
+	private final Object[] buffer;
+	private final long[] enqueueTimes;
+	/**
+	 * A slot at index {@code i} can be written at position {@code p} if its
+	 * sequence is {@code p} and read if its sequence is {@code p + 1}.
+	 */
+	private final AtomicLongArray sequences;
+	/** The position of the next slot to read. */
+	private final AtomicLong head = new AtomicLong();
+	/** The position of the next slot to write. */
+	private final AtomicLong tail = new AtomicLong();
+
+	RingBufferEventQueue(int capacity) {
+		// With only one slot, a published slot could not be told apart from
+		// one ready to be written in the next round
+		Preconditions.checkArgument(capacity > 1,
+				"The capacity has to be at least 2.");
+
+		this.capacity = capacity;
+		this.buffer = new Object[capacity];
+		this.enqueueTimes = new long[capacity];
+		this.sequences = new AtomicLongArray(capacity);
+		for (int i = 0; i < capacity; i++) {
+			sequences.set(i, i);
+		}
+	}
+
+	@Override
+	public boolean offer(Object event, long enqueueTime) {
+		long pos = tail.get();
+		while (true) {
+			int index = (int) (pos % capacity);
+			long diff = sequences.get(index) - pos;
+
+			if (diff == 0) {
+				if (tail.compareAndSet(pos, pos + 1)) {
+					buffer[index] = event;
+					enqueueTimes[index] = enqueueTime;
+					sequences.set(index, pos + 1); // publish the event
+					return true;
+				}
+			} else if (diff < 0) {
+				return false; // the slot was not consumed yet -> full
+			}
+
+			pos = tail.get();
+		}
+	}
+
+	@Override
+	public @Nullable Object poll() {
+		long pos = head.get();
+		while (true) {
+			int index = (int) (pos % capacity);
+			long diff = sequences.get(index) - (pos + 1);
+
+			if (diff == 0) {
+				if (head.compareAndSet(pos, pos + 1)) {
+					return take(index, pos);
+				}
+			} else if (diff < 0) {
+				return null; // the slot was not published yet -> empty
+			}
+
+			pos = head.get();
+		}
+	}
+
+	@Override
+	public int drainTo(Object[] batch, long[] enqueueTimes) {
+		int maxCount = Math.min(batch.length, capacity);
+		while (true) {
+			long pos = head.get();
+
+			// Count the consecutive slots that are already published
+			int count = 0;
+			while (count < maxCount && sequences
+					.get((int) ((pos + count) % capacity)) == pos + count + 1) {
+				count++;
+			}
+
+			if (count == 0)
+				return 0;
+
+			// Claim all of them at once
+			if (head.compareAndSet(pos, pos + count)) {
+				for (int i = 0; i < count; i++) {
+					int index = (int) ((pos + i) % capacity);
+					enqueueTimes[i] = this.enqueueTimes[index];
+					batch[i] = take(index, pos + i);
+				}
+				return count;
+			}
+		}
+	}
+
+	private Object take(int index, long pos) {
+		Object event = buffer[index];
+		buffer[index] = null;
+		sequences.set(index, pos + capacity); // release the slot for writing
+		return event;
+	}
+
+	@Override
+	public int size() {
+		long size = tail.get() - head.get();
+		return (int) Math.max(0, Math.min(capacity, size));
+	}
+
+	int getCapacity() {
+		return capacity;
+	}
+
+}
@@ -28,4 +28,19 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 public @interface Subscribe {
+
+	/**
+	 * @return the thread the subscriber is called on
+	 */
+	ThreadMode threadMode() default ThreadMode.POSTING;
+
+	/**
+	 * Subscribers with a higher priority are called first. Subscribers with
+	 * the same priority are called in the order they were registered in.
+	 * 
+	 * @return the priority of the subscriber
+	 * @see Cancellable
+	 */
+	int priority() default 0;
+
 }
@@ -15,6 +15,10 @@
 
 package de.eskalon.commons.event;
 
+import java.lang.ref.WeakReference;
+
+import org.jspecify.annotations.Nullable;
+
 import com.badlogic.gdx.utils.reflect.Method;
 
 import de.damios.guacamole.gdx.reflection.ReflectionUtils;
@@ -24,30 +28,94 @@ import de.damios.guacamole.gdx.reflection.ReflectionUtils;
  */
 public class Subscriber {
 
-	/** The object with the subscriber method. */
-	final Object instance;
+	/**
+	 * The object with the subscriber method. For weak subscribers, this is a
+	 * {@link WeakReference} to the object.
+	 */
+	private final Object instance;
+	private final boolean weak;
+	private final int instanceHashCode;
 	/** The subscribing method. */
 	final Method method;
+	/**
+	 * Calls {@link #method} on {@link #instance}. For weak subscribers, the
+	 * invoker must not reference the instance itself.
+	 */
+	final SubscriberInvoker invoker;
+	/** The thread the subscriber is called on. */
+	final ThreadMode threadMode;
+	/** Subscribers with a higher priority are called first. */
+	final int priority;
 
-	Subscriber(Object instance, Method method) {
+	Subscriber(Object instance, Method method, SubscriberInvoker invoker,
+			ThreadMode threadMode, int priority) {
+		this(instance, false, System.identityHashCode(instance), method,
+				invoker, threadMode, priority);
+	}
+
+	private Subscriber(Object instance, boolean weak, int instanceHashCode,
+			Method method, SubscriberInvoker invoker, ThreadMode threadMode,
+			int priority) {
 		this.instance = instance;
+		this.weak = weak;
+		this.instanceHashCode = instanceHashCode;
 		this.method = method;
+		this.invoker = invoker;
+		this.threadMode = threadMode;
+		this.priority = priority;
+	}
+
+	/**
+	 * Creates a subscriber that only holds a weak reference to its instance.
+	 * 
+	 * @param instanceRef
+	 * @param method
+	 * @param invoker
+	 *            has to retrieve the instance from {@code instanceRef} itself
+	 * @param threadMode
+	 * @param priority
+	 * @return the subscriber
+	 */
+	static Subscriber weak(WeakReference<Object> instanceRef, Method method,
+			SubscriberInvoker invoker, ThreadMode threadMode, int priority) {
+		return new Subscriber(instanceRef, true,
+				System.identityHashCode(instanceRef.get()), method, invoker,
+				threadMode, priority);
+	}
+
+	/**
+	 * @return the object with the subscriber method; {@code null} if the
+	 *         subscriber is weak and its object was garbage collected
+	 */
+	@Nullable
+	Object getInstance() {
+		return weak ? ((WeakReference<?>) instance).get() : instance;
+	}
+
+	/**
+	 * @return whether the subscriber is weak and its object was garbage
+	 *         collected
+	 */
+	boolean isCollected() {
+		return weak && ((WeakReference<?>) instance).get() == null;
 	}
 
 	@Override
 	public final int hashCode() {
-		return (31 + method.hashCode()) * 31
-				+ System.identityHashCode(instance);
+		return (31 + method.hashCode()) * 31 + instanceHashCode;
 	}
 
 	@Override
 	public final boolean equals(Object obj) {
+		if (this == obj)
+			return true;
 		if (obj instanceof Subscriber) {
 			Subscriber that = (Subscriber) obj;
 			// Use == so that different (but equal) instances will still receive
 			// events. We only guard against the case that the same object is
 			// registered multiple times
-			return instance == that.instance
+			Object thisInstance = getInstance();
+			return thisInstance != null && thisInstance == that.getInstance()
 					&& ReflectionUtils.areMethodsEqual(method, that.method);
 		}
 		return false;
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.event;
+
+/**
+ * Delivers an event to one specific subscriber. Invokers are created once
+ * when a subscriber is {@linkplain EventBus#register(Object) registered} and
+ * are then reused for every event posted to it.
+ * 
+ * @see EventBus.DispatchMode
+ */
+@FunctionalInterface
+public interface SubscriberInvoker {
+
+	/**
+	 * @param event
+	 * @throws Throwable
+	 *             the exception thrown by the subscriber itself
+	 */
+	public void invoke(Object event) throws Throwable;
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.event;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.function.Function;
+
+import org.jspecify.annotations.Nullable;
+
+import com.badlogic.gdx.utils.reflect.Method;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+
+import de.damios.guacamole.annotations.GwtIncompatible;
+
+/**
+ * Creates the {@link SubscriberInvoker}s used by the {@link EventBus}.
+ * <p>
+ * The factories returned by this class are created once per subscriber
+ * method and can then be applied to every instance that gets registered.
+ */
+final class SubscriberInvokers {
+
+	private SubscriberInvokers() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @param method
+	 *            the subscriber method; has to be accessible
+	 * @return a factory for invokers that call the given method via
+	 *         reflection
+	 */
+	static Function<Object, SubscriberInvoker> reflectiveFactory(
+			Method method) {
+		return (instance) -> (event) -> {
+			try {
+				method.invoke(instance, event);
+			} catch (ReflectionException e) {
+				throw unwrap(e);
+			}
+		};
+	}
+
+	/**
+	 * Spins up a class implementing {@link SubscriberInvoker} that calls the
+	 * given method directly, without going through reflection.
+	 * 
+	 * @param method
+	 *            the subscriber method
+	 * @return a factory for invokers calling the given method or {@code null}
+	 *         if no code can be generated for it on this platform
+	 */
+	@GwtIncompatible
+	static @Nullable Function<Object, SubscriberInvoker> generatedFactory(
+			Method method) {
+		try {
+			Class<?> declaringClass = method.getDeclaringClass();
+			java.lang.reflect.Method m = declaringClass
+					.getDeclaredMethod(method.getName(),
+							method.getParameterTypes());
+
+			if (Modifier.isStatic(m.getModifiers()))
+				return null;
+
+			MethodHandles.Lookup lookup = MethodHandles
+					.privateLookupIn(declaringClass, MethodHandles.lookup());
+			CallSite site = LambdaMetafactory.metafactory(lookup, "invoke",
+					MethodType.methodType(SubscriberInvoker.class,
+							declaringClass),
+					MethodType.methodType(void.class, Object.class),
+					lookup.unreflect(m), MethodType.methodType(void.class,
+							m.getParameterTypes()[0]));
+			MethodHandle factory = site.getTarget();
+
+			return (instance) -> {
+				try {
+					return (SubscriberInvoker) factory.invoke(instance);
+				} catch (Throwable t) {
+					// the factory handle only allocates the lambda instance
+					throw new IllegalStateException(t);
+				}
+			};
+		} catch (Exception | LinkageError e) {
+			// e.g. java.lang.invoke is not supported on this platform or the
+			// declaring class is not accessible from this module
+			return null;
+		}
+	}
+
+	/**
+	 * @param method
+	 *            the subscriber method; has to be accessible
+	 * @return an invoker that calls the given method via reflection
+	 */
+	static UnboundInvoker reflectiveUnboundInvoker(Method method) {
+		return (instance, event) -> {
+			try {
+				method.invoke(instance, event);
+			} catch (ReflectionException e) {
+				throw unwrap(e);
+			}
+		};
+	}
+
+	/**
+	 * Spins up a class implementing {@link UnboundInvoker} that calls the
+	 * given method directly, without going through reflection.
+	 * 
+	 * @param method
+	 *            the subscriber method
+	 * @return an invoker calling the given method or {@code null} if no code
+	 *         can be generated for it on this platform
+	 */
+	@GwtIncompatible
+	static @Nullable UnboundInvoker generatedUnboundInvoker(Method method) {
+		try {
+			Class<?> declaringClass = method.getDeclaringClass();
+			java.lang.reflect.Method m = declaringClass
+					.getDeclaredMethod(method.getName(),
+							method.getParameterTypes());
+
+			if (Modifier.isStatic(m.getModifiers()))
+				return null;
+
+			MethodHandles.Lookup lookup = MethodHandles
+					.privateLookupIn(declaringClass, MethodHandles.lookup());
+			CallSite site = LambdaMetafactory.metafactory(lookup, "invoke",
+					MethodType.methodType(UnboundInvoker.class),
+					MethodType.methodType(void.class, Object.class,
+							Object.class),
+					lookup.unreflect(m),
+					MethodType.methodType(void.class, declaringClass,
+							m.getParameterTypes()[0]));
+
+			return (UnboundInvoker) site.getTarget().invoke();
+		} catch (Throwable e) {
+			// e.g. java.lang.invoke is not supported on this platform or the
+			// declaring class is not accessible from this module
+			return null;
+		}
+	}
+
+	/**
+	 * @param e
+	 * @return the exception thrown by the invoked method itself
+	 */
+	static Throwable unwrap(ReflectionException e) {
+		Throwable cause = e.getCause();
+		if (cause instanceof InvocationTargetException
+				&& cause.getCause() != null)
+			cause = cause.getCause();
+		return cause != null ? cause : e;
+	}
+
+}
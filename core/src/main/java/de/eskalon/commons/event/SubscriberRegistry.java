@@ -0,0 +1,214 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Stores the subscribers of an {@link EventBus}.
+ * <p>
+ * The subscribers of each event type are kept in an immutable array that is
+ * replaced via compare-and-set whenever a subscriber is added or removed. The
+ * arrays are sorted by {@linkplain Subscriber#priority priority}, with
+ * subscribers of equal priority in the order of their registration.
+ * Reading the subscribers of an event class therefore never blocks and never
+ * observes a partially applied modification. For each posted event class,
+ * the subscribers of all its supertypes are additionally flattened into one
+ * array, which is cached until the registry is modified the next time.
+ * <p>
+ * This means that an event is always dispatched to a snapshot of the
+ * subscribers taken when the event is posted: subscribers that are
+ * (un)registered concurrently, e.g. while the event is being dispatched,
+ * only receive (or stop receiving) events posted afterwards.
+ */
+final class SubscriberRegistry {
+
+	private static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+	private static final Comparator<Subscriber> PRIORITY_ORDER = (s1,
+			s2) -> Integer.compare(s2.priority, s1.priority);
+
+	/**
+	 * The subscribers indexed by event type. Classes are compared by
+	 * identity, so event types with equal names (e.g. from different class
+	 * loaders) do not share their subscribers.
+	 */
+	private final ConcurrentMap<Class<?>, AtomicReference<Subscriber[]>> subscribers = new ConcurrentHashMap<>();
+	/**
+	 * The flattened subscribers per posted event class. An entry is only valid
+	 * as long as its version is equal to {@link #version}.
+	 */
+	private final ConcurrentMap<Class<?>, Snapshot> dispatchCache = new ConcurrentHashMap<>();
+	/**
+	 * Is incremented <i>after</i> each modification of {@link #subscribers}.
+	 */
+	private final AtomicInteger version = new AtomicInteger();
+	private final Function<Class<?>, Set<Class<?>>> superTypeResolver;
+
+	/**
+	 * @param superTypeResolver
+	 *            returns all supertypes of a class, including the class itself
+	 */
+	SubscriberRegistry(Function<Class<?>, Set<Class<?>>> superTypeResolver) {
+		this.superTypeResolver = superTypeResolver;
+	}
+
+	/**
+	 * Adds the given subscribers for the given event type. Subscribers that
+	 * are already registered are ignored.
+	 * 
+	 * @param eventType
+	 * @param toAdd
+	 */
+	void add(Class<?> eventType, Collection<Subscriber> toAdd) {
+		AtomicReference<Subscriber[]> ref = subscribers.get(eventType);
+		if (ref == null) {
+			AtomicReference<Subscriber[]> newRef = new AtomicReference<>(
+					NO_SUBSCRIBERS);
+			ref = subscribers.putIfAbsent(eventType, newRef);
+			if (ref == null)
+				ref = newRef;
+		}
+
+		Subscriber[] oldArray, newArray;
+		do {
+			oldArray = ref.get();
+			List<Subscriber> tmp = new ArrayList<>(Arrays.asList(oldArray));
+			for (Subscriber s : toAdd) {
+				if (!tmp.contains(s))
+					tmp.add(s);
+			}
+			tmp.sort(PRIORITY_ORDER); // stable, keeps the registration order
+			newArray = tmp.toArray(new Subscriber[tmp.size()]);
+		} while (!ref.compareAndSet(oldArray, newArray));
+
+		version.incrementAndGet();
+	}
+
+	/**
+	 * Removes all subscribers for the given event type that match the given
+	 * filter.
+	 * 
+	 * @param eventType
+	 * @param filter
+	 */
+	void removeIf(Class<?> eventType, Predicate<Subscriber> filter) {
+		AtomicReference<Subscriber[]> ref = subscribers.get(eventType);
+		if (ref == null)
+			return;
+
+		Subscriber[] oldArray, newArray;
+		do {
+			oldArray = ref.get();
+			List<Subscriber> tmp = new ArrayList<>(oldArray.length);
+			for (Subscriber s : oldArray) {
+				if (!filter.test(s))
+					tmp.add(s);
+			}
+			if (tmp.size() == oldArray.length)
+				return; // nothing to remove
+			newArray = tmp.isEmpty() ? NO_SUBSCRIBERS
+					: tmp.toArray(new Subscriber[tmp.size()]);
+		} while (!ref.compareAndSet(oldArray, newArray));
+
+		version.incrementAndGet();
+	}
+
+	/**
+	 * Removes all weak subscribers whose objects were garbage collected.
+	 */
+	void removeCollected() {
+		for (Class<?> eventType : subscribers.keySet()) {
+			removeIf(eventType, Subscriber::isCollected);
+		}
+	}
+
+	/**
+	 * @return all registered subscribers, regardless of their event type; a
+	 *         subscriber object with several subscriber methods is contained
+	 *         multiple times
+	 */
+	List<Subscriber> getAll() {
+		List<Subscriber> tmp = new ArrayList<>();
+		for (AtomicReference<Subscriber[]> ref : subscribers.values()) {
+			tmp.addAll(Arrays.asList(ref.get()));
+		}
+		return tmp;
+	}
+
+	/**
+	 * @param eventClass
+	 * @return all subscribers registered for the given event class or one of
+	 *         its supertypes, sorted by priority; the returned array must not
+	 *         be modified
+	 */
+	Subscriber[] get(Class<?> eventClass) {
+		// The version has to be read before the subscribers are collected. If
+		// the registry is modified in the meantime, the snapshot is outdated
+		// right away and gets replaced on the next call
+		int currentVersion = version.get();
+		Snapshot snapshot = dispatchCache.get(eventClass);
+
+		if (snapshot != null && snapshot.version == currentVersion)
+			return snapshot.subscribers;
+
+		Subscriber[] eventSubscribers = collect(eventClass);
+		dispatchCache.put(eventClass,
+				new Snapshot(currentVersion, eventSubscribers));
+		return eventSubscribers;
+	}
+
+	/**
+	 * Looks up the subscribers for the given event class and all of its
+	 * supertypes, without consulting the {@link #dispatchCache}.
+	 * 
+	 * @param eventClass
+	 * @return the subscribers, sorted by priority
+	 */
+	Subscriber[] collect(Class<?> eventClass) {
+		List<Subscriber> tmp = new ArrayList<>();
+		for (Class<?> eventType : superTypeResolver.apply(eventClass)) {
+			AtomicReference<Subscriber[]> ref = subscribers.get(eventType);
+			if (ref != null) {
+				tmp.addAll(Arrays.asList(ref.get()));
+			}
+		}
+		tmp.sort(PRIORITY_ORDER);
+		return tmp.isEmpty() ? NO_SUBSCRIBERS
+				: tmp.toArray(new Subscriber[tmp.size()]);
+	}
+
+	private static final class Snapshot {
+		private final int version;
+		private final Subscriber[] subscribers;
+
+		private Snapshot(int version, Subscriber[] subscribers) {
+			this.version = version;
+			this.subscribers = subscribers;
+		}
+	}
+
+}
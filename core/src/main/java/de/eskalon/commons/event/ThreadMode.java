@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.event;
+
+import com.badlogic.gdx.Application;
+
+/**
+ * Determines on which thread a subscriber is called.
+ * 
+ * @see Subscribe#threadMode()
+ */
+public enum ThreadMode {
+	/**
+	 * The subscriber is called directly on the thread that posts the event.
+	 * For an {@link EventQueueBus}, this is the thread calling
+	 * {@link EventQueueBus#dispatchEvents()}.
+	 */
+	POSTING,
+	/**
+	 * The subscriber is called asynchronously via the event bus' async
+	 * executor (by default the common fork-join pool). This is meant for
+	 * expensive subscribers that would otherwise block the rendering thread.
+	 */
+	ASYNC,
+	/**
+	 * The subscriber is called on the main (i.e. rendering) thread. An
+	 * {@link EventQueueBus} dispatches its events on the rendering thread
+	 * anyway, so these subscribers are called directly. A plain
+	 * {@link EventBus} hands them over to
+	 * {@link Application#postRunnable(Runnable)} by default.
+	 */
+	MAIN;
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.event;
+
+/**
+ * Calls a subscriber method on the given instance. Unlike a
+ * {@link SubscriberInvoker}, it does not reference the instance itself, which
+ * is why it is used for {@linkplain EventBus#registerWeakly(Object) weak
+ * subscribers}.
+ * <p>
+ * Has to be public, as the generated implementations are defined in the
+ * subscriber's own class (and package).
+ */
+@FunctionalInterface
+public interface UnboundInvoker {
+
+	/**
+	 * @param instance
+	 *            the subscriber
+	 * @param event
+	 * @throws Throwable
+	 *             the exception thrown by the subscriber itself
+	 */
+	public void invoke(Object instance, Object event) throws Throwable;
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.event;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An unbounded event queue backed by a {@link ConcurrentLinkedQueue}.
+ */
+final class UnboundedEventQueue implements EventQueue {
+
+	private final ConcurrentLinkedQueue<Object> queue = new ConcurrentLinkedQueue<>();
+	/**
+	 * The number of events in {@link #queue}. Is tracked separately, as
+	 * {@link ConcurrentLinkedQueue#size()} has to traverse the whole queue.
+	 */
+	private final AtomicInteger size = new AtomicInteger();
+
+	@Override
+	public boolean offer(Object event, long enqueueTime) {
+		// Increment first, so the size never drops below zero when the event
+		// gets polled right away
+		size.incrementAndGet();
+		queue.add(enqueueTime == 0 ? event
+				: new TimedEvent(event, enqueueTime));
+		return true;
+	}
+
+	@Override
+	public @Nullable Object poll() {
+		Object event = queue.poll();
+		if (event == null)
+			return null;
+
+		size.decrementAndGet();
+		if (event instanceof TimedEvent)
+			return ((TimedEvent) event).event;
+		return event;
+	}
+
+	@Override
+	public int drainTo(Object[] batch, long[] enqueueTimes) {
+		int count = 0;
+		Object event;
+		while (count < batch.length && (event = queue.poll()) != null) {
+			size.decrementAndGet();
+			if (event instanceof TimedEvent) {
+				TimedEvent timedEvent = (TimedEvent) event;
+				batch[count] = timedEvent.event;
+				enqueueTimes[count++] = timedEvent.enqueueTime;
+			} else {
+				batch[count] = event;
+				enqueueTimes[count++] = 0;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public int size() {
+		return size.get();
+	}
+
+	/**
+	 * Is only used if the enqueue time of the events is recorded, as the queue
+	 * allocates a node per event anyway.
+	 */
+	private static final class TimedEvent {
+		private final Object event;
+		private final long enqueueTime;
+
+		private TimedEvent(Object event, long enqueueTime) {
+			this.event = event;
+			this.enqueueTime = enqueueTime;
+		}
+	}
+
+}
@@ -0,0 +1,384 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jspecify.annotations.Nullable;
+
+import de.damios.guacamole.Exceptions;
+import de.damios.guacamole.annotations.GwtIncompatible;
+import de.damios.guacamole.gdx.log.Logger;
+import de.damios.guacamole.gdx.log.LoggerService;
+
+/**
+ * An index of the {@code @Subscribe} methods, the {@code @Inject} fields and
+ * constructors as well as the {@code @Asset} fields of classes, which is
+ * generated at compile time by pancake's annotation processor. This way, the
+ * {@linkplain de.eskalon.commons.event.EventBus event bus}, the
+ * {@linkplain de.eskalon.commons.inject.IInjector injector} and the
+ * {@linkplain de.eskalon.commons.asset.AnnotationAssetManager asset manager}
+ * do not have to scan these classes via reflection, which is especially slow
+ * on Android.
+ * <p>
+ * The index only contains the classes compiled with the annotation processor.
+ * For all other classes, reflection has to be used as before. A class that is
+ * in the index, but has no annotated members, is still contained with empty
+ * member lists.
+ * <p>
+ * To use the annotation processor, add the following to the dependencies of
+ * your module:
+ * 
+ * <pre>
+ * annotationProcessor "com.github.eskalon.pancake:processor:$pancakeVersion"
+ * </pre>
+ * 
+ * @see AnnotationIndexContributor
+ */
+public final class AnnotationIndex {
+
+	private static final Logger LOG = LoggerService
+			.getLogger(AnnotationIndex.class);
+
+	private static @Nullable AnnotationIndex instance;
+
+	/**
+	 * The indexed classes by their {@linkplain Class#getName() binary name}.
+	 */
+	private final ConcurrentMap<String, IndexedClass> classes = new ConcurrentHashMap<>();
+
+	AnnotationIndex() {
+		// not supposed to be instantiated outside of this package
+	}
+
+	/**
+	 * @return the index of all classes compiled with the annotation processor;
+	 *         is loaded on the first call
+	 */
+	public static synchronized AnnotationIndex instance() {
+		if (instance == null) {
+			instance = new AnnotationIndex();
+			instance.load();
+		}
+		return instance;
+	}
+
+	@GwtIncompatible
+	private void load() {
+		try {
+			for (AnnotationIndexContributor contributor : ServiceLoader
+					.load(AnnotationIndexContributor.class)) {
+				contributor.contribute(this);
+			}
+		} catch (ServiceConfigurationError e) {
+			LOG.error(
+					"The annotation index could not be loaded. Falling back to reflection. %s",
+					Exceptions.getStackTraceAsString(e));
+			classes.clear();
+		}
+
+		LOG.debug("The annotation index contains %s classes.",
+				classes.size());
+	}
+
+	/**
+	 * @param type
+	 * @return the indexed members of the given class or {@code null} if the
+	 *         class is not in the index
+	 */
+	public @Nullable IndexedClass get(Class<?> type) {
+		return classes.get(type.getName());
+	}
+
+	/**
+	 * @return all indexed classes
+	 */
+	public Collection<IndexedClass> getClasses() {
+		return Collections.unmodifiableCollection(classes.values());
+	}
+
+	private IndexedClass getOrAdd(String className) {
+		return classes.computeIfAbsent(className, IndexedClass::new);
+	}
+
+	/*
+	 * The following methods are called by the generated contributors.
+	 */
+
+	/**
+	 * Adds a class to the index.
+	 * 
+	 * @param className
+	 *            the binary name of the class
+	 */
+	public synchronized void addClass(String className) {
+		getOrAdd(className);
+	}
+
+	/**
+	 * Adds a method annotated with {@code @Subscribe} to the index.
+	 * 
+	 * @param className
+	 *            the binary name of the class declaring the method
+	 * @param methodName
+	 * @param eventClassName
+	 *            the binary name of the method's parameter type
+	 * @param threadMode
+	 *            the name of the {@code ThreadMode}
+	 * @param priority
+	 */
+	public synchronized void addSubscriberMethod(String className,
+			String methodName, String eventClassName, String threadMode,
+			int priority) {
+		getOrAdd(className).subscriberMethods.add(new SubscriberMethod(
+				methodName, eventClassName, threadMode, priority));
+	}
+
+	/**
+	 * Adds a field annotated with {@code @Inject} to the index.
+	 * 
+	 * @param className
+	 *            the binary name of the class declaring the field
+	 * @param fieldName
+	 * @param reloadable
+	 *            whether the field is annotated with {@code @Reloadable}
+	 */
+	public synchronized void addInjectedField(String className,
+			String fieldName, boolean reloadable) {
+		getOrAdd(className).injectedFields
+				.add(new InjectedField(fieldName, reloadable));
+	}
+
+	/**
+	 * Adds a public constructor annotated with {@code @Inject} to the index.
+	 * 
+	 * @param className
+	 *            the binary name of the class declaring the constructor
+	 * @param parameterClassNames
+	 *            the binary names of the parameter types
+	 * @param singleton
+	 *            whether the constructor is annotated with {@code @Singleton}
+	 */
+	public synchronized void addInjectableConstructor(String className,
+			String[] parameterClassNames, boolean singleton) {
+		getOrAdd(className).injectableConstructor = new InjectableConstructor(
+				parameterClassNames, singleton);
+	}
+
+	/**
+	 * Adds a field annotated with {@code @Asset} to the index. Disabled assets
+	 * are not indexed.
+	 * 
+	 * @param className
+	 *            the binary name of the class declaring the field
+	 * @param fieldName
+	 * @param typeClassName
+	 *            the binary name of the field's type
+	 * @param path
+	 *            the path of the asset
+	 * @param params
+	 *            the params of the asset; an empty string if there are none
+	 */
+	public synchronized void addAssetField(String className, String fieldName,
+			String typeClassName, String path, String params) {
+		getOrAdd(className).assetFields.add(
+				new AssetField(fieldName, typeClassName, path, params));
+	}
+
+	/**
+	 * The indexed members of a class.
+	 */
+	public static final class IndexedClass {
+		private final String name;
+		private final List<SubscriberMethod> subscriberMethods = new ArrayList<>(
+				0);
+		private final List<InjectedField> injectedFields = new ArrayList<>(0);
+		private final List<AssetField> assetFields = new ArrayList<>(0);
+		private @Nullable InjectableConstructor injectableConstructor;
+
+		private IndexedClass(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the methods annotated with {@code @Subscribe} declared by
+		 *         this class
+		 */
+		public List<SubscriberMethod> getSubscriberMethods() {
+			return Collections.unmodifiableList(subscriberMethods);
+		}
+
+		/**
+		 * @return the fields annotated with {@code @Inject} declared by this
+		 *         class
+		 */
+		public List<InjectedField> getInjectedFields() {
+			return Collections.unmodifiableList(injectedFields);
+		}
+
+		/**
+		 * @return the fields annotated with {@code @Asset} declared by this
+		 *         class
+		 */
+		public List<AssetField> getAssetFields() {
+			return Collections.unmodifiableList(assetFields);
+		}
+
+		/**
+		 * @return the public constructor annotated with {@code @Inject} or
+		 *         {@code null} if there is none
+		 */
+		public @Nullable InjectableConstructor getInjectableConstructor() {
+			return injectableConstructor;
+		}
+	}
+
+	public static final class SubscriberMethod {
+		private final String name;
+		private final String eventClassName;
+		private final String threadMode;
+		private final int priority;
+
+		private SubscriberMethod(String name, String eventClassName,
+				String threadMode, int priority) {
+			this.name = name;
+			this.eventClassName = eventClassName;
+			this.threadMode = threadMode;
+			this.priority = priority;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the binary name of the method's parameter type
+		 */
+		public String getEventClassName() {
+			return eventClassName;
+		}
+
+		/**
+		 * @return the name of the {@code ThreadMode}
+		 */
+		public String getThreadMode() {
+			return threadMode;
+		}
+
+		public int getPriority() {
+			return priority;
+		}
+	}
+
+	public static final class InjectedField {
+		private final String name;
+		private final boolean reloadable;
+
+		private InjectedField(String name, boolean reloadable) {
+			this.name = name;
+			this.reloadable = reloadable;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return whether the field is annotated with {@code @Reloadable}
+		 */
+		public boolean isReloadable() {
+			return reloadable;
+		}
+	}
+
+	public static final class AssetField {
+		private final String name;
+		private final String typeClassName;
+		private final String path;
+		private final String params;
+
+		private AssetField(String name, String typeClassName, String path,
+				String params) {
+			this.name = name;
+			this.typeClassName = typeClassName;
+			this.path = path;
+			this.params = params;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the binary name of the field's type
+		 */
+		public String getTypeClassName() {
+			return typeClassName;
+		}
+
+		/**
+		 * @return the path of the asset
+		 */
+		public String getPath() {
+			return path;
+		}
+
+		/**
+		 * @return the params of the asset; an empty string if there are none
+		 */
+		public String getParams() {
+			return params;
+		}
+	}
+
+	public static final class InjectableConstructor {
+		private final String[] parameterClassNames;
+		private final boolean singleton;
+
+		private InjectableConstructor(String[] parameterClassNames,
+				boolean singleton) {
+			this.parameterClassNames = parameterClassNames;
+			this.singleton = singleton;
+		}
+
+		/**
+		 * @return the binary names of the parameter types
+		 */
+		public String[] getParameterClassNames() {
+			return parameterClassNames.clone();
+		}
+
+		/**
+		 * @return whether the constructor is annotated with
+		 *         {@code @Singleton}
+		 */
+		public boolean isSingleton() {
+			return singleton;
+		}
+	}
+
+}
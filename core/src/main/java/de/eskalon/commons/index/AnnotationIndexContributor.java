@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.index;
+
+/**
+ * Adds the annotated members of the classes of one module to the
+ * {@link AnnotationIndex}.
+ * <p>
+ * Implementations are generated by pancake's annotation processor and are
+ * discovered via {@link java.util.ServiceLoader}.
+ */
+public interface AnnotationIndexContributor {
+
+	/**
+	 * @param index
+	 *            the index to add the members to
+	 */
+	void contribute(AnnotationIndex index);
+
+}
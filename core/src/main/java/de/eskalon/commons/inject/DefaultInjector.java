@@ -16,17 +16,23 @@
 package de.eskalon.commons.inject;
 
 import java.lang.annotation.Annotation;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 import org.jspecify.annotations.Nullable;
 
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.reflect.ClassReflection;
 import com.badlogic.gdx.utils.reflect.Constructor;
-import com.badlogic.gdx.utils.reflect.Field;
 import com.badlogic.gdx.utils.reflect.ReflectionConverter;
 import com.badlogic.gdx.utils.reflect.ReflectionException;
 
@@ -36,50 +42,77 @@ import de.damios.guacamole.annotations.Beta;
 import de.damios.guacamole.gdx.log.Logger;
 import de.damios.guacamole.gdx.log.LoggerService;
 import de.damios.guacamole.gdx.reflection.ReflectionUtils;
-import de.eskalon.commons.inject.annotations.Inject;
-import de.eskalon.commons.inject.annotations.Reloadable;
+import de.eskalon.commons.inject.InjectionPlan.InjectionPoint;
+import de.eskalon.commons.inject.annotations.ScopeAnnotation;
 import de.eskalon.commons.inject.annotations.Singleton;
 import de.eskalon.commons.utils.InjectionUtils;
 
+/**
+ * The default implementation of {@link IInjector}.
+ * <p>
+ * The injector can be used by multiple threads at the same time, e.g. to
+ * construct screens on a loading thread while the render thread injects as
+ * well. Looking up bindings does not require any locks. Singletons are only
+ * created once; while a singleton is being created, other threads requesting
+ * the same type wait for it, whereas independent dependencies can be created
+ * in parallel. Bindings should be set up before the injector is used
+ * concurrently: lookups running at the same time as a binding changes may
+ * still use the old binding.
+ */
 class DefaultInjector implements IInjector {
 
 	private static final Logger LOG = LoggerService
 			.getLogger(DefaultInjector.class);
 
-	private final HashMap<Class<?>, Class<?>> links = new HashMap<>();
-	private final HashMap<Class<?>, Object> singletonInstances = new HashMap<>();
-	private final HashMap<Class<?>, ConstructorBinding> constructorBindings = new HashMap<>();
-	//@formatter:off
-//	private final HashMap<Class<?>, ProviderBinding> providerBindings = new HashMap<>();
-	//@formatter:on
-	private final HashMap<Class<?>, QualifiedProvider<?, ?>> qualifiedProviderInstances = new HashMap<>();
-	private final HashMap<Class<?>, QualifiedProviderBinding> qualifiedProviderBindings = new HashMap<>();
+	private final Map<Class<?>, Class<?>> links = new ConcurrentHashMap<>();
+	private final Map<Class<?>, Object> singletonInstances = new ConcurrentHashMap<>();
+	private final Map<Class<?>, ConstructorBinding> constructorBindings = new ConcurrentHashMap<>();
+	private final Map<Class<?>, Provider<?>> providerInstances = new ConcurrentHashMap<>();
+	private final Map<Class<?>, ProviderBinding> providerBindings = new ConcurrentHashMap<>();
+	private final Map<Class<?>, QualifiedProvider<?, ?>> qualifiedProviderInstances = new ConcurrentHashMap<>();
+	private final Map<Class<?>, QualifiedProviderBinding> qualifiedProviderBindings = new ConcurrentHashMap<>();
+	private final Map<Class<?>, InjectionPlan> injectionPlans = new ConcurrentHashMap<>();
+	private final Map<Class<? extends Annotation>, Scope> scopes = new ConcurrentHashMap<>();
+	/**
+	 * The cached resolutions of the requested types. Is replaced with an empty
+	 * map whenever the bindings change, so that the factories cached in the
+	 * {@linkplain InjectionPlan injection plans} are resolved anew as well.
+	 */
+	volatile Map<Class<?>, Resolution> resolutions = new ConcurrentHashMap<>();
+	/**
+	 * The instance whose dependencies are currently injected on the
+	 * respective thread.
+	 */
+	private final ThreadLocal<@Nullable InjectionTarget> injectionTarget = new ThreadLocal<>();
 
-	private boolean fallbackToConstructorReflection = false;
+	private volatile boolean fallbackToConstructorReflection = false;
 
 	@Override
 	public <T> void bindToSubclass(Class<T> clazz,
 			Class<? extends T> linkedClazz) {
 		links.put(clazz, linkedClazz);
+		invalidateResolutions();
 	}
 
 	@Override
 	public <T> void bindToInstance(Class<T> clazz, T instance) {
+		Preconditions.checkNotNull(instance);
 		singletonInstances.put(clazz, instance);
+		invalidateResolutions();
 	}
 
 	@Override
 	public <T> void bindToConstructor(Class<T> clazz) {
 		constructorBindings.put(clazz, new ConstructorBinding<>(clazz));
+		invalidateResolutions();
 	}
 
-	//@formatter:off
-//	@Override
-//	public <T> void bindToProvider(Class<T> clazz,
-//			Class<? extends Provider<T>> providerClazz) {
-//		providerBindings.put(clazz, new ProviderBinding<>(providerClazz));
-//	}
-	//@formatter:on
+	@Override
+	public <T> void bindToProvider(Class<T> clazz,
+			Class<? extends Provider<T>> providerClazz) {
+		providerBindings.put(clazz, new ProviderBinding<>(providerClazz));
+		invalidateResolutions();
+	}
 
 	@Override
 	public <T, Q extends Annotation> void bindToQualifiedProvider(
@@ -87,6 +120,15 @@ class DefaultInjector implements IInjector {
 			Class<? extends QualifiedProvider<T, Q>> qualifiedProviderClass) {
 		qualifiedProviderBindings.put(clazz, new QualifiedProviderBinding<>(
 				qualifierClazz, qualifiedProviderClass));
+		invalidateResolutions();
+	}
+
+	@Override
+	public void bindScope(Class<? extends Annotation> scopeAnnotation,
+			Scope scope) {
+		Preconditions.checkNotNull(scope);
+		scopes.put(scopeAnnotation, scope);
+		invalidateResolutions();
 	}
 
 	@Override
@@ -98,218 +140,538 @@ class DefaultInjector implements IInjector {
 	@Override
 	public <T> @Nullable T getInstance(Class<T> type,
 			com.badlogic.gdx.utils.reflect.Annotation @Nullable [] annotations) {
-		/* Linked bindings */
-		while (links.containsKey(type)) {
-			type = (Class<T>) links.get(type);
+		return (T) getFactory(resolutions, type, annotations).create();
+	}
+
+	/**
+	 * @param point
+	 * @return the instance to inject into the given field; the factory is
+	 *         cached in the injection point
+	 */
+	private @Nullable Object getInstance(InjectionPoint point) {
+		Map<Class<?>, Resolution> currentResolutions = resolutions;
+		CachedFactory cachedFactory = point.cachedFactory;
+
+		if (cachedFactory == null
+				|| cachedFactory.resolutions != currentResolutions) {
+			cachedFactory = new CachedFactory(currentResolutions,
+					getFactory(currentResolutions, point.field.getType(),
+							point.annotations));
+			point.cachedFactory = cachedFactory;
+		}
+		return cachedFactory.factory.create();
+	}
+
+	/**
+	 * @param resolutions
+	 *            the resolutions to use; is passed explicitly, so that a
+	 *            resolution based on outdated bindings is never added to a
+	 *            newer map
+	 * @param type
+	 *            the requested type
+	 * @param annotations
+	 *            the annotations of the field the instance is injected into
+	 * @return the cached factory for the given type and the qualifier among
+	 *         the given annotations
+	 */
+	private InstanceFactory getFactory(
+			Map<Class<?>, Resolution> resolutions, Class<?> type,
+			com.badlogic.gdx.utils.reflect.Annotation @Nullable [] annotations) {
+		Resolution resolution = resolutions.get(type);
+		if (resolution == null) {
+			resolution = resolutions.computeIfAbsent(type,
+					t -> new Resolution(resolveLinkedType(t)));
+		}
+
+		if (resolution.qualifierClass != null && annotations != null) {
+			for (com.badlogic.gdx.utils.reflect.Annotation a : annotations) {
+				if (a.getAnnotationType() == resolution.qualifierClass) {
+					Resolution r = resolution;
+					return resolution.qualifiedFactories.computeIfAbsent(
+							a.getAnnotation(resolution.qualifierClass),
+							q -> compileFactory(r.resolvedType, q));
+				}
+			}
+
+			LOG.trace(
+					"The qualified provider for type '%s' was skipped since no matching qualifier ('@%s') was present on the field.",
+					resolution.resolvedType,
+					resolution.qualifierClass.getSimpleName());
 		}
 
+		return resolution.factory;
+	}
+
+	/**
+	 * @param type
+	 * @return the type the given type is linked to (see
+	 *         {@link #bindToSubclass(Class, Class)})
+	 */
+	private Class<?> resolveLinkedType(Class<?> type) {
+		Class<?> linkedType;
+		while ((linkedType = links.get(type)) != null) {
+			type = linkedType;
+		}
+		return type;
+	}
+
+	/**
+	 * Creates a factory providing instances of the given type. Only the
+	 * bindings that apply to the type are checked, in the order in which
+	 * {@link #getInstance(Class, com.badlogic.gdx.utils.reflect.Annotation[])}
+	 * tries them.
+	 * 
+	 * @param type
+	 *            the resolved type
+	 * @param qualifier
+	 *            the qualifier for the qualified provider bound to the type;
+	 *            {@code null} if there is none
+	 * @return the factory
+	 */
+	private InstanceFactory compileFactory(Class<?> type,
+			@Nullable Annotation qualifier) {
 		/* Existing singleton */
-		T value = (T) singletonInstances.get(type);
+		Object singleton = singletonInstances.get(type);
+		if (singleton != null)
+			return () -> singleton;
 
-		if (value != null)
-			return value;
+		List<InstanceFactory> factories = new ArrayList<>(4);
 
 		/* Constructor bindings */
 		ConstructorBinding constructorBinding = constructorBindings.get(type);
-		if (constructorBinding != null) {
-			value = InjectionUtils.createInstanceViaConstructor(this,
-					constructorBinding.classConstructor);
+		if (constructorBinding != null)
+			factories.add(scoped(type, constructorBinding.scopeAnnotation,
+					() -> createViaConstructorBinding(type,
+							constructorBinding)));
 
-			if (value != null) {
-				injectMembers(value);
+		/* Provider bindings */
+		ProviderBinding providerBinding = providerBindings.get(type);
+		if (providerBinding != null)
+			factories.add(scoped(type, providerBinding.scopeAnnotation,
+					() -> createViaProvider(type, providerBinding)));
 
-				if (constructorBinding.isSingleton)
-					singletonInstances.put(type, value);
+		/* Qualified provider bindings */
+		QualifiedProviderBinding qualifiedProviderBinding = qualifier != null
+				? qualifiedProviderBindings.get(type)
+				: null;
+		if (qualifiedProviderBinding != null)
+			factories.add(() -> createViaQualifiedProvider(type,
+					qualifiedProviderBinding, qualifier));
 
-				return value;
+		/* Constructor reflection fallback */
+		if (fallbackToConstructorReflection)
+			factories.add(() -> createViaReflection(type));
+
+		InstanceFactory[] chain = factories
+				.toArray(new InstanceFactory[factories.size()]);
+		boolean isSingleton = (constructorBinding != null
+				&& constructorBinding.isSingleton)
+				|| (providerBinding != null && providerBinding.isSingleton)
+				|| (qualifiedProviderBinding != null
+						&& qualifiedProviderBinding.isSingleton);
+		return () -> {
+			// The singleton may have been created after this factory was
+			// compiled; checking for it here, without taking the binding's
+			// lock, means that the resolutions do not have to be
+			// invalidated whenever a singleton is created
+			if (isSingleton) {
+				Object s = singletonInstances.get(type);
+				if (s != null)
+					return s;
 			}
-		}
 
-		/* Provider bindings */
-		// TODO: Cache providers?
-		//@formatter:off
-//		ProviderBinding providerBinding = providerBindings.get(type);
-//		if (providerBinding != null) {
-//			Provider<T> provider = (Provider<T>) InjectionUtils
-//					.createInstanceViaConstructor(this,
-//							providerBinding.providerConstructor);
-//			if (provider != null) {
-//				injectMembers(provider);
-//				value = provider.provide();
-//
-//				if (value != null) {
-//					injectMembers(value);
-//
-//					if (providerBinding.isSingleton)
-//						singletonInstances.put(type, value);
-//
-//					return value;
-//				}
-//			}
-//		}
-		//@formatter:on
+			for (InstanceFactory factory : chain) {
+				Object value = factory.create();
+				if (value != null)
+					return value;
+			}
 
-		/* Qualified provider bindings */
-		if (annotations != null) {
-			QualifiedProviderBinding qualifiedProviderBinding = qualifiedProviderBindings
-					.get(type);
+			/* Dependency could not be resolved */
+			LOG.warn("The dependency '%s' could not be resolved.", type);
 
-			if (qualifiedProviderBinding != null) {
-				QualifiedProvider provider = qualifiedProviderInstances
-						.get(type);
+			return null;
+		};
+	}
 
-				if (provider == null) {
-					// Create & cache provider
-					provider = (QualifiedProvider) InjectionUtils
-							.createInstanceViaConstructor(this,
-									qualifiedProviderBinding.providerConstructor);
+	/**
+	 * @param type
+	 * @param scopeAnnotation
+	 *            the scope annotation of the binding; {@code null} if there is
+	 *            none
+	 * @param factory
+	 *            creates new instances of the type
+	 * @return a factory retrieving the instances from the respective scope
+	 */
+	@SuppressWarnings("unchecked")
+	private InstanceFactory scoped(Class<?> type,
+			@Nullable Class<? extends Annotation> scopeAnnotation,
+			InstanceFactory factory) {
+		if (scopeAnnotation == null)
+			return factory;
+
+		Scope scope = scopes.get(scopeAnnotation);
+		if (scope == null) {
+			LOG.warn(
+					"No scope is bound to '@%s'; the instances of '%s' are not cached.",
+					scopeAnnotation.getSimpleName(), type.getSimpleName());
+			return factory;
+		}
 
-					if (provider != null) {
-						injectMembers(provider);
+		Class<Object> t = (Class<Object>) type;
+		return () -> scope.scope(t, factory::create);
+	}
 
-						// There is no point in caching the provider if it
-						// provided a singleton
-						if (!qualifiedProviderBinding.isSingleton)
-							qualifiedProviderInstances.put(type, provider);
-					}
-				}
+	private @Nullable Object createViaConstructorBinding(Class<?> type,
+			ConstructorBinding constructorBinding) {
+		if (!constructorBinding.isSingleton)
+			return createViaConstructor(constructorBinding.classConstructor,
+					constructorBinding.scopeAnnotation);
+
+		// The lock guarantees that a singleton is only created once, even if
+		// multiple threads request it at the same time. As each type has its
+		// own binding, singletons of different types can be created in
+		// parallel
+		synchronized (constructorBinding) {
+			Object singleton = singletonInstances.get(type);
+			if (singleton != null)
+				return singleton;
+
+			Object value = createViaConstructor(
+					constructorBinding.classConstructor,
+					constructorBinding.scopeAnnotation);
+			if (value != null)
+				addSingleton(type, value);
+			return value;
+		}
+	}
 
-				if (provider != null) {
-					// Retrieve qualifier
-					Annotation qualifier = null;
-					for (com.badlogic.gdx.utils.reflect.Annotation a : annotations) {
-						if (a.getAnnotationType().equals(
-								qualifiedProviderBinding.qualifierClass)) {
-							qualifier = a.getAnnotation(
-									qualifiedProviderBinding.qualifierClass);
-							break;
-						}
-					}
+	private @Nullable Object createViaConstructor(Constructor constructor,
+			@Nullable Class<? extends Annotation> scopeAnnotation) {
+		InjectionTarget previousTarget = injectionTarget.get();
+		injectionTarget.set(new InjectionTarget(
+				constructor.getDeclaringClass(), scopeAnnotation));
+		try {
+			Object value = InjectionUtils.createInstanceViaConstructor(this,
+					constructor);
+
+			if (value != null)
+				injectMembers0(value);
+			return value;
+		} finally {
+			injectionTarget.set(previousTarget);
+		}
+	}
 
-					// Call provider
-					if (qualifier != null) {
-						value = (T) provider.provide(qualifier);
+	private @Nullable Object createViaProvider(Class<?> type,
+			ProviderBinding providerBinding) {
+		if (!providerBinding.isSingleton) {
+			Provider provider = providerInstances.get(type);
+
+			if (provider == null) {
+				// Create & cache provider
+				provider = (Provider) createProvider(
+						providerBinding.providerConstructor);
+				if (provider == null)
+					return null;
+
+				Provider existingProvider = providerInstances.putIfAbsent(type,
+						provider);
+				if (existingProvider != null)
+					provider = existingProvider;
+			}
 
-						if (value != null) {
-							injectMembers(value);
+			return provide(provider, providerBinding.scopeAnnotation);
+		}
 
-							if (qualifiedProviderBinding.isSingleton)
-								singletonInstances.put(type, value);
+		// See #createViaConstructorBinding(...) for the lock
+		synchronized (providerBinding) {
+			Object singleton = singletonInstances.get(type);
+			if (singleton != null)
+				return singleton;
 
-							return value;
-						}
-					} else {
-						LOG.trace(
-								"The qualified provider for type '%s' was skipped since no matching qualifier ('@%s') was present on the field.",
-								type, qualifiedProviderBinding.qualifierClass
-										.getSimpleName());
-					}
-				}
-			}
+			Provider provider = (Provider) createProvider(
+					providerBinding.providerConstructor);
+			if (provider == null)
+				return null;
+
+			Object value = provide(provider, providerBinding.scopeAnnotation);
+			if (value != null)
+				addSingleton(type, value);
+			return value;
 		}
+	}
 
-		/* Constructor reflection fallback */
-		if (fallbackToConstructorReflection) {
-			value = ReflectionUtils.newInstanceOrNull(type);
-
-			if (value != null) {
-				// NOTE: don't try to inject the value's members in this case;
-				// the class would have been registered if it expected field
-				// injection to happen
-				LOG.trace("Falling back to constructor reflection for type %s",
-						type);
-				return value;
+	private @Nullable Object createViaQualifiedProvider(Class<?> type,
+			QualifiedProviderBinding qualifiedProviderBinding,
+			Annotation qualifier) {
+		if (!qualifiedProviderBinding.isSingleton) {
+			QualifiedProvider provider = qualifiedProviderInstances.get(type);
+
+			if (provider == null) {
+				// Create & cache provider
+				provider = (QualifiedProvider) createProvider(
+						qualifiedProviderBinding.providerConstructor);
+				if (provider == null)
+					return null;
+
+				QualifiedProvider existingProvider = qualifiedProviderInstances
+						.putIfAbsent(type, provider);
+				if (existingProvider != null)
+					provider = existingProvider;
 			}
+
+			return provide(provider, qualifier);
+		}
+
+		// There is no point in caching the provider if it provides a
+		// singleton. See #createViaConstructorBinding(...) for the lock
+		synchronized (qualifiedProviderBinding) {
+			Object singleton = singletonInstances.get(type);
+			if (singleton != null)
+				return singleton;
+
+			QualifiedProvider provider = (QualifiedProvider) createProvider(
+					qualifiedProviderBinding.providerConstructor);
+			if (provider == null)
+				return null;
+
+			Object value = provide(provider, qualifier);
+			if (value != null)
+				addSingleton(type, value);
+			return value;
+		}
+	}
+
+	private @Nullable Object createProvider(Constructor providerConstructor) {
+		return createViaConstructor(providerConstructor, null);
+	}
+
+	private @Nullable Object provide(Provider<?> provider,
+			@Nullable Class<? extends Annotation> scopeAnnotation) {
+		// Call provider
+		Object value = provider.provide();
+
+		if (value != null)
+			injectMembers(value, scopeAnnotation);
+		return value;
+	}
+
+	@SuppressWarnings("unchecked")
+	private @Nullable Object provide(QualifiedProvider provider,
+			Annotation qualifier) {
+		// Call provider
+		Object value = provider.provide(qualifier);
+
+		if (value != null)
+			injectMembers(value);
+		return value;
+	}
+
+	private @Nullable Object createViaReflection(Class<?> type) {
+		Object value = ReflectionUtils.newInstanceOrNull(type);
+
+		if (value != null) {
+			// NOTE: don't try to inject the value's members in this case;
+			// the class would have been registered if it expected field
+			// injection to happen
+			LOG.trace("Falling back to constructor reflection for type %s",
+					type);
 		}
+		return value;
+	}
 
-		/* Dependency could not be resolved */
-		LOG.warn("The dependency '%s' could not be resolved.", type);
+	private void addSingleton(Class<?> type, Object value) {
+		// The factories of singleton bindings look the singleton up
+		// themselves, so the resolutions stay valid
+		singletonInstances.put(type, value);
+	}
 
-		return null;
+	private void invalidateResolutions() {
+		resolutions = new ConcurrentHashMap<>();
 	}
 
 	@Override
 	public <T> T injectMembers(T target) {
-		Set<Class<?>> allSuperTypes = ReflectionUtils
-				.retrieveAllSuperTypes(target.getClass());
-		for (Class<?> type : allSuperTypes) {
-			for (Field field : ClassReflection.getDeclaredFields(type)) {
-				if (field.isAnnotationPresent(Inject.class)) {
-					try {
-						field.setAccessible(true);
-						Object oldValue = field.get(target);
-						if (oldValue == null) {
-							Object newValue = getInstance(field.getType(),
-									field.getDeclaredAnnotations());
-
-							if (newValue == null) {
-								if (LoggerService.isErrorEnabled())
-									LOG.error(
-											"Unable to inject dependency of type '%s' into '%s#%s' (annotated with: %s). The dependency could not be resolved.",
-											field.getType().getSimpleName(),
-											type.getSimpleName(),
-											field.getName(),
-											Arrays.stream(field
-													.getDeclaredAnnotations())
-													.map(a -> "@" + a
-															.getAnnotationType()
-															.getSimpleName())
-													.collect(Collectors
-															.joining(", ")));
-								continue;
-							}
-							field.set(target, newValue);
-						} else {
-							LOG.debug(
-									"Field '%s' of '%s' is already set to '%s'. As a consequence, no value was injected.",
-									field.getName(), target, oldValue);
-						}
-					} catch (ReflectionException e) {
-						LOG.error(
-								"Error while injecting a value for '%s' into '%s': %s",
-								field.getName(), target,
-								Exceptions.getStackTraceAsString(e));
+		return injectMembers(target, null);
+	}
+
+	/**
+	 * @param <T>
+	 * @param target
+	 * @param scopeAnnotation
+	 *            the scope annotation of the binding the target was created
+	 *            for; {@code null} if there is none
+	 * @return the provided target
+	 */
+	private <T> T injectMembers(T target,
+			@Nullable Class<? extends Annotation> scopeAnnotation) {
+		InjectionTarget previousTarget = injectionTarget.get();
+		injectionTarget
+				.set(new InjectionTarget(target.getClass(), scopeAnnotation));
+		try {
+			injectMembers0(target);
+		} finally {
+			injectionTarget.set(previousTarget);
+		}
+		return target;
+	}
+
+	private void injectMembers0(Object target) {
+		for (InjectionPoint point : getInjectionPlan(target.getClass())
+				.getInjectionPoints()) {
+			try {
+				Object oldValue = point.get(target);
+				if (oldValue == null) {
+					Object newValue = getInstance(point);
+
+					if (newValue == null) {
+						if (LoggerService.isErrorEnabled())
+							LOG.error(
+									"Unable to inject dependency of type '%s' into '%s#%s' (annotated with: %s). The dependency could not be resolved.",
+									point.field.getType().getSimpleName(),
+									point.declaringClass.getSimpleName(),
+									point.field.getName(),
+									point.getAnnotationNames());
+						continue;
 					}
+					point.set(target, newValue);
+				} else {
+					LOG.debug(
+							"Field '%s' of '%s' is already set to '%s'. As a consequence, no value was injected.",
+							point.field.getName(), target, oldValue);
 				}
+			} catch (ReflectionException e) {
+				LOG.error(
+						"Error while injecting a value for '%s' into '%s': %s",
+						point.field.getName(), target,
+						Exceptions.getStackTraceAsString(e));
 			}
 		}
-
-		return target;
-
 	}
 
 	@Beta
 	@Override
 	public void reloadMembers(Object target) {
-		Set<Class<?>> allSuperTypes = ReflectionUtils
-				.retrieveAllSuperTypes(target.getClass());
-		for (Class<?> type : allSuperTypes) {
-			for (Field field : ClassReflection.getDeclaredFields(type)) {
-				if (field.isAnnotationPresent(Inject.class)
-						&& field.isAnnotationPresent(Reloadable.class)) {
-					try {
-						field.setAccessible(true);
-
-						Object oldValue = field.get(target);
-						if (oldValue != null && oldValue instanceof Disposable)
-							((Disposable) oldValue).dispose();
-
-						field.set(target, getInstance(field.getType(),
-								field.getDeclaredAnnotations()));
-					} catch (ReflectionException e) {
-						LOG.error(
-								"Error while injecting a value for '%s' into '%s': %s",
-								field.getName(), target,
-								Exceptions.getStackTraceAsString(e));
-					}
-				}
+		InjectionTarget previousTarget = injectionTarget.get();
+		injectionTarget.set(new InjectionTarget(target.getClass(), null));
+		try {
+			reloadMembers0(target);
+		} finally {
+			injectionTarget.set(previousTarget);
+		}
+	}
+
+	private void reloadMembers0(Object target) {
+		for (InjectionPoint point : getInjectionPlan(target.getClass())
+				.getReloadableInjectionPoints()) {
+			try {
+				Object oldValue = point.get(target);
+				if (oldValue != null && oldValue instanceof Disposable)
+					((Disposable) oldValue).dispose();
+
+				point.set(target, getInstance(point));
+			} catch (ReflectionException e) {
+				LOG.error(
+						"Error while injecting a value for '%s' into '%s': %s",
+						point.field.getName(), target,
+						Exceptions.getStackTraceAsString(e));
 			}
 		}
 	}
 
+	/**
+	 * Returns the type of the instance whose dependencies are currently
+	 * injected on the calling thread, i.e. whose constructor parameters or
+	 * members are resolved. Providers can use this to tell which instance they
+	 * provide for.
+	 * 
+	 * @return the type; {@code null} if no dependencies are injected at the
+	 *         moment
+	 */
+	public @Nullable Class<?> getInjectionTarget() {
+		InjectionTarget target = injectionTarget.get();
+		return target != null ? target.type : null;
+	}
+
+	/**
+	 * @return the {@linkplain ScopeAnnotation scope annotation} of the binding
+	 *         the {@linkplain #getInjectionTarget() injection target} was
+	 *         created for; {@code null} if there is none or if no
+	 *         dependencies are injected at the moment
+	 */
+	public @Nullable Class<? extends Annotation> getInjectionTargetScope() {
+		InjectionTarget target = injectionTarget.get();
+		return target != null ? target.scopeAnnotation : null;
+	}
+
+	/**
+	 * @param clazz
+	 * @return the cached injection plan for the given class
+	 */
+	private InjectionPlan getInjectionPlan(Class<?> clazz) {
+		return injectionPlans.computeIfAbsent(clazz, InjectionPlan::create);
+	}
+
+	@Override
+	public List<String> validateBindings() {
+		DependencyGraph graph = new DependencyGraph();
+
+		List<String> problems = new ArrayList<>(graph.cycles);
+		problems.addAll(graph.unresolvableDependencies);
+		return problems;
+	}
+
+	@Override
+	public CompletableFuture<Void> createSingletons(
+			@Nullable Executor executor) {
+		DependencyGraph graph = new DependencyGraph();
+
+		Preconditions.checkState(graph.cycles.isEmpty(),
+				"The singletons cannot be created: "
+						+ String.join(" ", graph.cycles));
+		for (String problem : graph.unresolvableDependencies)
+			LOG.warn(problem);
+
+		// The graph is in topological order, i.e. the dependencies of a type
+		// always come before the type itself
+		Map<Class<?>, CompletableFuture<Void>> futures = new HashMap<>();
+		for (Entry<Class<?>, Set<Class<?>>> e : graph.dependencies
+				.entrySet()) {
+			Class<?> type = e.getKey();
+			ConstructorBinding constructorBinding = constructorBindings
+					.get(type);
+			ProviderBinding providerBinding = providerBindings.get(type);
+			boolean isSingleton = constructorBinding != null
+					? constructorBinding.isSingleton
+					: providerBinding != null && providerBinding.isSingleton;
+			Runnable task = isSingleton ? () -> getInstance(type) : () -> {
+				// nothing to create, but its dependencies have to be created
+				// beforehand nonetheless
+			};
+
+			if (executor == null) {
+				task.run();
+				continue;
+			}
+
+			CompletableFuture<?>[] dependencyFutures = new CompletableFuture<?>[e
+					.getValue().size()];
+			int i = 0;
+			for (Class<?> dependency : e.getValue())
+				dependencyFutures[i++] = futures.get(dependency);
+
+			futures.put(type, CompletableFuture.allOf(dependencyFutures)
+					.thenRunAsync(task, executor));
+		}
+
+		return CompletableFuture.allOf(futures.values()
+				.toArray(new CompletableFuture<?>[futures.size()]));
+	}
+
 	public void setFallbackToConstructorReflection(
 			boolean fallbackToConstructorReflection) {
 		this.fallbackToConstructorReflection = fallbackToConstructorReflection;
+		invalidateResolutions();
 	}
 
 	@Override
@@ -317,21 +679,232 @@ class DefaultInjector implements IInjector {
 		links.clear();
 		singletonInstances.clear();
 		constructorBindings.clear();
-		//@formatter:off
-//		providerBindings.clear();
-		//@formatter:on
+		providerInstances.clear();
+		providerBindings.clear();
 		qualifiedProviderInstances.clear();
 		qualifiedProviderBindings.clear();
+		injectionPlans.clear();
+		scopes.clear();
+		invalidateResolutions();
 
 		fallbackToConstructorReflection = false;
 	}
 
+	/**
+	 * The dependency graph spanned by the constructor and qualified provider
+	 * bindings. Is built via a depth-first search starting at each bound type.
+	 */
+	private class DependencyGraph {
+		/**
+		 * The bound types together with the bound types they directly depend
+		 * on. Is in topological order, unless there are {@linkplain #cycles
+		 * cycles}.
+		 */
+		private final Map<Class<?>, Set<Class<?>>> dependencies = new LinkedHashMap<>();
+		/**
+		 * The types on the path currently being visited.
+		 */
+		private final Set<Class<?>> path = new LinkedHashSet<>();
+		private final List<String> cycles = new ArrayList<>();
+		private final List<String> unresolvableDependencies = new ArrayList<>();
+
+		DependencyGraph() {
+			for (Class<?> type : constructorBindings.keySet())
+				visit(type);
+			for (Class<?> type : providerBindings.keySet())
+				visit(type);
+			for (Class<?> type : qualifiedProviderBindings.keySet())
+				visit(type);
+		}
+
+		private void visit(Class<?> type) {
+			if (dependencies.containsKey(type))
+				return;
+
+			if (!path.add(type)) {
+				cycles.add(describeCycle(type));
+				return;
+			}
+
+			Set<Class<?>> typeDependencies = new LinkedHashSet<>();
+			ConstructorBinding constructorBinding = constructorBindings
+					.get(type);
+			ProviderBinding providerBinding = providerBindings.get(type);
+			if (constructorBinding != null) {
+				addDependencies(constructorBinding.classConstructor,
+						typeDependencies);
+			} else {
+				// The provider as well as the provided instances get their
+				// members injected
+				Constructor providerConstructor = providerBinding != null
+						? providerBinding.providerConstructor
+						: qualifiedProviderBindings
+								.get(type).providerConstructor;
+				addDependencies(providerConstructor, typeDependencies);
+				addDependencies(providerConstructor.getDeclaringClass(),
+						typeDependencies);
+			}
+			addDependencies(type, typeDependencies);
+
+			path.remove(type);
+			dependencies.put(type, typeDependencies);
+		}
+
+		private void addDependencies(Constructor constructor,
+				Set<Class<?>> typeDependencies) {
+			// See InjectionUtils#createInstanceViaConstructor(...) as to why
+			// the parameters do not have any annotations
+			for (Class<?> parameterType : constructor.getParameterTypes()) {
+				addDependency(parameterType, null, "the constructor of '"
+						+ constructor.getDeclaringClass().getSimpleName() + "'",
+						typeDependencies);
+			}
+		}
+
+		private void addDependencies(Class<?> clazz,
+				Set<Class<?>> typeDependencies) {
+			for (InjectionPoint point : getInjectionPlan(clazz)
+					.getInjectionPoints()) {
+				addDependency(point.field.getType(), point.annotations,
+						"'" + point.declaringClass.getSimpleName() + "#"
+								+ point.field.getName() + "'",
+						typeDependencies);
+			}
+		}
+
+		/**
+		 * Checks whether the given dependency can be resolved. Mirrors the
+		 * order in which {@link #compileFactory(Class, Annotation)} tries the
+		 * bindings.
+		 */
+		private void addDependency(Class<?> type,
+				com.badlogic.gdx.utils.reflect.Annotation @Nullable [] annotations,
+				String requiredBy, Set<Class<?>> typeDependencies) {
+			Class<?> resolvedType = resolveLinkedType(type);
+
+			if (singletonInstances.containsKey(resolvedType))
+				return;
+
+			QualifiedProviderBinding qualifiedProviderBinding = qualifiedProviderBindings
+					.get(resolvedType);
+			if (constructorBindings.containsKey(resolvedType)
+					|| providerBindings.containsKey(resolvedType)
+					|| (qualifiedProviderBinding != null && hasQualifier(
+							annotations,
+							qualifiedProviderBinding.qualifierClass))) {
+				visit(resolvedType);
+				typeDependencies.add(resolvedType);
+				return;
+			}
+
+			if (fallbackToConstructorReflection
+					&& hasNoArgsConstructor(resolvedType))
+				return;
+
+			unresolvableDependencies.add(String.format(
+					"The dependency '%s' of %s could not be resolved.",
+					type.getSimpleName(), requiredBy));
+		}
+
+		private String describeCycle(Class<?> type) {
+			StringBuilder builder = new StringBuilder();
+			boolean inCycle = false;
+			for (Class<?> t : path) {
+				if (t == type)
+					inCycle = true;
+				if (inCycle)
+					builder.append(t.getSimpleName()).append(" -> ");
+			}
+			builder.append(type.getSimpleName());
+
+			return "The dependencies of '" + type.getSimpleName()
+					+ "' form a cycle: " + builder + ".";
+		}
+	}
+
+	private static boolean hasQualifier(
+			com.badlogic.gdx.utils.reflect.Annotation @Nullable [] annotations,
+			Class<? extends Annotation> qualifierClass) {
+		if (annotations != null) {
+			for (com.badlogic.gdx.utils.reflect.Annotation a : annotations) {
+				if (a.getAnnotationType() == qualifierClass)
+					return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean hasNoArgsConstructor(Class<?> type) {
+		try {
+			ClassReflection.getDeclaredConstructor(type);
+			return true;
+		} catch (ReflectionException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Provides the instances for a specific binding.
+	 */
+	@FunctionalInterface
+	interface InstanceFactory {
+		/**
+		 * @return the instance or {@code null} if the dependency could not be
+		 *         resolved
+		 */
+		@Nullable
+		Object create();
+	}
+
+	/**
+	 * A factory cached in an {@link InjectionPoint}, together with the
+	 * resolutions it was obtained from.
+	 */
+	static final class CachedFactory {
+		private final Map<Class<?>, Resolution> resolutions;
+		private final InstanceFactory factory;
+
+		private CachedFactory(Map<Class<?>, Resolution> resolutions,
+				InstanceFactory factory) {
+			this.resolutions = resolutions;
+			this.factory = factory;
+		}
+	}
+
+	/**
+	 * The cached resolution of a requested type.
+	 */
+	private class Resolution {
+		private final Class<?> resolvedType;
+		/**
+		 * The qualifier of the qualified provider bound to the resolved type;
+		 * {@code null} if there is no such binding.
+		 */
+		private final @Nullable Class<? extends Annotation> qualifierClass;
+		/**
+		 * The factory used if no qualifier is given.
+		 */
+		private final InstanceFactory factory;
+		private final Map<Annotation, InstanceFactory> qualifiedFactories = new ConcurrentHashMap<>();
+
+		Resolution(Class<?> resolvedType) {
+			this.resolvedType = resolvedType;
+			QualifiedProviderBinding qualifiedProviderBinding = qualifiedProviderBindings
+					.get(resolvedType);
+			this.qualifierClass = qualifiedProviderBinding != null
+					? qualifiedProviderBinding.qualifierClass
+					: null;
+			this.factory = compileFactory(resolvedType, null);
+		}
+	}
+
 	/*
 	 * BINDING CLASSES
 	 */
 	public class ConstructorBinding<T> {
-		private Constructor classConstructor;
-		private boolean isSingleton = false;
+		private final Constructor classConstructor;
+		private final boolean isSingleton;
+		private final @Nullable Class<? extends Annotation> scopeAnnotation;
 
 		ConstructorBinding(Class<?> clazz) {
 			java.lang.reflect.Constructor c = InjectionUtils
@@ -344,33 +917,46 @@ class DefaultInjector implements IInjector {
 					+ "' does not have a no-args constructor nor one annotated with @Inject!");
 
 			this.isSingleton = c.isAnnotationPresent(Singleton.class);
+			this.scopeAnnotation = InjectionUtils.getScopeAnnotation(c);
 		}
 	}
 
-	//@formatter:off
-//	public class ProviderBinding<T> {
-//		private Constructor providerConstructor;
-//		private boolean isSingleton = false;
-//
-//		ProviderBinding(Class<? extends Provider<T>> providerClazz) {
-//			java.lang.reflect.Constructor c = InjectionUtils
-//					.getInjectableConstrcutor(providerClazz, true);
-//			this.providerConstructor = ReflectionConverter
-//					.convertConstructorObject(c);
-//			this.isSingleton = InjectionUtils
-//					.isMethodAnnotatedWithSingleton(providerClazz, "provide");
-//
-//			Preconditions.checkArgument(c != null, "Class "
-//					+ providerClazz.getSimpleName()
-//					+ " does not have a constructor annotated with @Inject nor a zero-args one!");
-//		}
-//	}
-	//@formatter:on
+	public class ProviderBinding<T> {
+		private final Constructor providerConstructor;
+		private final boolean isSingleton;
+		private final @Nullable Class<? extends Annotation> scopeAnnotation;
+
+		ProviderBinding(Class<? extends Provider<T>> providerClazz) {
+			java.lang.reflect.Constructor c = InjectionUtils
+					.getInjectableConstructor(providerClazz, true);
+			this.providerConstructor = ReflectionConverter
+					.convertConstructorObject(c);
+			this.isSingleton = InjectionUtils
+					.isMethodAnnotatedWithSingleton(providerClazz, "provide");
+			this.scopeAnnotation = InjectionUtils
+					.getMethodScopeAnnotation(providerClazz, "provide");
+
+			Preconditions.checkArgument(c != null, "Class '"
+					+ providerClazz.getSimpleName()
+					+ "' does not have a constructor annotated with @Inject nor a zero-args one!");
+		}
+	}
+
+	private static class InjectionTarget {
+		private final Class<?> type;
+		private final @Nullable Class<? extends Annotation> scopeAnnotation;
+
+		InjectionTarget(Class<?> type,
+				@Nullable Class<? extends Annotation> scopeAnnotation) {
+			this.type = type;
+			this.scopeAnnotation = scopeAnnotation;
+		}
+	}
 
 	public class QualifiedProviderBinding<T, Q extends Annotation> {
-		private Class<Q> qualifierClass;
-		private Constructor providerConstructor;
-		private boolean isSingleton = false;
+		private final Class<Q> qualifierClass;
+		private final Constructor providerConstructor;
+		private final boolean isSingleton;
 
 		QualifiedProviderBinding(Class<Q> qualifierClazz,
 				Class<? extends QualifiedProvider<T, Q>> providerClazz) {
@@ -15,18 +15,30 @@
 
 package de.eskalon.commons.inject;
 
+import org.jspecify.annotations.Nullable;
+
 public class EskalonInjector extends DefaultInjector {
 
-	private static EskalonInjector instance;
+	private static volatile @Nullable EskalonInjector instance;
 
+	/**
+	 * @return the injector instance; can safely be called from any thread
+	 */
 	public static EskalonInjector instance() {
-		if (instance == null)
-			instance = new EskalonInjector();
-		return instance;
+		EskalonInjector injector = instance;
+		if (injector == null) {
+			synchronized (EskalonInjector.class) {
+				injector = instance;
+				if (injector == null)
+					instance = injector = new EskalonInjector();
+			}
+		}
+		return injector;
 	}
 
-	public static void reset() {
-		instance.clear();
+	public static synchronized void reset() {
+		if (instance != null)
+			instance.clear();
 		instance = null;
 	}
 
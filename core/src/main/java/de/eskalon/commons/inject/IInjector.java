@@ -16,12 +16,17 @@
 package de.eskalon.commons.inject;
 
 import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import org.jspecify.annotations.Nullable;
 
 import de.damios.guacamole.annotations.Beta;
 import de.eskalon.commons.inject.annotations.Inject;
 import de.eskalon.commons.inject.annotations.Qualifier;
+import de.eskalon.commons.inject.annotations.ScopeAnnotation;
 
 public interface IInjector {
 
@@ -58,15 +63,16 @@ public interface IInjector {
 	/**
 	 * Bind {@code clazz} to a {@link Provider} which is responsible for
 	 * supplying the necessary instances.
+	 * <p>
+	 * The provider needs to either have a no-args constructor or one annotated
+	 * with {@link Inject}.
 	 * 
 	 * @param <T>
 	 * @param clazz
 	 * @param provider
 	 */
-	//@formatter:off
-//	public <T> void bindToProvider(Class<T> clazz,
-//			Class<? extends Provider<T>> provider);
-	//@formatter:on
+	public <T> void bindToProvider(Class<T> clazz,
+			Class<? extends Provider<T>> provider);
 
 	/**
 	 * Bind {@code clazz} to a {@link QualifiedProvider} which is responsible
@@ -86,6 +92,20 @@ public interface IInjector {
 			Class<T> clazz, Class<Q> qualifierClazz,
 			Class<? extends QualifiedProvider<T, Q>> qualifiedProviderClass);
 
+	/**
+	 * Bind a {@linkplain ScopeAnnotation scope annotation} to the
+	 * {@link Scope} that controls the lifetime of the instances of bindings
+	 * annotated with it. Bindings that are annotated with a scope annotation
+	 * that is not bound create a new instance every time.
+	 * <p>
+	 * Scopes are not supported for {@link QualifiedProvider}s.
+	 * 
+	 * @param scopeAnnotation
+	 * @param scope
+	 */
+	public void bindScope(Class<? extends Annotation> scopeAnnotation,
+			Scope scope);
+
 	/**
 	 * Retrieve an instance of {@code type}. {@code annotations} are the
 	 * annotations for the field/parameter the dependency should get injected
@@ -123,6 +143,51 @@ public interface IInjector {
 	@Beta
 	public void reloadMembers(Object target);
 
+	/**
+	 * Validates the dependency graph spanned by the registered bindings. The
+	 * dependencies of all bound types, i.e. their constructor parameters and
+	 * their fields annotated with {@link Inject}, are checked for ones that
+	 * cannot be resolved and for ones that (indirectly) depend on themselves.
+	 * <p>
+	 * Otherwise, such problems only show up once an instance of the affected
+	 * type is requested. Injectors that do not override this method do not
+	 * validate anything.
+	 * 
+	 * @return a description of each problem that was found; empty if there are
+	 *         none
+	 */
+	public default List<String> validateBindings() {
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Creates all singletons bound via {@link #bindToConstructor(Class)} or
+	 * {@link #bindToProvider(Class, Class)} that do not exist yet, instead of
+	 * creating them on first use. The bindings are
+	 * {@linkplain #validateBindings() validated} beforehand; dependencies that
+	 * cannot be resolved are logged.
+	 * <p>
+	 * If an executor is given, independent singletons are created in parallel,
+	 * e.g. on a worker pool while the splash screen is shown. Each singleton is
+	 * only created after its dependencies, so no worker is blocked waiting for
+	 * another one. Singletons that require the GL context must not be created
+	 * this way.
+	 * <p>
+	 * Injectors that do not override this method keep creating their
+	 * singletons on first use.
+	 * 
+	 * @param executor
+	 *            the executor used to create the singletons; if {@code null},
+	 *            they are created on the calling thread
+	 * @return a future that is completed once all singletons were created
+	 * @throws IllegalStateException
+	 *             if the dependencies of a binding form a cycle
+	 */
+	public default CompletableFuture<Void> createSingletons(
+			@Nullable Executor executor) {
+		return CompletableFuture.completedFuture(null);
+	}
+
 	public void clear();
 
 }
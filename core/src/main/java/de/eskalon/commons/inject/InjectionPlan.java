@@ -0,0 +1,272 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.inject;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.jspecify.annotations.Nullable;
+
+import com.badlogic.gdx.utils.reflect.Annotation;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.Field;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+
+import de.damios.guacamole.annotations.GwtIncompatible;
+import de.damios.guacamole.gdx.log.Logger;
+import de.damios.guacamole.gdx.log.LoggerService;
+import de.damios.guacamole.gdx.reflection.ReflectionUtils;
+import de.eskalon.commons.index.AnnotationIndex;
+import de.eskalon.commons.index.AnnotationIndex.IndexedClass;
+import de.eskalon.commons.index.AnnotationIndex.InjectedField;
+import de.eskalon.commons.inject.DefaultInjector.CachedFactory;
+import de.eskalon.commons.inject.annotations.Inject;
+import de.eskalon.commons.inject.annotations.Reloadable;
+
+/**
+ * The fields of a class that are injected by the {@link DefaultInjector}.
+ * <p>
+ * A plan is created once per class, so that the fields annotated with
+ * {@link Inject} do not have to be looked up via reflection every time an
+ * object is injected. The fields are written via {@link VarHandle}s where
+ * supported.
+ */
+final class InjectionPlan {
+
+	private static final Logger LOG = LoggerService
+			.getLogger(InjectionPlan.class);
+
+	private final InjectionPoint[] injectionPoints;
+	private final InjectionPoint[] reloadableInjectionPoints;
+
+	private InjectionPlan(List<InjectionPoint> injectionPoints) {
+		this.injectionPoints = injectionPoints
+				.toArray(new InjectionPoint[injectionPoints.size()]);
+		this.reloadableInjectionPoints = injectionPoints.stream()
+				.filter(p -> p.reloadable).toArray(InjectionPoint[]::new);
+	}
+
+	/**
+	 * @param clazz
+	 * @return a plan containing all fields of the given class and its super
+	 *         types that are annotated with {@link Inject}
+	 */
+	static InjectionPlan create(Class<?> clazz) {
+		List<InjectionPoint> injectionPoints = new ArrayList<>();
+		for (Class<?> type : ReflectionUtils.retrieveAllSuperTypes(clazz)) {
+			addInjectionPoints(type, injectionPoints);
+		}
+		return new InjectionPlan(injectionPoints);
+	}
+
+	/**
+	 * @return all fields that are injected
+	 */
+	InjectionPoint[] getInjectionPoints() {
+		return injectionPoints;
+	}
+
+	/**
+	 * @return the fields annotated with {@link Reloadable}
+	 */
+	InjectionPoint[] getReloadableInjectionPoints() {
+		return reloadableInjectionPoints;
+	}
+
+	/**
+	 * Adds the fields declared by the given type that are annotated with
+	 * {@link Inject}. If the type is contained in the {@link AnnotationIndex},
+	 * the fields are looked up by name instead of checking the annotations of
+	 * all declared fields.
+	 * 
+	 * @param type
+	 * @param injectionPoints
+	 */
+	private static void addInjectionPoints(Class<?> type,
+			List<InjectionPoint> injectionPoints) {
+		IndexedClass indexedClass = AnnotationIndex.instance().get(type);
+
+		if (indexedClass != null) {
+			List<InjectionPoint> indexedInjectionPoints = new ArrayList<>(
+					indexedClass.getInjectedFields().size());
+			try {
+				for (InjectedField f : indexedClass.getInjectedFields()) {
+					indexedInjectionPoints.add(createInjectionPoint(type,
+							ClassReflection.getDeclaredField(type,
+									f.getName()),
+							f.isReloadable()));
+				}
+				injectionPoints.addAll(indexedInjectionPoints);
+				return;
+			} catch (ReflectionException e) {
+				// The index is out of date (or the class was obfuscated)
+				LOG.debug(
+						"The indexed fields of '%s' could not be resolved; falling back to reflection.",
+						type.getName());
+			}
+		}
+
+		for (Field field : ClassReflection.getDeclaredFields(type)) {
+			if (field.isAnnotationPresent(Inject.class))
+				injectionPoints.add(createInjectionPoint(type, field,
+						field.isAnnotationPresent(Reloadable.class)));
+		}
+	}
+
+	private static InjectionPoint createInjectionPoint(Class<?> type,
+			Field field, boolean reloadable) {
+		field.setAccessible(true);
+
+		FieldAccessor accessor = varHandleAccessor(type, field);
+		if (accessor == null)
+			accessor = reflectiveAccessor(field);
+
+		return new InjectionPoint(type, field, reloadable, accessor);
+	}
+
+	/**
+	 * @param field
+	 *            the field; has to be accessible
+	 * @return an accessor reading and writing the given field via reflection
+	 */
+	static FieldAccessor reflectiveAccessor(Field field) {
+		return new FieldAccessor() {
+			@Override
+			public @Nullable Object get(Object target)
+					throws ReflectionException {
+				return field.get(target);
+			}
+
+			@Override
+			public void set(Object target, @Nullable Object value)
+					throws ReflectionException {
+				field.set(target, value);
+			}
+		};
+	}
+
+	/**
+	 * @param declaringClass
+	 * @param field
+	 * @return an accessor reading and writing the given field via a
+	 *         {@link VarHandle} or {@code null} if this is not supported for
+	 *         the field on this platform
+	 */
+	@GwtIncompatible
+	static @Nullable FieldAccessor varHandleAccessor(Class<?> declaringClass,
+			Field field) {
+		try {
+			java.lang.reflect.Field f = declaringClass
+					.getDeclaredField(field.getName());
+
+			// VarHandles cannot write final fields
+			if (Modifier.isFinal(f.getModifiers())
+					|| Modifier.isStatic(f.getModifiers()))
+				return null;
+
+			VarHandle handle = MethodHandles
+					.privateLookupIn(declaringClass, MethodHandles.lookup())
+					.unreflectVarHandle(f);
+
+			return new FieldAccessor() {
+				@Override
+				public @Nullable Object get(Object target) {
+					return handle.get(target);
+				}
+
+				@Override
+				public void set(Object target, @Nullable Object value)
+						throws ReflectionException {
+					try {
+						handle.set(target, value);
+					} catch (ClassCastException e) {
+						throw new ReflectionException(
+								"The value '" + value
+										+ "' cannot be assigned to the field '"
+										+ field.getName() + "'",
+								e);
+					}
+				}
+			};
+		} catch (Exception | LinkageError e) {
+			// e.g. java.lang.invoke is not supported on this platform or the
+			// declaring class is not accessible from this module
+			return null;
+		}
+	}
+
+	/**
+	 * A field annotated with {@link Inject}.
+	 */
+	static final class InjectionPoint {
+		final Class<?> declaringClass;
+		final Field field;
+		final Annotation[] annotations;
+		final boolean reloadable;
+		private final FieldAccessor accessor;
+
+		/*
+		 * The factory providing the values for this field; is replaced by the
+		 * injector whenever its bindings change.
+		 */
+		volatile @Nullable CachedFactory cachedFactory;
+
+		private InjectionPoint(Class<?> declaringClass, Field field,
+				boolean reloadable, FieldAccessor accessor) {
+			this.declaringClass = declaringClass;
+			this.field = field;
+			this.annotations = field.getDeclaredAnnotations();
+			this.reloadable = reloadable;
+			this.accessor = accessor;
+		}
+
+		@Nullable
+		Object get(Object target) throws ReflectionException {
+			return accessor.get(target);
+		}
+
+		void set(Object target, @Nullable Object value)
+				throws ReflectionException {
+			accessor.set(target, value);
+		}
+
+		/**
+		 * @return the annotations of the field, for use in log messages
+		 */
+		String getAnnotationNames() {
+			return Arrays.stream(annotations)
+					.map(a -> "@" + a.getAnnotationType().getSimpleName())
+					.collect(Collectors.joining(", "));
+		}
+	}
+
+	/**
+	 * Reads and writes the value of a field.
+	 */
+	interface FieldAccessor {
+		@Nullable
+		Object get(Object target) throws ReflectionException;
+
+		void set(Object target, @Nullable Object value)
+				throws ReflectionException;
+	}
+
+}
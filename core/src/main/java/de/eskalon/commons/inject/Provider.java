@@ -0,0 +1,37 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.inject;
+
+/**
+ * A dependency provider which is responsible for supplying the instances of a
+ * specific type.
+ * <p>
+ * If {@link #provide()} is annotated with
+ * {@link de.eskalon.commons.inject.annotations.Singleton Singleton}, it is only
+ * called once. If it is annotated with a
+ * {@linkplain de.eskalon.commons.inject.annotations.ScopeAnnotation scope
+ * annotation}, the provided instances are cached in the respective
+ * {@link Scope}.
+ * 
+ * @param <T>
+ * @see IInjector#bindToProvider(Class, Class)
+ */
+@FunctionalInterface
+public interface Provider<T> {
+
+	T provide();
+
+}
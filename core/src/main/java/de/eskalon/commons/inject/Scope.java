@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.inject;
+
+import org.jspecify.annotations.Nullable;
+
+import de.eskalon.commons.inject.annotations.ScopeAnnotation;
+
+/**
+ * Controls the lifetime of the instances of bindings annotated with a certain
+ * {@linkplain ScopeAnnotation scope annotation}. Scopes are registered via
+ * {@link IInjector#bindScope(Class, Scope)}.
+ * 
+ * @see de.eskalon.commons.screens.ScreenScope
+ */
+public interface Scope {
+
+	/**
+	 * Retrieves the instance of {@code type} belonging to the current scope.
+	 * 
+	 * @param <T>
+	 * @param type
+	 *            the bound type
+	 * @param unscoped
+	 *            creates a new instance of the type; is only called if the
+	 *            current scope does not contain one yet
+	 * @return the instance; {@code null} if it could not be created
+	 */
+	public <T> @Nullable T scope(Class<T> type, Provider<T> unscoped);
+
+}
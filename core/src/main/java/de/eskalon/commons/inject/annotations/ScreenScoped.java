@@ -0,0 +1,38 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.inject.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import de.eskalon.commons.screens.ScreenScope;
+
+/**
+ * Marks classes which should only get instantiated once per screen and
+ * disposed as soon as the screen is finalized (see {@link ScreenScope}).
+ * <p>
+ * The annotation has to be put on the class's constructor (which was annotated
+ * with {@link Inject}) or {@link de.eskalon.commons.inject.Provider#provide()}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.CONSTRUCTOR, ElementType.METHOD })
+@ScopeAnnotation
+public @interface ScreenScoped {
+}
@@ -22,6 +22,7 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 import de.eskalon.commons.inject.IInjector;
+import de.eskalon.commons.inject.Provider;
 import de.eskalon.commons.inject.QualifiedProvider;
 
 /**
@@ -29,7 +30,7 @@ import de.eskalon.commons.inject.QualifiedProvider;
  * {@link IInjector} and cached for future retrieval.
  * <p>
  * The annotation has to be put on the class's constructor (which was annotated
- * with {@link Inject}) or
+ * with {@link Inject}), {@link Provider#provide()} or
  * {@link QualifiedProvider#provide(java.lang.annotation.Annotation)}.
  */
 @Documented
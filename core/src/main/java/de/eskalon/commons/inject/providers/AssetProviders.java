@@ -30,8 +30,9 @@ import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.utils.I18NBundle;
 
 import de.damios.guacamole.gdx.assets.Text;
-import de.eskalon.commons.asset.PlaylistDefinition;
+import de.eskalon.commons.asset.AnnotationAssetManager;
 import de.eskalon.commons.asset.AnnotationAssetManager.Asset;
+import de.eskalon.commons.asset.PlaylistDefinition;
 import de.eskalon.commons.inject.IInjector;
 import de.eskalon.commons.inject.QualifiedProvider;
 import de.eskalon.commons.inject.annotations.Inject;
@@ -81,6 +82,13 @@ public class AssetProviders {
 	/*
 	 * BASE CLASS
 	 */
+	/**
+	 * Provides loaded assets. If the asset manager is an
+	 * {@link AnnotationAssetManager}, the assets are retrieved via its
+	 * {@linkplain AnnotationAssetManager#getResidencyManager() residency
+	 * manager}, so that they are loaded again if they were unloaded in the
+	 * meantime.
+	 */
 	public static abstract class AssetProvider<T>
 			implements QualifiedProvider<T, Asset> {
 		@Inject
@@ -91,6 +99,10 @@ public class AssetProviders {
 			if (asset.disabled())
 				return null;
 
+			if (assetManager instanceof AnnotationAssetManager)
+				return ((AnnotationAssetManager) assetManager)
+						.getResidencyManager().get(asset, null);
+
 			return assetManager.get(asset.value());
 		}
 	}
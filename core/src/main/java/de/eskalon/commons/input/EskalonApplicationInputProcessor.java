@@ -24,6 +24,7 @@ import de.eskalon.commons.audio.ISoundManager;
  * This input processor takes care of some basic application-wide key binds:
  * <ul>
  * <li><b>F2:</b> toggle the debug overlay</li>
+ * <li><b>F3:</b> show the next page of the debug overlay</li>
  * <li><b>F9:</b> {@linkplain ISoundManager#skipSong() skip a song}</li>
  * <li><b>F12:</b> take a screenshot</li>
  * </ul>
@@ -35,12 +36,14 @@ public class EskalonApplicationInputProcessor implements DefaultInputProcessor {
 	private boolean enabled = false;
 	public static final int takeScreenshotKey = Keys.F12;
 	public static final int toggleOverlayKey = Keys.F2;
+	public static final int nextOverlayPageKey = Keys.F3;
 	public static final int skipSongKey = Keys.F9;
 	// protected int toggleConsoleKey = Keys.BACKSLASH;
 
 	private ISoundManager soundManager;
 	private boolean takeScreenshot = false;
 	private boolean overlayEnabled = false;
+	private boolean nextOverlayPage = false;
 
 	public EskalonApplicationInputProcessor(ISoundManager soundManager) {
 		this.soundManager = soundManager;
@@ -63,6 +66,10 @@ public class EskalonApplicationInputProcessor implements DefaultInputProcessor {
 			overlayEnabled = !overlayEnabled;
 			return true;
 		}
+		if (keycode == nextOverlayPageKey && overlayEnabled) {
+			nextOverlayPage = true;
+			return true;
+		}
 
 		return false;
 	}
@@ -71,6 +78,15 @@ public class EskalonApplicationInputProcessor implements DefaultInputProcessor {
 		return overlayEnabled;
 	}
 
+	public boolean pollNextDebugOverlayPage() {
+		if (nextOverlayPage) {
+			nextOverlayPage = false;
+			return true;
+		} else {
+			return false;
+		}
+	}
+
 	public boolean pollTakeScreenshot() {
 		if (takeScreenshot) {
 			takeScreenshot = false;
@@ -15,6 +15,11 @@
 
 package de.eskalon.commons.misc;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jspecify.annotations.Nullable;
+
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
@@ -31,7 +36,15 @@ import com.badlogic.gdx.utils.viewport.Viewport;
 import de.damios.guacamole.Preconditions;
 import de.damios.guacamole.concurrent.ThreadHandler;
 import de.damios.guacamole.gdx.utils.FPSCounter;
+import de.eskalon.commons.asset.AnnotationAssetManager;
+import de.eskalon.commons.asset.AssetHotReloader;
+import de.eskalon.commons.asset.AssetResidencyManager;
+import de.eskalon.commons.asset.UploadScheduler;
 import de.eskalon.commons.audio.ISoundManager;
+import de.eskalon.commons.event.EventBus;
+import de.eskalon.commons.event.EventBusMetrics;
+import de.eskalon.commons.event.EventTypeMetrics;
+import de.eskalon.commons.event.LatencyHistogram;
 import de.eskalon.commons.utils.ColorUtils;
 import de.eskalon.commons.utils.GL32CMacIssueHandler;
 import text.formic.Stringf;
@@ -42,12 +55,16 @@ import text.formic.Stringf;
  * <p>
  * Has to be continuously {@linkplain #update(float) updated} for the FPS
  * counter to work.
+ * <p>
+ * The debug information is split into {@linkplain Page pages}, which can be
+ * cycled through via {@link #nextPage()}.
  * 
  * @author damios
  */
 public class DebugInfoRenderer {
 
 	private static int MAX_SNAPSHOT_COUNT = 2 * 20;
+	private static int MAX_EVENT_TYPE_COUNT = 15;
 
 	// Internal rendering stuff
 	private Viewport viewport;
@@ -68,6 +85,10 @@ public class DebugInfoRenderer {
 	private ISoundManager soundManager;
 	private String gameVersion;
 	private String appType;
+	private @Nullable EventBus eventBus;
+	private @Nullable AnnotationAssetManager assetManager;
+
+	private Page page = Page.GENERAL;
 
 	/**
 	 * Creates a debug info renderer.
@@ -79,6 +100,44 @@ public class DebugInfoRenderer {
 	 */
 	public DebugInfoRenderer(SpriteBatch batch, String gameVersion,
 			ISoundManager soundManager) {
+		this(batch, gameVersion, soundManager, null);
+	}
+
+	/**
+	 * Creates a debug info renderer.
+	 * 
+	 * @param batch
+	 * @param gameVersion
+	 * @param soundManager
+	 * @param eventBus
+	 *            the event bus whose metrics are shown on the
+	 *            {@linkplain Page#EVENT_BUS event bus page}
+	 * 
+	 * @see #initilaize(int, int, BitmapFont)
+	 */
+	public DebugInfoRenderer(SpriteBatch batch, String gameVersion,
+			ISoundManager soundManager, @Nullable EventBus eventBus) {
+		this(batch, gameVersion, soundManager, eventBus, null);
+	}
+
+	/**
+	 * Creates a debug info renderer.
+	 * 
+	 * @param batch
+	 * @param gameVersion
+	 * @param soundManager
+	 * @param eventBus
+	 *            the event bus whose metrics are shown on the
+	 *            {@linkplain Page#EVENT_BUS event bus page}
+	 * @param assetManager
+	 *            the asset manager whose statistics are shown on the
+	 *            {@linkplain Page#ASSETS asset page}
+	 * 
+	 * @see #initilaize(int, int, BitmapFont)
+	 */
+	public DebugInfoRenderer(SpriteBatch batch, String gameVersion,
+			ISoundManager soundManager, @Nullable EventBus eventBus,
+			@Nullable AnnotationAssetManager assetManager) {
 		this.viewport = new ScreenViewport();
 		this.batch = batch;
 
@@ -87,6 +146,8 @@ public class DebugInfoRenderer {
 				+ System.getProperty("os.name") + ")";
 		this.glProfiler = new GLProfiler(Gdx.graphics);
 		this.soundManager = soundManager;
+		this.eventBus = eventBus;
+		this.assetManager = assetManager;
 		this.fpsCounter = new FPSCounter(MAX_SNAPSHOT_COUNT);
 		this.shapeRenderer = GL32CMacIssueHandler.createShapeRenderer();
 
@@ -120,6 +181,22 @@ public class DebugInfoRenderer {
 		glProfiler.reset();
 	}
 
+	/**
+	 * Switches to the next page. When the {@linkplain Page#EVENT_BUS event bus
+	 * page} is shown for the first time, the event bus starts recording its
+	 * metrics.
+	 */
+	public void nextPage() {
+		page = Page.values()[(page.ordinal() + 1) % Page.values().length];
+
+		if (page == Page.EVENT_BUS && eventBus != null)
+			eventBus.setMetricsEnabled(true);
+	}
+
+	public Page getPage() {
+		return page;
+	}
+
 	public void resize(int width, int height) {
 		viewport.update(width, height, true);
 
@@ -142,30 +219,19 @@ public class DebugInfoRenderer {
 		 */
 		fontDrawer.reset();
 		fontDrawer.drawLine(
-				"[F2] TOGGLE DEBUG OVERLAY   /   [F9] SKIP SONG   /   [F12] TAKE SCREENSHOT")
+				"[F2] TOGGLE DEBUG OVERLAY   /   [F3] NEXT PAGE   /   [F9] SKIP SONG   /   [F12] TAKE SCREENSHOT")
 				.spacer();
 
-		// Common
-		fontDrawer.drawLine(gameVersion);
-		fontDrawer.drawLine(appType).spacer();
-
-		// GL Profiling
-		fontDrawer.drawLine("GL Calls: %s", glCalls);
-		fontDrawer.drawLine("Draw Calls: %s", drawCalls);
-		fontDrawer.drawLine("Shader Switches: %s", shaderSwitches);
-		fontDrawer.drawLine("Texture Bindings: %s", textureBindings);
-		fontDrawer.drawLine("Vertex Count: %s", vertexCount).spacer();
-
-		// Threads & Input
-		fontDrawer.drawLine("Threads in Pool: %s/%s",
-				ThreadHandler.instance().getActiveThreadCount(),
-				ThreadHandler.instance().getPoolSize());
-		fontDrawer.drawLine("Mouse Pos: (x) %s (y) %s", Gdx.input.getX(),
-				Gdx.input.getY());
-
-		// Sound
-		fontDrawer.drawLine("Music: \"%s\"",
-				soundManager.getCurrentMusicTitle(), Gdx.input.getY());
+		switch (page) {
+		case EVENT_BUS:
+			renderEventBusPage();
+			break;
+		case ASSETS:
+			renderAssetPage();
+			break;
+		default:
+			renderGeneralPage();
+		}
 
 		/*
 		 * FPS COUNT
@@ -252,6 +318,114 @@ public class DebugInfoRenderer {
 		Gdx.gl.glDisable(GL20.GL_BLEND);
 	}
 
+	private void renderGeneralPage() {
+		// Common
+		fontDrawer.drawLine(gameVersion);
+		fontDrawer.drawLine(appType).spacer();
+
+		// GL Profiling
+		fontDrawer.drawLine("GL Calls: %s", glCalls);
+		fontDrawer.drawLine("Draw Calls: %s", drawCalls);
+		fontDrawer.drawLine("Shader Switches: %s", shaderSwitches);
+		fontDrawer.drawLine("Texture Bindings: %s", textureBindings);
+		fontDrawer.drawLine("Vertex Count: %s", vertexCount).spacer();
+
+		// Threads & Input
+		fontDrawer.drawLine("Threads in Pool: %s/%s",
+				ThreadHandler.instance().getActiveThreadCount(),
+				ThreadHandler.instance().getPoolSize());
+		fontDrawer.drawLine("Mouse Pos: (x) %s (y) %s", Gdx.input.getX(),
+				Gdx.input.getY());
+
+		// Sound
+		fontDrawer.drawLine("Music: \"%s\"",
+				soundManager.getCurrentMusicTitle(), Gdx.input.getY());
+	}
+
+	private void renderEventBusPage() {
+		EventBusMetrics metrics = eventBus == null ? null
+				: eventBus.getMetrics();
+		if (metrics == null) {
+			fontDrawer.drawLine("Event bus metrics are not recorded.");
+			return;
+		}
+
+		fontDrawer.drawLine("Event Types (by handler time):").spacer();
+
+		// Ideally, we'd avoid this copy, but since this is just for debugging
+		// purposes, let's keep this simple
+		List<EventTypeMetrics> eventTypes = new ArrayList<>(
+				metrics.getEventTypeMetrics());
+		eventTypes.sort((m1, m2) -> Long.compare(m2.getHandlerTime().getTotal(),
+				m1.getHandlerTime().getTotal()));
+
+		for (int i = 0; i < Math.min(MAX_EVENT_TYPE_COUNT,
+				eventTypes.size()); i++) {
+			EventTypeMetrics m = eventTypes.get(i);
+			fontDrawer.drawLine(
+					"%s: %s posts, %s subscribers, handlers: %s ms in total (max: %s ms), queued: %s ms on average (max: %s ms), dead: %s, exceptions: %s",
+					m.getEventClass().getSimpleName(), m.getPostCount(),
+					m.getSubscriberCount(),
+					toMillis(m.getHandlerTime().getTotal()),
+					toMillis(m.getHandlerTime().getMax()),
+					toMillis(m.getQueueWaitTime().getMean()),
+					toMillis(m.getQueueWaitTime().getMax()),
+					m.getDeadEventCount(), m.getExceptionCount());
+		}
+	}
+
+	private void renderAssetPage() {
+		if (assetManager == null) {
+			fontDrawer.drawLine("No asset manager available.");
+			return;
+		}
+
+		fontDrawer.drawLine("Loaded Assets: %s",
+				assetManager.getLoadedAssets());
+		fontDrawer.drawLine("Queued Assets: %s", assetManager.getQueuedAssets())
+				.spacer();
+
+		// Residency
+		AssetResidencyManager residencyManager = assetManager
+				.getResidencyManager();
+		fontDrawer.drawLine("Resident Size: %s MB (budget: %s)",
+				toMegabytes(residencyManager.getResidentSize()),
+				residencyManager.getBudget() == Long.MAX_VALUE ? "none"
+						: toMegabytes(residencyManager.getBudget()) + " MB")
+				.spacer();
+
+		// Uploads
+		UploadScheduler uploadScheduler = assetManager.getUploadScheduler();
+		LatencyHistogram sliceTimes = uploadScheduler.getSliceTimes();
+		fontDrawer.drawLine("Pending Uploads: %s",
+				uploadScheduler.getPendingUploadCount());
+		fontDrawer.drawLine(
+				"Upload Slices: %s, %s ms on average (max: %s ms)",
+				sliceTimes.getCount(), toMillis(sliceTimes.getMean()),
+				toMillis(sliceTimes.getMax())).spacer();
+
+		// Hot reloading
+		AssetHotReloader hotReloader = assetManager.getHotReloader();
+		if (hotReloader == null) {
+			fontDrawer.drawLine("Hot reloading is disabled.");
+		} else {
+			LatencyHistogram reloadTimes = hotReloader.getReloadTimes();
+			fontDrawer.drawLine(
+					"Hot Reloads: %s, %s ms on average (max: %s ms)%s",
+					reloadTimes.getCount(), toMillis(reloadTimes.getMean()),
+					toMillis(reloadTimes.getMax()),
+					hotReloader.isReloading() ? ", reloading..." : "");
+		}
+	}
+
+	private static float toMegabytes(long bytes) {
+		return Math.round(bytes / 10_485.76D) / 100F;
+	}
+
+	private static float toMillis(long nanos) {
+		return Math.round(nanos / 10_000D) / 100F;
+	}
+
 	private class FontDrawer {
 
 		private SpriteBatch batch;
@@ -330,4 +504,23 @@ public class DebugInfoRenderer {
 		}
 	}
 
+	/**
+	 * The pages of the debug overlay.
+	 */
+	public enum Page {
+		/**
+		 * General information, e.g. the GL profiler's statistics.
+		 */
+		GENERAL,
+		/**
+		 * The {@linkplain EventBusMetrics metrics} of the event bus.
+		 */
+		EVENT_BUS,
+		/**
+		 * The state of the asset manager, e.g. the memory used by the assets,
+		 * the pending uploads and the latency of hot reloads.
+		 */
+		ASSETS;
+	}
+
 }
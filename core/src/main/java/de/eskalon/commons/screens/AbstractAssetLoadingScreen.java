@@ -39,6 +39,12 @@ import de.eskalon.commons.misc.IFieldAnnotationScanner;
  * {@link AbstractEskalonApplication}. Assets have to be in a package below the
  * specified root package and be annotated with {@link Asset}.
  * <p>
+ * The annotated fields are looked up in the
+ * {@linkplain de.eskalon.commons.index.AnnotationIndex annotation index}, which
+ * is generated at compile time by pancake's annotation processor. Only if the
+ * classes were not compiled with the annotation processor, the classpath is
+ * scanned instead, which is slow and only supported on desktop.
+ * <p>
  * Afterwards, the loaded assets can be injected in the respective fields via
  * {@link AnnotationAssetManager#injectAssets(Object)}.
  * 
@@ -73,18 +79,8 @@ public abstract class AbstractAssetLoadingScreen extends AbstractEskalonScreen {
 		loadOwnAssets();
 
 		if (packageRoot != null) {
-			IFieldAnnotationScanner annotationScanner = null;
-
-			if (Gdx.app.getType() == ApplicationType.Desktop
-					|| Gdx.app.getType() == ApplicationType.HeadlessDesktop)
-				annotationScanner = ReflectionUtils.newInstanceOrNull(
-						"de.eskalon.commons.misc.DesktopFieldAnnotationScanner",
-						IFieldAnnotationScanner.class);
-
-			LOG.debug("Scanning the packages for assets...");
-			annotationScanner.forEachFieldAnnotatedWith(packageRoot,
-					Asset.class, (f) -> assetManager.loadAnnotatedAsset(f));
-			LOG.debug("Scanning complete!");
+			if (!assetManager.loadIndexedAssets(packageRoot))
+				scanForAssets(packageRoot);
 		}
 	}
 
@@ -93,6 +89,35 @@ public abstract class AbstractAssetLoadingScreen extends AbstractEskalonScreen {
 		this(assetManager, packageRoot, 30);
 	}
 
+	/**
+	 * Scans the classpath for assets. This is only used if the classes were
+	 * not compiled with pancake's annotation processor and is only supported
+	 * on desktop.
+	 * 
+	 * @param packageRoot
+	 */
+	private void scanForAssets(String packageRoot) {
+		IFieldAnnotationScanner annotationScanner = null;
+
+		if (Gdx.app.getType() == ApplicationType.Desktop
+				|| Gdx.app.getType() == ApplicationType.HeadlessDesktop)
+			annotationScanner = ReflectionUtils.newInstanceOrNull(
+					"de.eskalon.commons.misc.DesktopFieldAnnotationScanner",
+					IFieldAnnotationScanner.class);
+
+		if (annotationScanner == null) {
+			LOG.error(
+					"The assets in '%s' could not be loaded: the package is not in the annotation index and cannot be scanned on this platform.",
+					packageRoot);
+			return;
+		}
+
+		LOG.debug("Scanning the packages for assets...");
+		annotationScanner.forEachFieldAnnotatedWith(packageRoot, Asset.class,
+				(f) -> assetManager.loadAnnotatedAsset(f));
+		LOG.debug("Scanning complete!");
+	}
+
 	@Override
 	public void show() {
 		super.show();
@@ -116,8 +141,10 @@ public abstract class AbstractAssetLoadingScreen extends AbstractEskalonScreen {
 	public void render(float delta) {
 		progress = MathUtils.clamp(assetManager.getProgress() + 0.02F, 0, 1);
 
-		// Check if the asset manager is done
-		if (!isDone && assetManager.update(1000 / loadingTicksPerSecond)) {
+		// Check if the asset manager is done; the uploads spread over multiple
+		// frames are processed by the application
+		if (!isDone && assetManager.update(1000 / loadingTicksPerSecond)
+				&& assetManager.getUploadScheduler().isFinished()) {
 			isDone = true;
 			LOG.debug("Loading completed in %d miliseconds.",
 					stopwatch.getTime(TimeUnit.MILLISECONDS));
@@ -15,8 +15,11 @@
 
 package de.eskalon.commons.screens;
 
+import org.jspecify.annotations.Nullable;
+
 import de.eskalon.commons.core.AbstractEskalonApplication;
 import de.eskalon.commons.screen.ManagedScreen;
+import de.eskalon.commons.screens.ScreenScope.Context;
 
 /**
  * A basic screen for use with {@link AbstractEskalonApplication}.
@@ -25,6 +28,13 @@ import de.eskalon.commons.screen.ManagedScreen;
  */
 public abstract class AbstractEskalonScreen extends ManagedScreen {
 
+	/**
+	 * The screen scope context this screen was
+	 * {@linkplain EskalonScreenManager#createScreen(Class) created} in. Is
+	 * handed over to the screen manager once the screen is initialized.
+	 */
+	@Nullable Context pendingContext;
+
 	@Override
 	public void resize(int width, int height) {
 		// empty default method
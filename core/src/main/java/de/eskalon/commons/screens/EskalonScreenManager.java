@@ -15,28 +15,69 @@
 
 package de.eskalon.commons.screens;
 
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.jspecify.annotations.Nullable;
 
+import de.damios.guacamole.gdx.log.Logger;
+import de.damios.guacamole.gdx.log.LoggerService;
 import de.damios.guacamole.tuple.Pair;
+import de.eskalon.commons.asset.AnnotationAssetManager;
+import de.eskalon.commons.asset.AssetHotReloader;
+import de.eskalon.commons.asset.AssetResidencyManager;
 import de.eskalon.commons.core.EskalonApplicationContext;
 import de.eskalon.commons.event.EventBus;
 import de.eskalon.commons.inject.EskalonInjector;
+import de.eskalon.commons.inject.IInjector;
 import de.eskalon.commons.inject.annotations.Inject;
 import de.eskalon.commons.screen.ManagedScreen;
 import de.eskalon.commons.screen.ScreenManager;
 import de.eskalon.commons.screen.transition.ScreenTransition;
+import de.eskalon.commons.screens.ScreenScope.Context;
 import de.eskalon.commons.utils.Supplier;
 
 /**
  * A simple extension of {@link ScreenManager} that automatically (un)registers
  * screens as event listener whenever they are {@linkplain ManagedScreen#show()
  * shown} /{@linkplain ManagedScreen#hide() hidden}.
+ * <p>
+ * Screens are only {@linkplain EventBus#registerWeakly(Object) registered
+ * weakly}, so they can be garbage collected even if they are never
+ * unregistered. In addition, a warning is logged if subscribers referencing a
+ * screen are still registered after the screen was finalized and debug
+ * logging is enabled (see {@link #setReportLeakedSubscribers(boolean)}).
+ * <p>
+ * Each screen gets its own {@linkplain ScreenScope screen scope}: dependencies
+ * annotated with {@link de.eskalon.commons.inject.annotations.ScreenScoped
+ * ScreenScoped} are shared by everything injected for the screen and disposed
+ * once the screen is finalized. Likewise, the assets injected into a screen
+ * are {@linkplain AssetResidencyManager#release(Object) released} once the
+ * screen is finalized.
+ * <p>
+ * If {@linkplain AnnotationAssetManager#enableHotReloading(IInjector, String...)
+ * hot reloading} is enabled, the reloadable members of the shown screens are
+ * reloaded whenever one of their assets is reloaded.
  */
 public class EskalonScreenManager
 		extends ScreenManager<AbstractEskalonScreen, ScreenTransition> {
 
+	private static final Logger LOG = LoggerService
+			.getLogger(EskalonScreenManager.class);
+
 	protected @Inject EventBus eventBus;
 	protected @Inject EskalonApplicationContext appContext;
+	protected @Inject ScreenScope screenScope;
+	protected @Inject AnnotationAssetManager assetManager;
+
+	/**
+	 * The contexts of the screens that were initialized, but not finalized
+	 * yet.
+	 */
+	private final Map<ManagedScreen, Context> screenContexts = new IdentityHashMap<>();
+
+	private boolean reportLeakedSubscribers = true;
 
 	/**
 	 * Push a screen.
@@ -46,7 +87,7 @@ public class EskalonScreenManager
 	 */
 	public void pushScreen(Class<? extends AbstractEskalonScreen> screenClass,
 			@Nullable String transitionName) {
-		super.pushScreen(EskalonInjector.instance().getInstance(screenClass),
+		super.pushScreen(createScreen(screenClass),
 				transitionName != null
 						? appContext.getTransitions().get(transitionName)
 						: null);
@@ -56,6 +97,35 @@ public class EskalonScreenManager
 		pushScreen(screenClass, null);
 	}
 
+	/**
+	 * Creates a screen via dependency injection. In contrast to retrieving the
+	 * screen from the injector directly, its
+	 * {@linkplain de.eskalon.commons.inject.annotations.ScreenScoped screen
+	 * scoped} dependencies belong to the screen itself and not to the screen
+	 * that is currently shown.
+	 * <p>
+	 * The screen keeps its dependencies until it is pushed and then finalized.
+	 * If it is never pushed, they are garbage collected together with the
+	 * screen without being disposed.
+	 * 
+	 * @param <S>
+	 * @param screenClass
+	 * @return the screen
+	 */
+	public <S extends AbstractEskalonScreen> S createScreen(
+			Class<S> screenClass) {
+		Context context = new Context();
+		S screen = screenScope.createWithin(context,
+				() -> EskalonInjector.instance().getInstance(screenClass));
+		if (screen.pendingContext == null
+				&& !screenContexts.containsKey(screen))
+			screen.pendingContext = context;
+		else
+			context.dispose(); // the screen was created beforehand
+
+		return screen;
+	}
+
 	@Override
 	@Deprecated // use pushScreen(Class, String) instead
 	public void pushScreen(AbstractEskalonScreen screen,
@@ -72,16 +142,75 @@ public class EskalonScreenManager
 
 	@Override
 	protected void initializeScreen(ManagedScreen newScreen) {
-		eventBus.register(newScreen);
+		eventBus.registerWeakly(newScreen);
+		screenScope.setActiveContext(screenContexts.computeIfAbsent(newScreen,
+				EskalonScreenManager::takePendingContext));
+
+		AssetHotReloader hotReloader = assetManager.getHotReloader();
+		if (hotReloader != null)
+			hotReloader.addHolder(newScreen);
+
 		super.initializeScreen(newScreen);
 	}
 
+	private static Context takePendingContext(ManagedScreen screen) {
+		if (screen instanceof AbstractEskalonScreen) {
+			AbstractEskalonScreen s = (AbstractEskalonScreen) screen;
+			Context context = s.pendingContext;
+			if (context != null) {
+				s.pendingContext = null;
+				return context;
+			}
+		}
+		return new Context();
+	}
+
 	@Override
 	protected void finalizeScreen(ManagedScreen oldScreen) {
 		eventBus.unregister(oldScreen);
+
+		AssetHotReloader hotReloader = assetManager.getHotReloader();
+		if (hotReloader != null)
+			hotReloader.removeHolder(oldScreen);
+
+		// Scanning the subscribers is expensive, so it is skipped in
+		// production builds
+		if (reportLeakedSubscribers && LoggerService.isDebugEnabled()) {
+			List<Object> leakedSubscribers = eventBus
+					.findSubscribersReferencing(oldScreen);
+			if (!leakedSubscribers.isEmpty())
+				LOG.warn(
+						"The screen '%s' was finalized, but the following event subscribers referencing it are still registered: %s",
+						oldScreen.getClass().getSimpleName(),
+						leakedSubscribers);
+		}
+
+		// If the context is still active, the screen was pushed again
+		Context context = screenContexts.get(oldScreen);
+		if (context != null && context != screenScope.getActiveContext()) {
+			screenContexts.remove(oldScreen);
+			context.dispose();
+			assetManager.getResidencyManager().release(context);
+		}
+
 		super.finalizeScreen(oldScreen);
 	}
 
+	/**
+	 * Sets whether a warning is logged if subscribers referencing a screen are
+	 * still registered after the screen was finalized. This usually means that
+	 * the screen forgot to unregister them and thereby keeps them (and
+	 * itself) from being garbage collected. Is enabled by default, but only
+	 * done if {@linkplain LoggerService#isDebugEnabled() debug logging} is
+	 * enabled.
+	 * 
+	 * @param reportLeakedSubscribers
+	 * @see EventBus#findSubscribersReferencing(Object)
+	 */
+	public void setReportLeakedSubscribers(boolean reportLeakedSubscribers) {
+		this.reportLeakedSubscribers = reportLeakedSubscribers;
+	}
+
 	@Override
 	public void dispose() {
 		// Prevent transitions from being disposes twice
@@ -93,6 +222,13 @@ public class EskalonScreenManager
 		transitionQueue.clear();
 
 		super.dispose();
+
+		for (Context context : screenContexts.values()) {
+			context.dispose();
+			assetManager.getResidencyManager().release(context);
+		}
+		screenContexts.clear();
+		screenScope.setActiveContext(null);
 	}
 
 }
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.screens;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+
+import de.damios.guacamole.gdx.log.Logger;
+import de.damios.guacamole.gdx.log.LoggerService;
+import de.eskalon.commons.inject.Provider;
+import de.eskalon.commons.inject.Scope;
+import de.eskalon.commons.inject.annotations.ScreenScoped;
+import de.eskalon.commons.screen.ManagedScreen;
+
+/**
+ * The {@link Scope} for bindings annotated with {@link ScreenScoped}.
+ * <p>
+ * Each screen has its own {@linkplain Context context}, in which the scoped
+ * instances are cached. The {@link EskalonScreenManager}
+ * {@linkplain #createWithin(Context, Provider) creates} the screen within its
+ * context and {@linkplain #setActiveContext(Context) activates} the context
+ * when the screen is shown. Once the screen is finalized, the context is disposed together with
+ * all of its instances. Heavy objects thus neither have to be recreated on
+ * every injection nor are they kept around after their screen is gone.
+ * <p>
+ * Like the screen manager, the scope is meant to be used on the rendering
+ * thread.
+ */
+public class ScreenScope implements Scope {
+
+	private static final Logger LOG = LoggerService
+			.getLogger(ScreenScope.class);
+
+	private @Nullable Context activeContext;
+
+	@Override
+	public <T> @Nullable T scope(Class<T> type, Provider<T> unscoped) {
+		Context context = activeContext;
+		if (context == null) {
+			LOG.warn(
+					"'%s' was requested outside of a screen; the instance is not cached.",
+					type.getSimpleName());
+			return unscoped.provide();
+		}
+
+		return context.get(type, unscoped);
+	}
+
+	/**
+	 * @return the context whose instances are currently provided; {@code null}
+	 *         if there is none
+	 */
+	public @Nullable Context getActiveContext() {
+		return activeContext;
+	}
+
+	/**
+	 * Returns the context an instance belongs to, e.g. to use it as the
+	 * {@linkplain de.eskalon.commons.asset.AssetResidencyManager owner} of
+	 * the assets injected into the instance. Only screens and
+	 * {@linkplain ScreenScoped screen scoped} instances belong to the active
+	 * context; everything else, e.g. a singleton, may outlive it.
+	 * 
+	 * @param type
+	 *            the type of the instance; may be {@code null}
+	 * @param scopeAnnotation
+	 *            the scope annotation of the binding the instance was created
+	 *            for; may be {@code null}
+	 * @return the active context if the instance belongs to it; {@code null}
+	 *         otherwise
+	 */
+	public @Nullable Context getOwningContext(@Nullable Class<?> type,
+			@Nullable Class<? extends Annotation> scopeAnnotation) {
+		if (scopeAnnotation == ScreenScoped.class || (type != null
+				&& ClassReflection.isAssignableFrom(ManagedScreen.class, type)))
+			return activeContext;
+
+		return null;
+	}
+
+	/**
+	 * @param context
+	 *            the context whose instances are provided from now on
+	 */
+	public void setActiveContext(@Nullable Context context) {
+		this.activeContext = context;
+	}
+
+	/**
+	 * Creates an instance within the given context, i.e. screen scoped
+	 * dependencies of the instance are cached in that context. The previously
+	 * active context is restored afterwards.
+	 * 
+	 * @param <T>
+	 * @param context
+	 * @param provider
+	 *            creates the instance, usually a screen
+	 * @return the created instance
+	 */
+	public <T> T createWithin(Context context, Provider<T> provider) {
+		Context previousContext = activeContext;
+
+		activeContext = context;
+		try {
+			return provider.provide();
+		} finally {
+			activeContext = previousContext;
+		}
+	}
+
+	/**
+	 * The instances belonging to one screen.
+	 */
+	public static class Context implements Disposable {
+		private final Map<Class<?>, Object> instances = new LinkedHashMap<>();
+
+		@SuppressWarnings("unchecked")
+		private synchronized <T> @Nullable T get(Class<T> type,
+				Provider<T> unscoped) {
+			Object instance = instances.get(type);
+			if (instance == null) {
+				// Not using computeIfAbsent(...), since the creation of an
+				// instance can involve other scoped instances
+				instance = unscoped.provide();
+				if (instance != null)
+					instances.put(type, instance);
+			}
+			return (T) instance;
+		}
+
+		/**
+		 * Disposes all instances of this context that are
+		 * {@link Disposable}s. Instances are disposed in the reverse order of
+		 * their creation, i.e. before their dependencies.
+		 */
+		@Override
+		public synchronized void dispose() {
+			List<Object> values = new ArrayList<>(instances.values());
+			instances.clear();
+
+			for (int i = values.size() - 1; i >= 0; i--) {
+				if (values.get(i) instanceof Disposable)
+					((Disposable) values.get(i)).dispose();
+			}
+		}
+	}
+
+}
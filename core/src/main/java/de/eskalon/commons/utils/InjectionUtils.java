@@ -15,6 +15,7 @@
 
 package de.eskalon.commons.utils;
 
+import java.lang.annotation.Annotation;
 import java.util.Arrays;
 import java.util.Set;
 
@@ -27,8 +28,12 @@ import com.badlogic.gdx.utils.reflect.Method;
 import de.damios.guacamole.gdx.log.Logger;
 import de.damios.guacamole.gdx.log.LoggerService;
 import de.damios.guacamole.gdx.reflection.ReflectionUtils;
+import de.eskalon.commons.index.AnnotationIndex;
+import de.eskalon.commons.index.AnnotationIndex.IndexedClass;
+import de.eskalon.commons.index.AnnotationIndex.InjectableConstructor;
 import de.eskalon.commons.inject.IInjector;
 import de.eskalon.commons.inject.annotations.Inject;
+import de.eskalon.commons.inject.annotations.ScopeAnnotation;
 import de.eskalon.commons.inject.annotations.Singleton;
 
 public class InjectionUtils {
@@ -58,10 +63,46 @@ public class InjectionUtils {
 		return ReflectionUtils.newInstanceWithParamsOrNull(constructor, o);
 	}
 
+	/**
+	 * @param clazz
+	 * @param includeNoArgsConstructor
+	 *            whether the public no-args constructor should be returned if
+	 *            there is no constructor annotated with {@link Inject}
+	 * @return the public constructor of the given class annotated with
+	 *         {@link Inject} or, if allowed, its public no-args constructor;
+	 *         {@code null} if there is neither
+	 */
 	public static java.lang.reflect.@Nullable Constructor getInjectableConstructor(
 			Class<?> clazz, boolean includeNoArgsConstructor) {
 		// TODO: This needs to be ported to libGDX's reflection handling
 		// to make it compatible with GWT
+		IndexedClass indexedClass = AnnotationIndex.instance().get(clazz);
+		if (indexedClass != null) {
+			// Use the index instead of checking the annotations
+			InjectableConstructor injectableConstructor = indexedClass
+					.getInjectableConstructor();
+			String[] parameterClassNames = injectableConstructor == null
+					? null
+					: injectableConstructor.getParameterClassNames();
+			java.lang.reflect.Constructor ret = null;
+			for (java.lang.reflect.Constructor c : clazz.getConstructors()) {
+				if (parameterClassNames != null
+						&& hasParameters(c, parameterClassNames))
+					return c;
+
+				if (includeNoArgsConstructor && c.getParameterCount() == 0)
+					ret = c;
+			}
+
+			if (parameterClassNames == null)
+				return ret;
+
+			// The index is out of date (or the class was obfuscated)
+			LOG.debug(
+					"The indexed constructor of '%s' could not be resolved; falling back to reflection.",
+					clazz.getName());
+		}
+
 		java.lang.reflect.Constructor ret = null;
 		for (java.lang.reflect.Constructor c : clazz.getConstructors()) {
 			if (c.isAnnotationPresent(Inject.class))
@@ -75,23 +116,79 @@ public class InjectionUtils {
 		return ret;
 	}
 
+	private static boolean hasParameters(java.lang.reflect.Constructor c,
+			String[] parameterClassNames) {
+		Class<?>[] parameterTypes = c.getParameterTypes();
+		if (parameterTypes.length != parameterClassNames.length)
+			return false;
+
+		for (int i = 0; i < parameterTypes.length; i++) {
+			if (!parameterTypes[i].getName().equals(parameterClassNames[i]))
+				return false;
+		}
+		return true;
+	}
+
 	public static boolean isMethodAnnotatedWithSingleton(Class<?> clazz,
 			String methodName, Class... paramTypes) {
+		Method method = findMethod(clazz, methodName, paramTypes);
+		if (method != null)
+			return method.isAnnotationPresent(Singleton.class);
+
+		LOG.error("Could not determine whether %s provides a singleton.",
+				clazz.getSimpleName());
+
+		return false;
+	}
+
+	/**
+	 * @param clazz
+	 * @param methodName
+	 * @param paramTypes
+	 * @return the {@linkplain ScopeAnnotation scope annotation} the given
+	 *         method is annotated with; {@code null} if there is none
+	 */
+	public static @Nullable Class<? extends Annotation> getMethodScopeAnnotation(
+			Class<?> clazz, String methodName, Class... paramTypes) {
+		Method method = findMethod(clazz, methodName, paramTypes);
+		if (method != null) {
+			for (com.badlogic.gdx.utils.reflect.Annotation a : method
+					.getDeclaredAnnotations()) {
+				if (a.getAnnotationType()
+						.isAnnotationPresent(ScopeAnnotation.class))
+					return a.getAnnotationType();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param constructor
+	 * @return the {@linkplain ScopeAnnotation scope annotation} the given
+	 *         constructor is annotated with; {@code null} if there is none
+	 */
+	public static @Nullable Class<? extends Annotation> getScopeAnnotation(
+			java.lang.reflect.Constructor constructor) {
+		for (Annotation a : constructor.getDeclaredAnnotations()) {
+			if (a.annotationType().isAnnotationPresent(ScopeAnnotation.class))
+				return a.annotationType();
+		}
+		return null;
+	}
+
+	private static @Nullable Method findMethod(Class<?> clazz,
+			String methodName, Class... paramTypes) {
 		Set<Class<?>> allSuperTypes = ReflectionUtils
 				.retrieveAllSuperTypes(clazz);
 		for (Class<?> type : allSuperTypes) {
 			for (Method method : ClassReflection.getMethods(type)) {
 				if (method.getName().equals(methodName) && Arrays
 						.equals(method.getParameterTypes(), paramTypes)) {
-					return method.isAnnotationPresent(Singleton.class);
+					return method;
 				}
 			}
 		}
-
-		LOG.error("Could not determine whether %s provides a singleton.",
-				clazz.getSimpleName());
-
-		return false;
+		return null;
 	}
 
 }
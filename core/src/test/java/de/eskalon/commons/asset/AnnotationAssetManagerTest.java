@@ -1,18 +1,31 @@
 package de.eskalon.commons.asset;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.Test;
 
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.SynchronousAssetLoader;
 import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGeneratorLoader;
 import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader;
+import com.badlogic.gdx.utils.Array;
 
 import de.eskalon.commons.LibgdxUnitTest;
 import de.eskalon.commons.asset.AnnotationAssetManager.Asset;
@@ -65,6 +78,172 @@ public class AnnotationAssetManagerTest extends LibgdxUnitTest {
 		assertTrue(!aM.isLoaded("i_do_not_exist.png"));
 	}
 
+	@Test
+	public void testIndexedAssets() {
+		AnnotationAssetManager aM = createAssetManager();
+
+		assertTrue(aM.loadIndexedAssets("de.eskalon.commons.asset"));
+		assertFalse(aM.loadIndexedAssets("com.example.unknown"));
+		aM.finishLoading();
+
+		assertTrue(aM.isLoaded("test.png"));
+		assertTrue(aM.isLoaded("randomName.ttf"));
+		assertTrue(aM.isLoaded("test2.png"));
+		assertTrue(!aM.isLoaded("i_do_not_exist.png"));
+	}
+
+	@Test
+	public void testParallelLoading() {
+		AnnotationAssetManager aM = createAssetManager();
+		aM.setLoader(Texture.class, new ParallelTextureLoader(
+				aM.getFileHandleResolver()));
+		aM.enableParallelLoading(2);
+
+		aM.loadAnnotatedAssets(AssetHolder.class);
+		aM.load("test3.png", Texture.class);
+		aM.unload("test3.png"); // is discarded before being loaded
+		aM.finishLoading();
+
+		assertTrue(aM.isLoaded("test.png"));
+		assertTrue(aM.isLoaded("randomName.ttf"));
+		assertTrue(aM.isLoaded("test2.png"));
+		assertTrue(!aM.isLoaded("test3.png"));
+		assertNotNull(aM.get("test.png", Texture.class));
+
+		aM.dispose();
+	}
+
+	@Test
+	public void testFailedParallelLoading() {
+		AnnotationAssetManager aM = createAssetManager();
+		AtomicInteger discarded = new AtomicInteger();
+		aM.setLoader(Texture.class, new ParallelTextureLoader(
+				aM.getFileHandleResolver()) {
+			@Override
+			public void discardPrefetched(String fileName) {
+				discarded.incrementAndGet();
+				super.discardPrefetched(fileName);
+			}
+		});
+		aM.enableParallelLoading(1);
+		aM.setErrorListener((asset, throwable) -> {
+			// ignore the missing file
+		});
+
+		aM.load("i_do_not_exist.png", Texture.class);
+		aM.finishLoading();
+
+		// The slot of the failed asset is freed
+		assertFalse(aM.isLoaded("i_do_not_exist.png"));
+		assertEquals(1, discarded.get());
+
+		aM.dispose();
+	}
+
+	@Test
+	public void testResidency() {
+		AnnotationAssetManager aM = createAssetManager();
+		AssetResidencyManager residencyManager = aM.getResidencyManager();
+		aM.load("test.png", Texture.class);
+		aM.load("test2.png", Texture.class);
+		aM.finishLoading();
+
+		Object owner = new Object();
+		assertNotNull(residencyManager.get("test.png", null, owner));
+		assertNotNull(residencyManager.get("test2.png", null, null)); // pinned
+		assertTrue(residencyManager.getResidentSize() > 0);
+
+		// Assets in use are kept
+		residencyManager.setBudget(0);
+		assertTrue(aM.isLoaded("test.png"));
+
+		// Unused assets are unloaded...
+		residencyManager.release(owner);
+		assertFalse(aM.isLoaded("test.png"));
+		assertTrue(aM.isLoaded("test2.png"));
+
+		// ...and loaded again when they are needed
+		residencyManager.setBudget(Long.MAX_VALUE);
+		assertNotNull(residencyManager.get("test.png", null, owner));
+		assertTrue(aM.isLoaded("test.png"));
+
+		// Pinned assets can be unloaded once they are unpinned
+		residencyManager.setBudget(0);
+		residencyManager.unpin("test2.png");
+		assertFalse(aM.isLoaded("test2.png"));
+		assertTrue(aM.isLoaded("test.png"));
+
+		aM.dispose();
+	}
+
+	@Test
+	public void testResidencyOfSharedDependencies() {
+		AnnotationAssetManager aM = createAssetManager();
+		aM.setLoader(TextureUser.class,
+				new TextureUserLoader(aM.getFileHandleResolver()));
+		AssetResidencyManager residencyManager = aM.getResidencyManager();
+		// The assets have no files; only the texture takes up memory
+		residencyManager.registerSizeEstimator(TextureUser.class,
+				(user, file) -> 0);
+		aM.load("user1", TextureUser.class);
+		aM.load("user2", TextureUser.class);
+		aM.finishLoading();
+
+		Object owner1 = new Object();
+		Object owner2 = new Object();
+		assertNotNull(residencyManager.get("user1", null, owner1));
+		long size = residencyManager.getResidentSize();
+		assertTrue(size > 0);
+
+		// The shared texture is only counted once
+		assertNotNull(residencyManager.get("user2", null, owner2));
+		assertEquals(size, residencyManager.getResidentSize());
+
+		// The texture is still used by the second asset...
+		residencyManager.setBudget(0);
+		residencyManager.release(owner1);
+		assertFalse(aM.isLoaded("user1"));
+		assertTrue(aM.isLoaded("test.png"));
+		assertEquals(size, residencyManager.getResidentSize());
+
+		// ...until that one is unloaded as well
+		residencyManager.release(owner2);
+		assertFalse(aM.isLoaded("user2"));
+		assertFalse(aM.isLoaded("test.png"));
+		assertEquals(0, residencyManager.getResidentSize());
+
+		aM.dispose();
+	}
+
+	@Test
+	public void testAssetLoaderParametersCache() throws NoSuchFieldException {
+		AnnotationAssetManager aM = createAssetManager();
+		Asset asset = AssetHolder.class.getDeclaredField("test1b")
+				.getAnnotation(Asset.class);
+
+		// The params are only parsed once
+		AssetLoaderParameters<BitmapFont> params = aM
+				.getAssetLoaderParameters(asset, BitmapFont.class);
+		assertNotNull(params);
+		assertSame(params,
+				aM.getAssetLoaderParameters(asset, BitmapFont.class));
+
+		// ... unless the factory changes
+		aM.registerAssetLoaderParametersFactory(BitmapFont.class,
+				new BitmapFontAssetLoaderParametersFactory());
+		assertNotSame(params,
+				aM.getAssetLoaderParameters(asset, BitmapFont.class));
+
+		// Malformed params
+		BitmapFontAssetLoaderParametersFactory factory = new BitmapFontAssetLoaderParametersFactory();
+		assertThrows(IllegalArgumentException.class,
+				() -> factory.newInstance("a.ttf", "font/OpenSans.ttf, big"));
+		assertThrows(IllegalArgumentException.class,
+				() -> factory.newInstance("a.ttf", "font/OpenSans.ttf"));
+		assertThrows(IllegalArgumentException.class,
+				() -> factory.newInstance("a.ttf", " , 12"));
+	}
+
 	public static class AssetHolder {
 		@Asset("test.png")
 		private Texture test1a;
@@ -79,4 +258,32 @@ public class AnnotationAssetManagerTest extends LibgdxUnitTest {
 		private static Texture test3;
 	}
 
+	public static class TextureUser {
+	}
+
+	/**
+	 * Loads assets that depend on the same texture.
+	 */
+	public static class TextureUserLoader extends
+			SynchronousAssetLoader<TextureUser, AssetLoaderParameters<TextureUser>> {
+
+		public TextureUserLoader(FileHandleResolver resolver) {
+			super(resolver);
+		}
+
+		@Override
+		public TextureUser load(AssetManager assetManager, String fileName,
+				FileHandle file, AssetLoaderParameters<TextureUser> parameter) {
+			return new TextureUser();
+		}
+
+		@SuppressWarnings("rawtypes")
+		@Override
+		public Array<AssetDescriptor> getDependencies(String fileName,
+				FileHandle file, AssetLoaderParameters<TextureUser> parameter) {
+			return Array.<AssetDescriptor> with(
+					new AssetDescriptor<>("test.png", Texture.class));
+		}
+	}
+
 }
@@ -0,0 +1,75 @@
+package de.eskalon.commons.asset;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+
+import de.eskalon.commons.LibgdxUnitTest;
+import de.eskalon.commons.asset.AssetBundleFileHandleResolver.BundledFileHandle;
+
+public class AssetBundleTest extends LibgdxUnitTest {
+
+	@Test
+	public void test() throws IOException {
+		File directory = Files.createTempDirectory("assets").toFile();
+		new FileHandle(new File(directory, "textures/test.png")).writeBytes(
+				Gdx.files.internal("test.png").readBytes(), false);
+		new FileHandle(new File(directory, "lang.properties")).writeBytes(
+				Gdx.files.internal("lang.properties").readBytes(), false);
+
+		File bundleFile = new File(directory, "assets.bundle");
+		assertEquals(2, AssetBundleWriter.write(directory, bundleFile));
+
+		AssetBundle bundle = new AssetBundle(new FileHandle(bundleFile));
+		assertTrue(bundle.isFile("textures/test.png"));
+		assertTrue(bundle.isDirectory("textures"));
+		assertFalse(bundle.isFile("assets.bundle"));
+
+		// Loose files that were modified after the bundle was created
+		FileHandleResolver looseResolver = fileName -> new FileHandle(
+				new File(directory, fileName));
+		assertNull(bundle.findModifiedFile(looseResolver));
+		assertTrue(new File(directory, "lang.properties")
+				.setLastModified(bundle.getLastModified() + 2000));
+		assertEquals("lang.properties",
+				bundle.findModifiedFile(looseResolver));
+
+		// Bundled files
+		AssetBundleFileHandleResolver resolver = new AssetBundleFileHandleResolver(
+				bundle);
+		FileHandle file = resolver.resolve("textures/test.png");
+		assertTrue(file instanceof BundledFileHandle);
+		assertArrayEquals(Gdx.files.internal("test.png").readBytes(),
+				file.readBytes());
+		assertEquals(file, file.parent().child("test.png"));
+		assertEquals(2, resolver.resolve("").list().length);
+
+		// Other files are resolved by the fallback resolver
+		assertFalse(resolver.resolve("test2.png") instanceof BundledFileHandle);
+		assertTrue(resolver.resolve("test2.png").exists());
+
+		AnnotationAssetManager aM = new AnnotationAssetManager(resolver);
+		aM.load("textures/test.png", Texture.class);
+		aM.load("test2.png", Texture.class);
+		aM.finishLoading();
+		assertTrue(aM.isLoaded("textures/test.png"));
+		assertTrue(aM.isLoaded("test2.png"));
+
+		aM.dispose();
+		new FileHandle(directory).deleteDirectory();
+	}
+
+}
@@ -0,0 +1,205 @@
+package de.eskalon.commons.asset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.SynchronousAssetLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import de.eskalon.commons.LibgdxUnitTest;
+import de.eskalon.commons.asset.AnnotationAssetManager.Asset;
+import de.eskalon.commons.inject.EskalonInjector;
+import de.eskalon.commons.inject.annotations.Inject;
+import de.eskalon.commons.inject.annotations.Reloadable;
+import de.eskalon.commons.inject.providers.AssetProviders.AssetProvider;
+
+public class AssetHotReloaderTest extends LibgdxUnitTest {
+
+	private static final long TIMEOUT = 30_000;
+
+	@Test
+	public void testReload() throws IOException, InterruptedException {
+		File directory = Files.createTempDirectory("assets").toFile();
+		FileHandle file = new FileHandle(new File(directory, "test.txt"));
+		file.writeString("old", false);
+
+		FileHandleResolver resolver = fileName -> new FileHandle(
+				new File(directory, fileName));
+		AnnotationAssetManager aM = new AnnotationAssetManager(resolver);
+		aM.setLoader(TextAsset.class, new TextAssetLoader(resolver));
+		aM.load("test.txt", TextAsset.class);
+		aM.finishLoading();
+
+		EskalonInjector injector = EskalonInjector.instance();
+		injector.bindToInstance(AssetManager.class, aM);
+		injector.bindToQualifiedProvider(TextAsset.class, Asset.class,
+				TextAssetProvider.class);
+
+		TextAssetHolder holder = injector.injectMembers(new TextAssetHolder());
+		TextAsset oldAsset = holder.asset;
+		assertEquals("old", oldAsset.text);
+
+		AssetHotReloader hotReloader = new AssetHotReloader(aM, injector);
+		assertTrue(hotReloader.watch(""));
+		hotReloader.addHolder(holder);
+
+		// Changing the file starts a reload...
+		file.writeString("new", false);
+		waitFor(() -> {
+			hotReloader.update();
+			return hotReloader.isReloading();
+		});
+
+		// ...while the old asset can still be used
+		assertFalse(aM.isLoaded("test.txt"));
+		assertSame(oldAsset, holder.asset);
+		assertFalse(oldAsset.disposed);
+
+		// Once the new asset is loaded, it replaces the old one
+		waitFor(() -> {
+			hotReloader.update();
+			return !hotReloader.isReloading();
+		});
+		assertNotSame(oldAsset, holder.asset);
+		assertEquals("new", holder.asset.text);
+		assertSame(holder.asset, aM.get("test.txt"));
+		assertTrue(oldAsset.disposed);
+		assertFalse(holder.asset.disposed);
+		assertEquals(1, hotReloader.getReloadTimes().getCount());
+
+		aM.dispose();
+		EskalonInjector.reset();
+		new FileHandle(directory).deleteDirectory();
+	}
+
+	@Test
+	public void testFailedReload() throws IOException, InterruptedException {
+		File directory = Files.createTempDirectory("assets").toFile();
+		FileHandle file = new FileHandle(new File(directory, "test.txt"));
+		file.writeString("old", false);
+
+		FileHandleResolver resolver = fileName -> new FileHandle(
+				new File(directory, fileName));
+		AnnotationAssetManager aM = new AnnotationAssetManager(resolver);
+		aM.setLoader(TextAsset.class, new TextAssetLoader(resolver));
+		aM.load("test.txt", TextAsset.class);
+		aM.finishLoading();
+
+		EskalonInjector injector = EskalonInjector.instance();
+		injector.bindToInstance(AssetManager.class, aM);
+		injector.bindToQualifiedProvider(TextAsset.class, Asset.class,
+				TextAssetProvider.class);
+
+		TextAssetHolder holder = injector.injectMembers(new TextAssetHolder());
+		TextAsset oldAsset = holder.asset;
+
+		AssetHotReloader hotReloader = new AssetHotReloader(aM, injector);
+		assertTrue(hotReloader.watch(""));
+		hotReloader.addHolder(holder);
+
+		// An unreadable file cannot be reloaded...
+		file.writeString("", false);
+		waitFor(() -> {
+			hotReloader.update();
+			return hotReloader.getReloadTimes().getCount() == 1;
+		});
+
+		// ...so the old asset is kept
+		assertFalse(hotReloader.isReloading());
+		assertFalse(aM.isLoaded("test.txt"));
+		assertSame(oldAsset, holder.asset);
+		assertFalse(oldAsset.disposed);
+		hotReloader.update();
+		assertSame(oldAsset, holder.asset);
+
+		// It is replaced once the file can be read again
+		file.writeString("new", false);
+		waitFor(() -> {
+			hotReloader.update();
+			return hotReloader.getReloadTimes().getCount() == 2;
+		});
+		assertFalse(hotReloader.isReloading());
+		assertEquals("new", holder.asset.text);
+		assertSame(holder.asset, aM.get("test.txt"));
+		assertTrue(oldAsset.disposed);
+
+		hotReloader.dispose();
+		aM.dispose();
+		EskalonInjector.reset();
+		new FileHandle(directory).deleteDirectory();
+	}
+
+	private static void waitFor(BooleanSupplier condition)
+			throws InterruptedException {
+		long start = System.currentTimeMillis();
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.currentTimeMillis() - start < TIMEOUT,
+					"Timed out");
+			Thread.sleep(20);
+		}
+	}
+
+	public static class TextAsset implements Disposable {
+		private final String text;
+		private boolean disposed = false;
+
+		TextAsset(String text) {
+			this.text = text;
+		}
+
+		@Override
+		public void dispose() {
+			disposed = true;
+		}
+	}
+
+	public static class TextAssetLoader extends
+			SynchronousAssetLoader<TextAsset, AssetLoaderParameters<TextAsset>> {
+
+		public TextAssetLoader(FileHandleResolver resolver) {
+			super(resolver);
+		}
+
+		@Override
+		public TextAsset load(AssetManager assetManager, String fileName,
+				FileHandle file, AssetLoaderParameters<TextAsset> parameter) {
+			String text = file.readString();
+			if (text.isEmpty()) // e.g. while the file is being written
+				throw new GdxRuntimeException("'" + fileName + "' is empty");
+			return new TextAsset(text);
+		}
+
+		@SuppressWarnings("rawtypes")
+		@Override
+		public Array<AssetDescriptor> getDependencies(String fileName,
+				FileHandle file, AssetLoaderParameters<TextAsset> parameter) {
+			return null;
+		}
+	}
+
+	public static class TextAssetProvider extends AssetProvider<TextAsset> {
+	}
+
+	public static class TextAssetHolder {
+		@Asset("test.txt")
+		private @Inject @Reloadable TextAsset asset;
+	}
+
+}
@@ -0,0 +1,81 @@
+package de.eskalon.commons.asset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
+import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader.FreeTypeFontLoaderParameter;
+
+import de.eskalon.commons.LibgdxUnitTest;
+
+public class CachingFreetypeFontLoaderTest extends LibgdxUnitTest {
+
+	@Test
+	public void test() throws IOException {
+		FileHandle cacheDirectory = new FileHandle(
+				Files.createTempDirectory("fonts").toFile());
+
+		// The font is generated & cached
+		AnnotationAssetManager aM = createAssetManager(cacheDirectory);
+		aM.load("font.ttf", BitmapFont.class, createParameter(19));
+		aM.finishLoading();
+		BitmapFont generated = aM.get("font.ttf", BitmapFont.class);
+		assertTrue(aM.isLoaded("font/OpenSans.ttf.gen"));
+		assertEquals(1 + generated.getRegions().size,
+				cacheDirectory.list().length);
+
+		// The font is read from the cache
+		AnnotationAssetManager aM2 = createAssetManager(cacheDirectory);
+		aM2.load("font.ttf", BitmapFont.class, createParameter(19));
+		aM2.finishLoading();
+		BitmapFont cached = aM2.get("font.ttf", BitmapFont.class);
+		assertFalse(aM2.isLoaded("font/OpenSans.ttf.gen"));
+
+		assertEquals(generated.getRegions().size, cached.getRegions().size);
+		assertEquals(generated.getLineHeight(), cached.getLineHeight());
+		assertEquals(generated.getCapHeight(), cached.getCapHeight());
+		for (char c : "AVaz?".toCharArray()) {
+			Glyph expected = generated.getData().getGlyph(c);
+			Glyph actual = cached.getData().getGlyph(c);
+			assertEquals(expected.srcX, actual.srcX);
+			assertEquals(expected.srcY, actual.srcY);
+			assertEquals(expected.width, actual.width);
+			assertEquals(expected.xadvance, actual.xadvance);
+			assertEquals(expected.getKerning('V'), actual.getKerning('V'));
+		}
+
+		// Other parameters result in another cache entry
+		aM2.load("font2.ttf", BitmapFont.class, createParameter(20));
+		aM2.finishLoading();
+		assertTrue(aM2.isLoaded("font/OpenSans.ttf.gen"));
+
+		aM.dispose();
+		aM2.dispose();
+		cacheDirectory.deleteDirectory();
+	}
+
+	private static AnnotationAssetManager createAssetManager(
+			FileHandle cacheDirectory) {
+		AnnotationAssetManager aM = AnnotationAssetManagerTest
+				.createAssetManager();
+		aM.setLoader(BitmapFont.class, ".ttf", new CachingFreetypeFontLoader(
+				aM.getFileHandleResolver(), cacheDirectory));
+		return aM;
+	}
+
+	private static FreeTypeFontLoaderParameter createParameter(int size) {
+		FreeTypeFontLoaderParameter parameter = new FreeTypeFontLoaderParameter();
+		parameter.fontFileName = "font/OpenSans.ttf";
+		parameter.fontParameters.size = size;
+		return parameter;
+	}
+
+}
@@ -0,0 +1,79 @@
+package de.eskalon.commons.asset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import de.eskalon.commons.LibgdxUnitTest;
+import de.eskalon.commons.asset.UploadScheduler.UploadTask;
+
+public class UploadSchedulerTest extends LibgdxUnitTest {
+
+	@Test
+	public void testBudget() {
+		UploadScheduler scheduler = new UploadScheduler();
+		SlicedTask task1 = new SlicedTask(3, 2_000_000);
+		SlicedTask task2 = new SlicedTask(2, 0);
+		scheduler.schedule("task1", task1);
+		scheduler.schedule("task2", task2);
+		assertEquals(2, scheduler.getPendingUploadCount());
+
+		// At least one slice is uploaded, even if the budget is exceeded
+		assertFalse(scheduler.update(0));
+		assertEquals(1, task1.uploadedSlices);
+
+		// The next slice would not fit into the remaining budget
+		assertFalse(scheduler.update(1_000_000));
+		assertEquals(2, task1.uploadedSlices);
+
+		assertTrue(scheduler.update(Long.MAX_VALUE));
+		assertEquals(3, task1.uploadedSlices);
+		assertEquals(2, task2.uploadedSlices);
+		assertTrue(scheduler.isFinished());
+		assertEquals(5, scheduler.getSliceTimes().getCount());
+		assertTrue(scheduler.getSliceTimes().getMax() >= 2_000_000);
+	}
+
+	@Test
+	public void testClear() {
+		UploadScheduler scheduler = new UploadScheduler();
+		SlicedTask task = new SlicedTask(2, 0);
+		scheduler.schedule("task", task);
+
+		scheduler.update(0);
+		scheduler.clear();
+
+		assertTrue(scheduler.isFinished());
+		assertTrue(task.cancelled);
+		assertEquals(1, task.uploadedSlices);
+	}
+
+	private static class SlicedTask implements UploadTask {
+		private final int sliceCount;
+		private final long sliceTime;
+		private int uploadedSlices = 0;
+		private boolean cancelled = false;
+
+		SlicedTask(int sliceCount, long sliceTime) {
+			this.sliceCount = sliceCount;
+			this.sliceTime = sliceTime;
+		}
+
+		@Override
+		public boolean uploadNextSlice() {
+			long start = System.nanoTime();
+			while (System.nanoTime() - start < sliceTime) {
+				// simulate GL work
+			}
+			return ++uploadedSlices == sliceCount;
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+		}
+	}
+
+}
@@ -0,0 +1,412 @@
+package de.eskalon.commons.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import de.eskalon.commons.LibgdxUnitTest;
+import de.eskalon.commons.event.EventBus.DispatchMode;
+import de.eskalon.commons.event.external.ExternalTestSubscriber;
+import de.eskalon.commons.index.AnnotationIndex;
+import de.eskalon.commons.index.AnnotationIndexes;
+
+public class EventBusTest extends LibgdxUnitTest {
+
+	int i = 0;
+	Throwable cause;
+
+	@Test
+	public void testDispatchModes() {
+		for (DispatchMode dispatchMode : DispatchMode.values()) {
+			i = 0;
+			cause = null;
+			testDispatchMode(dispatchMode);
+		}
+	}
+
+	private void testDispatchMode(DispatchMode dispatchMode) {
+		EventBus bus = new EventBus();
+		bus.setDispatchMode(dispatchMode);
+
+		/* Public, private & consumer subscribers */
+		bus.register(new TestSubscriber() {
+			@Override
+			public void test(TestEvent ev) {
+				i++;
+			}
+		});
+		bus.register(new PrivateTestSubscriber());
+		bus.register(TestEvent.class, (ev) -> i += 100);
+
+		bus.post(new TestEvent());
+		assertEquals(111, i);
+
+		/* Exceptions are routed to ExceptionEvents */
+		bus.register(new Object() {
+			@Subscribe
+			public void onException(ExceptionEvent ev) {
+				cause = ev.getCause();
+			}
+		});
+		bus.register(new ThrowingTestSubscriber());
+
+		bus.post(new TestEvent());
+		assertTrue(cause instanceof IllegalStateException);
+	}
+
+	@Test
+	public void testRegistrationAfterPost() {
+		EventBus bus = new EventBus();
+		bus.register(TestEvent.class, (ev) -> i++);
+
+		bus.post(new TestEvent());
+		assertEquals(1, i);
+
+		/* Subscribers for supertypes are picked up after the first post */
+		Consumer<Object> c = (ev) -> i += 10;
+		bus.register(Object.class, c);
+		bus.post(new TestEvent());
+		assertEquals(12, i);
+
+		bus.unregister(Object.class, c);
+		bus.post(new TestEvent());
+		assertEquals(13, i);
+	}
+
+	@Test
+	public void testEventTypesWithCollidingNameHashes() {
+		EventBus bus = new EventBus();
+		bus.register(Aa.class, (ev) -> i++);
+		bus.register(BB.class, (ev) -> i += 10);
+
+		// "Aa".hashCode() == "BB".hashCode()
+		assertEquals(Aa.class.getName().hashCode(),
+				BB.class.getName().hashCode());
+
+		bus.post(new Aa());
+		assertEquals(1, i);
+		bus.post(new BB());
+		assertEquals(11, i);
+	}
+
+	@Test
+	public void testConcurrentRegistration() throws InterruptedException {
+		EventBus bus = new EventBus();
+		AtomicInteger received = new AtomicInteger();
+		bus.register(TestEvent.class, (ev) -> received.incrementAndGet());
+
+		/* (Un)register subscribers while events are being dispatched */
+		AtomicBoolean running = new AtomicBoolean(true);
+		Thread registrationThread = new Thread(() -> {
+			while (running.get()) {
+				Consumer<TestEvent> c = (ev) -> {
+				};
+				bus.register(TestEvent.class, c);
+				bus.unregister(TestEvent.class, c);
+			}
+		});
+		registrationThread.start();
+
+		for (int k = 0; k < 10000; k++) {
+			bus.post(new TestEvent());
+		}
+
+		running.set(false);
+		registrationThread.join();
+
+		assertEquals(10000, received.get());
+	}
+
+	@Test
+	public void testThreadModes() {
+		List<Runnable> asyncTasks = new ArrayList<>();
+		List<Runnable> mainThreadTasks = new ArrayList<>();
+		EventBus bus = new EventBus(asyncTasks::add, mainThreadTasks::add);
+
+		bus.register(TestEvent.class, (ev) -> i++);
+		bus.register(TestEvent.class, (ev) -> i += 10, ThreadMode.ASYNC);
+		bus.register(new MainThreadTestSubscriber());
+
+		bus.post(new TestEvent());
+		assertEquals(1, i);
+		assertEquals(1, asyncTasks.size());
+		assertEquals(1, mainThreadTasks.size());
+
+		asyncTasks.get(0).run();
+		assertEquals(11, i);
+		mainThreadTasks.get(0).run();
+		assertEquals(111, i);
+
+		/* Exceptions in async subscribers are routed to ExceptionEvents */
+		bus.register(new Object() {
+			@Subscribe
+			public void onException(ExceptionEvent ev) {
+				cause = ev.getCause();
+			}
+		});
+		bus.register(TestEvent.class, (ev) -> {
+			throw new IllegalStateException();
+		}, ThreadMode.ASYNC);
+
+		asyncTasks.clear();
+		bus.post(new TestEvent());
+		asyncTasks.forEach(Runnable::run);
+		assertTrue(cause instanceof IllegalStateException);
+	}
+
+	@Test
+	public void testPriorities() {
+		EventBus bus = new EventBus();
+		bus.register(TestEvent.class, (ev) -> i = i * 10 + 1);
+		bus.register(TestEvent.class, (ev) -> i = i * 10 + 2,
+				ThreadMode.POSTING, -5);
+		bus.register(new PriorityTestSubscriber());
+		bus.register(Object.class, (ev) -> i = i * 10 + 4, ThreadMode.POSTING,
+				5);
+
+		bus.post(new TestEvent());
+		assertEquals(3412, i);
+	}
+
+	@Test
+	public void testCancellation() {
+		EventBus bus = new EventBus();
+		bus.register(CancellableTestEvent.class, (ev) -> i++);
+		bus.register(CancellableTestEvent.class, (ev) -> {
+			i += 10;
+			ev.cancel();
+		}, ThreadMode.POSTING, 1);
+		bus.register(CancellableTestEvent.class, (ev) -> i += 100,
+				ThreadMode.POSTING, 2);
+
+		CancellableTestEvent ev = new CancellableTestEvent();
+		bus.post(ev);
+		assertEquals(110, i);
+		assertTrue(ev.isCancelled());
+
+		/* Cancelled events are not dispatched at all */
+		bus.post(ev);
+		assertEquals(110, i);
+	}
+
+	@Test
+	public void testMetrics() {
+		EventBus bus = new EventBus();
+		assertNull(bus.getMetrics());
+
+		bus.setMetricsEnabled(true);
+		bus.register(TestEvent.class, (ev) -> i++);
+		bus.register(new ThrowingTestSubscriber());
+		bus.register(ExceptionEvent.class, (ev) -> {
+		});
+		bus.register(DeadEvent.class, (ev) -> {
+		});
+
+		bus.post(new TestEvent());
+		bus.post(new TestEvent());
+		bus.post(new Aa());
+
+		EventTypeMetrics metrics = bus.getMetrics()
+				.getEventTypeMetrics(TestEvent.class);
+		assertEquals(2, metrics.getPostCount());
+		assertEquals(2, metrics.getDispatchCount());
+		assertEquals(2, metrics.getSubscriberCount());
+		assertEquals(4, metrics.getHandlerTime().getCount());
+		assertTrue(metrics.getHandlerTime().getMax() <= metrics.getHandlerTime()
+				.getTotal());
+		assertEquals(2, metrics.getExceptionCount());
+		assertEquals(0, metrics.getDeadEventCount());
+
+		assertEquals(1, bus.getMetrics().getEventTypeMetrics(Aa.class)
+				.getDeadEventCount());
+		assertEquals(2, bus.getMetrics()
+				.getEventTypeMetrics(ExceptionEvent.class).getPostCount());
+		assertEquals(1, bus.getMetrics().getEventTypeMetrics(DeadEvent.class)
+				.getPostCount());
+
+		bus.getMetrics().reset();
+		assertEquals(0, metrics.getPostCount());
+		assertEquals(0, metrics.getHandlerTime().getCount());
+
+		bus.setMetricsEnabled(false);
+		assertNull(bus.getMetrics());
+	}
+
+	@Test
+	public void testLatencyHistogram() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int k = 1; k <= 100; k++)
+			histogram.record(k * 1000);
+
+		assertEquals(100, histogram.getCount());
+		assertEquals(100_000, histogram.getMax());
+		assertEquals(50_500, histogram.getMean());
+		// 50k lies within the bucket [32768, 65536)
+		assertEquals(65_535, histogram.getPercentile(0.5));
+		assertEquals(100_000, histogram.getPercentile(1));
+	}
+
+	@Test
+	public void testWeakSubscribers() throws InterruptedException {
+		for (DispatchMode dispatchMode : DispatchMode.values()) {
+			i = 0;
+			EventBus bus = new EventBus();
+			bus.setDispatchMode(dispatchMode);
+
+			TestSubscriber sub = new WeakTestSubscriber();
+			bus.registerWeakly(sub);
+			bus.registerWeakly(sub); // is ignored
+			bus.post(new TestEvent());
+			assertEquals(1, i);
+
+			/* Weak subscribers can be unregistered as usual */
+			bus.unregister(sub);
+			bus.post(new TestEvent());
+			assertEquals(1, i);
+
+			/* Collected subscribers are removed */
+			bus.registerWeakly(new WeakTestSubscriber());
+			assertEquals(1, bus.collectSubscribers(TestEvent.class).length);
+			for (int k = 0; k < 50 && bus
+					.collectSubscribers(TestEvent.class).length > 0; k++) {
+				System.gc();
+				Thread.sleep(10);
+				bus.post(new TestEvent());
+			}
+			assertEquals(0, bus.collectSubscribers(TestEvent.class).length);
+		}
+	}
+
+	@Test
+	public void testWeakSubscriberInOtherPackage() {
+		EventBus bus = new EventBus();
+		ExternalTestSubscriber sub = new ExternalTestSubscriber();
+		bus.registerWeakly(sub);
+
+		bus.post(new TestEvent());
+		assertEquals(1, sub.calls);
+		/* The generated invoker is used instead of reflection */
+		assertFalse(sub.calledReflectively);
+	}
+
+	@Test
+	public void testFindSubscribersReferencing() {
+		EventBus bus = new EventBus();
+		Object screen = new Object();
+		Object unrelatedSubscriber = new PrivateTestSubscriber();
+		Consumer<TestEvent> leakedConsumer = (ev) -> screen.hashCode();
+		bus.register(unrelatedSubscriber);
+		bus.register(TestEvent.class, leakedConsumer);
+
+		List<Object> leakedSubscribers = bus.findSubscribersReferencing(screen);
+		assertEquals(1, leakedSubscribers.size());
+		assertSame(leakedConsumer, leakedSubscribers.get(0));
+
+		bus.unregister(TestEvent.class, leakedConsumer);
+		assertTrue(bus.findSubscribersReferencing(screen).isEmpty());
+	}
+
+	@Test
+	public void testAnnotationIndex() {
+		/* Stale index entries fall back to reflection */
+		// A separate index is used, as the shared one must not be modified
+		AnnotationIndex index = AnnotationIndexes.create();
+		index.addSubscriberMethod(PriorityTestSubscriber.class.getName(),
+				"test", TestEvent.class.getName(), ThreadMode.POSTING.name(),
+				10);
+		index.addSubscriberMethod(StaleIndexTestSubscriber.class.getName(),
+				"removedMethod", TestEvent.class.getName(),
+				ThreadMode.POSTING.name(), 0);
+
+		i = 0;
+		EventBus bus = new EventBus(ForkJoinPool.commonPool(),
+				EventBus.DIRECT_EXECUTOR, index);
+		bus.register(new PriorityTestSubscriber());
+		bus.register(new StaleIndexTestSubscriber());
+
+		bus.post(new TestEvent());
+		assertEquals(3 * 10 + 1, i);
+	}
+
+	public abstract class TestSubscriber {
+		@Subscribe
+		public abstract void test(TestEvent ev);
+	}
+
+	public class PrivateTestSubscriber {
+		@Subscribe
+		private void test(TestEvent ev) {
+			i += 10;
+		}
+	}
+
+	public class MainThreadTestSubscriber {
+		@Subscribe(threadMode = ThreadMode.MAIN)
+		public void test(TestEvent ev) {
+			i += 100;
+		}
+	}
+
+	public class ThrowingTestSubscriber {
+		@Subscribe
+		public void test(TestEvent ev) {
+			throw new IllegalStateException();
+		}
+	}
+
+	public class WeakTestSubscriber extends TestSubscriber {
+		@Override
+		public void test(TestEvent ev) {
+			i++;
+		}
+	}
+
+	public class PriorityTestSubscriber {
+		@Subscribe(priority = 10)
+		public void test(TestEvent ev) {
+			i = i * 10 + 3;
+		}
+	}
+
+	public class StaleIndexTestSubscriber {
+		@Subscribe(priority = -10)
+		public void test(TestEvent ev) {
+			i = i * 10 + 1;
+		}
+	}
+
+	public class CancellableTestEvent implements Cancellable {
+		private boolean cancelled;
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return cancelled;
+		}
+	}
+
+	public class TestEvent {
+	}
+
+	public class Aa {
+	}
+
+	public class BB {
+	}
+
+}
@@ -1,12 +1,14 @@
 package de.eskalon.commons.event;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import java.util.function.Consumer;
 
 import org.junit.jupiter.api.Test;
 
 import de.eskalon.commons.LibgdxUnitTest;
+import de.eskalon.commons.event.EventQueueBus.OverflowPolicy;
 
 public class EventQueueBusTest extends LibgdxUnitTest {
 
@@ -82,6 +84,150 @@ public class EventQueueBusTest extends LibgdxUnitTest {
 		assertEquals(2, j);
 	}
 
+	@Test
+	public void testBudgetedDispatch() {
+		EventQueueBus bus = new EventQueueBus();
+		bus.register(TestEvent.class, (ev) -> i++);
+
+		for (int k = 0; k < 10; k++)
+			bus.post(new TestEvent());
+		assertEquals(10, bus.getQueueSize());
+
+		/* Event count limit */
+		bus.dispatchEvents(Long.MAX_VALUE, 4);
+		assertEquals(4, i);
+		assertEquals(4, bus.getLastDispatchedEventCount());
+		assertEquals(6, bus.getCarriedOverEventCount());
+
+		/* Time limit; at least one event is always dispatched */
+		bus.dispatchEvents(0);
+		assertEquals(5, i);
+		assertEquals(5, bus.getCarriedOverEventCount());
+
+		/* Remaining events */
+		bus.dispatchEvents();
+		assertEquals(10, i);
+		assertEquals(0, bus.getQueueSize());
+		assertEquals(0, bus.getCarriedOverEventCount());
+	}
+
+	@Test
+	public void testBoundedQueue() {
+		/* Drop oldest */
+		EventQueueBus bus = new EventQueueBus(2, OverflowPolicy.DROP_OLDEST);
+		bus.register(TestEvent.class, (ev) -> i = i * 10 + ev.integer);
+		bus.post(createEvent(1));
+		bus.post(createEvent(2));
+		bus.post(createEvent(3));
+		assertEquals(2, bus.getQueueSize());
+		bus.dispatchEvents();
+		assertEquals(23, i);
+		assertEquals(1, bus.getDroppedEventCount());
+
+		/* Drop newest */
+		i = 0;
+		bus = new EventQueueBus(2, OverflowPolicy.DROP_NEWEST);
+		bus.register(TestEvent.class, (ev) -> i = i * 10 + ev.integer);
+		bus.post(createEvent(1));
+		bus.post(createEvent(2));
+		bus.post(createEvent(3));
+		bus.dispatchEvents();
+		assertEquals(12, i);
+		assertEquals(1, bus.getDroppedEventCount());
+
+		/* Overflow event */
+		bus = new EventQueueBus(2, OverflowPolicy.POST_OVERFLOW_EVENT);
+		EventQueueOverflowEvent[] overflowEvent = new EventQueueOverflowEvent[1];
+		bus.register(EventQueueOverflowEvent.class,
+				(ev) -> overflowEvent[0] = ev);
+		TestEvent droppedEvent = createEvent(3);
+		bus.post(createEvent(1));
+		bus.post(createEvent(2));
+		bus.post(droppedEvent);
+		bus.dispatchEvents();
+		assertSame(droppedEvent, overflowEvent[0].getEvent());
+		assertEquals(1, overflowEvent[0].getDroppedEventCount());
+	}
+
+	@Test
+	public void testCoalescing() {
+		/* Annotated event type */
+		EventQueueBus bus = new EventQueueBus();
+		bus.register(CoalescedTestEvent.class, (ev) -> i = i * 10 + ev.integer);
+		bus.register(TestEvent.class, (ev) -> i = i * 10 + ev.integer);
+		bus.post(new CoalescedTestEvent(1));
+		bus.post(createEvent(2));
+		bus.post(new CoalescedTestEvent(3));
+		assertEquals(2, bus.getQueueSize());
+		bus.dispatchEvents();
+		assertEquals(32, i); // the replaced event keeps its position
+		assertEquals(1, bus.getCoalescedEventCount());
+
+		/* Events posted after the dispatch are queued again */
+		i = 0;
+		bus.post(new CoalescedTestEvent(4));
+		bus.dispatchEvents();
+		assertEquals(4, i);
+
+		/* Key extractor */
+		i = 0;
+		bus = new EventQueueBus();
+		bus.register(TestEvent.class, (ev) -> i = i * 10 + ev.integer);
+		bus.coalesce(TestEvent.class, (ev) -> ev.integer % 2);
+		for (int k = 1; k <= 6; k++)
+			bus.post(createEvent(k));
+		assertEquals(2, bus.getQueueSize());
+		bus.dispatchEvents();
+		assertEquals(56, i);
+		assertEquals(4, bus.getCoalescedEventCount());
+
+		/* Bounded queue */
+		i = 0;
+		bus = new EventQueueBus(2, OverflowPolicy.DROP_OLDEST);
+		bus.register(CoalescedTestEvent.class, (ev) -> i = i * 10 + ev.integer);
+		bus.register(TestEvent.class, (ev) -> i = i * 10 + ev.integer);
+		bus.post(new CoalescedTestEvent(1));
+		bus.post(createEvent(2));
+		bus.post(createEvent(3)); // drops the coalesced event
+		bus.post(new CoalescedTestEvent(4)); // drops 2
+		bus.dispatchEvents();
+		assertEquals(34, i);
+		assertEquals(2, bus.getDroppedEventCount());
+	}
+
+	@Test
+	public void testMetrics() {
+		EventQueueBus bus = new EventQueueBus();
+		bus.setMetricsEnabled(true);
+		bus.register(TestEvent.class, (ev) -> i++);
+		bus.register(CoalescedTestEvent.class, (ev) -> i++);
+
+		bus.post(createEvent(1));
+		bus.post(createEvent(2));
+		bus.post(new CoalescedTestEvent(3));
+		bus.post(new CoalescedTestEvent(4));
+
+		EventTypeMetrics metrics = bus.getMetrics()
+				.getEventTypeMetrics(TestEvent.class);
+		EventTypeMetrics coalescedMetrics = bus.getMetrics()
+				.getEventTypeMetrics(CoalescedTestEvent.class);
+		assertEquals(2, metrics.getPostCount());
+		assertEquals(0, metrics.getDispatchCount());
+
+		bus.dispatchEvents();
+		assertEquals(2, metrics.getDispatchCount());
+		assertEquals(2, metrics.getQueueWaitTime().getCount());
+		assertEquals(2, coalescedMetrics.getPostCount());
+		assertEquals(1, coalescedMetrics.getDispatchCount());
+		assertEquals(1, coalescedMetrics.getQueueWaitTime().getCount());
+	}
+
+	private TestEvent createEvent(int integer) {
+		TestEvent ev = new TestEvent();
+		ev.integer = integer;
+		return ev;
+	}
+
 	public abstract class TestSubscriber {
 		@Subscribe
 		public abstract void test(TestEvent ev);
@@ -91,4 +237,13 @@ public class EventQueueBusTest extends LibgdxUnitTest {
 		public int integer;
 	}
 
+	@Coalesce
+	public class CoalescedTestEvent {
+		public int integer;
+
+		public CoalescedTestEvent(int integer) {
+			this.integer = integer;
+		}
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package de.eskalon.commons.event.external;
+
+import de.eskalon.commons.event.EventBusTest.TestEvent;
+import de.eskalon.commons.event.Subscribe;
+
+/**
+ * A subscriber outside of the event bus' package.
+ */
+public class ExternalTestSubscriber {
+
+	public int calls;
+	public boolean calledReflectively;
+
+	@Subscribe
+	public void test(TestEvent ev) {
+		calls++;
+
+		for (StackTraceElement e : Thread.currentThread().getStackTrace()) {
+			if (e.getClassName().startsWith("java.lang.reflect.")
+					|| e.getClassName().startsWith("jdk.internal.reflect."))
+				calledReflectively = true;
+		}
+	}
+
+}
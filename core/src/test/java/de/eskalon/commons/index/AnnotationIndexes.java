@@ -0,0 +1,21 @@
+package de.eskalon.commons.index;
+
+/**
+ * Creates annotation indices for tests, which, unlike the
+ * {@linkplain AnnotationIndex#instance() shared index}, can be modified
+ * without affecting other tests.
+ */
+public final class AnnotationIndexes {
+
+	private AnnotationIndexes() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @return a new, empty index
+	 */
+	public static AnnotationIndex create() {
+		return new AnnotationIndex();
+	}
+
+}
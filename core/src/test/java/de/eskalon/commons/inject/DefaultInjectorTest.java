@@ -1,21 +1,42 @@
 package de.eskalon.commons.inject;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 
+import com.badlogic.gdx.utils.Disposable;
+
 import de.damios.guacamole.gdx.log.Logger;
 import de.damios.guacamole.gdx.log.LoggerService;
 import de.eskalon.commons.LibgdxUnitTest;
 import de.eskalon.commons.inject.annotations.Inject;
+import de.eskalon.commons.inject.annotations.Reloadable;
+import de.eskalon.commons.inject.annotations.ScreenScoped;
 import de.eskalon.commons.inject.annotations.Singleton;
 import de.eskalon.commons.inject.providers.LoggerProvider;
 import de.eskalon.commons.inject.providers.LoggerProvider.Log;
+import de.eskalon.commons.screens.ScreenScope;
+import de.eskalon.commons.screens.ScreenScope.Context;
 
 public class DefaultInjectorTest extends LibgdxUnitTest {
 
 	@Test
-	// Prints: ClassD cannot be resolved; ClassB cannot be resolved (for now)
+	// Prints: ClassD cannot be resolved
 	public void testInjector() {
 		/* Create injector and bindings */
 		IInjector injector = new DefaultInjector();
@@ -35,9 +56,7 @@ public class DefaultInjectorTest extends LibgdxUnitTest {
 		injector.bindToConstructor(ClassE.class);
 
 		// Provider bindings
-		//@formatter:off
-//		injector.bindToProvider(ClassB.class, ClassBProvider.class);
-		//@formatter:on
+		injector.bindToProvider(ClassB.class, ClassBProvider.class);
 
 		// Qualified provider binding
 		injector.bindToQualifiedProvider(Logger.class, Log.class,
@@ -48,14 +67,10 @@ public class DefaultInjectorTest extends LibgdxUnitTest {
 
 		/* Check the results */
 		assertEquals(47, target.classA.value);
-		//@formatter:off
-//		assertEquals(59, target.classB.value);
-		//@formatter:on
+		assertEquals(59, target.classB.value);
 		assertEquals(35, target.classC.value);
 		assertEquals(null, target.classD);
-		//@formatter:off
-//		assertEquals(59, target.classE.b.value);
-		//@formatter:on
+		assertEquals(59, target.classE.b.value);
 		System.out.println(target.classE);
 		target.classE.value = 22;
 		assertEquals(injector.getInstance(ClassE.class).value,
@@ -66,41 +81,410 @@ public class DefaultInjectorTest extends LibgdxUnitTest {
 		assertEquals(null, injector.getInstance(ClassF.class));
 	}
 
-	//@formatter:off
-//	public class ClassBProvider implements Provider<ClassB> {
-//		@Override
-//		public ClassB provide() {
-//			ClassB tmp = new ClassB();
-//			tmp.value = 59;
-//			return tmp;
-//		}
-//	}
-//
-//	public class ClassEProvider implements Provider<ClassE> {
-//		@Override
-//		@Singleton
-//		public ClassE provide() {
-//			return new ClassE();
-//		}
-//	}
-	//@formatter:on
+	@Test
+	public void testInjectionPlans() {
+		DefaultInjector injector = new DefaultInjector();
+		ClassA a = new ClassA();
+		injector.bindToInstance(ClassA.class, a);
+
+		/* Fields of super classes & private fields */
+		SubTestTarget target = injector.injectMembers(new SubTestTarget());
+		assertSame(a, target.classA);
+		assertSame(a, target.getPrivateClassA());
+		assertNull(target.classC);
+
+		/* The cached plan picks up bindings added later on */
+		ClassC c = new ClassC();
+		injector.bindToSubclass(SuperClassC.class, ClassC.class);
+		injector.bindToInstance(ClassC.class, c);
+
+		target = injector.injectMembers(new SubTestTarget());
+		assertSame(a, target.classA);
+		assertSame(c, target.classC);
+
+		/* Already set fields are not overwritten */
+		SubTestTarget target2 = new SubTestTarget();
+		ClassA a2 = new ClassA();
+		target2.classA = a2;
+		injector.injectMembers(target2);
+		assertSame(a2, target2.classA);
+
+		/* Only reloadable fields are reloaded */
+		ClassA a3 = new ClassA();
+		injector.bindToInstance(ClassA.class, a3);
+		injector.reloadMembers(target);
+		assertSame(a, target.classA);
+		assertSame(a3, target.getPrivateClassA());
+	}
+
+	@Test
+	public void testResolutionCache() {
+		DefaultInjector injector = new DefaultInjector();
+		injector.bindToQualifiedProvider(Logger.class, Log.class,
+				LoggerProvider.class);
+
+		/* Different qualifiers are resolved separately */
+		LoggerTestTarget target = injector
+				.injectMembers(new LoggerTestTarget());
+		assertEquals(LoggerService.getLogger(DefaultInjectorTest.class),
+				target.logger1);
+		assertEquals(LoggerService.getLogger(ClassA.class), target.logger2);
+
+		/* Changed bindings invalidate the cache */
+		assertNull(injector.getInstance(ClassA.class));
+		ClassA a = new ClassA();
+		injector.bindToInstance(ClassA.class, a);
+		assertSame(a, injector.getInstance(ClassA.class));
+
+		assertNull(injector.getInstance(SuperClassC.class));
+		ClassC c = new ClassC();
+		injector.bindToInstance(ClassC.class, c);
+		injector.bindToSubclass(SuperClassC.class, ClassC.class);
+		assertSame(c, injector.getInstance(SuperClassC.class));
+
+		/* Singletons created by the injector are cached */
+		injector.bindToConstructor(ClassE.class);
+		Object resolutions = injector.resolutions;
+		ClassE e = injector.getInstance(ClassE.class);
+		assertSame(e, injector.getInstance(ClassE.class));
+		// ... without invalidating the other resolutions
+		assertSame(resolutions, injector.resolutions);
+	}
+
+	@Test
+	public void testConcurrentInjection() throws InterruptedException {
+		DefaultInjector injector = new DefaultInjector();
+		injector.bindToConstructor(SlowSingleton.class);
+		ClassA a = new ClassA();
+		injector.bindToInstance(ClassA.class, a);
+		SlowSingleton.instanceCount.set(0);
+
+		int threadCount = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		ConcurrentLinkedQueue<SingletonTestTarget> targets = new ConcurrentLinkedQueue<>();
+		Thread[] threads = new Thread[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			threads[i] = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int j = 0; j < 100; j++)
+					targets.add(
+							injector.injectMembers(new SingletonTestTarget()));
+			});
+			threads[i].start();
+		}
+		start.countDown();
+		for (Thread thread : threads)
+			thread.join();
+
+		/* The singleton is only created once */
+		assertEquals(1, SlowSingleton.instanceCount.get());
+		SlowSingleton singleton = injector.getInstance(SlowSingleton.class);
+		assertEquals(threadCount * 100, targets.size());
+		for (SingletonTestTarget target : targets) {
+			assertSame(singleton, target.singleton);
+			assertSame(a, target.classA);
+		}
+	}
+
+	@Test
+	public void testProviderBindings() {
+		DefaultInjector injector = new DefaultInjector();
+		injector.bindToProvider(ClassB.class, ClassBProvider.class);
+		injector.bindToProvider(ClassE.class, ClassEProvider.class);
+
+		/* New instances */
+		ClassB b = injector.getInstance(ClassB.class);
+		assertEquals(59, b.value);
+		assertNotSame(b, injector.getInstance(ClassB.class));
+
+		/* Singletons; the provided instances get their members injected */
+		ClassE e = injector.getInstance(ClassE.class);
+		assertSame(e, injector.getInstance(ClassE.class));
+		assertEquals(59, e.b.value);
+	}
+
+	@Test
+	public void testScopes() {
+		DefaultInjector injector = new DefaultInjector();
+		injector.bindToConstructor(ScopedClass.class);
+
+		/* Without a bound scope, a new instance is created every time */
+		assertNotSame(injector.getInstance(ScopedClass.class),
+				injector.getInstance(ScopedClass.class));
+
+		ScreenScope scope = new ScreenScope();
+		injector.bindScope(ScreenScoped.class, scope);
+
+		/* Instances are shared within a context */
+		Context context1 = new Context();
+		Context context2 = new Context();
+		ScopeTestTarget target1 = scope.createWithin(context1,
+				() -> injector.injectMembers(new ScopeTestTarget()));
+		ScopeTestTarget target2 = scope.createWithin(context2,
+				() -> injector.injectMembers(new ScopeTestTarget()));
+		assertSame(target1.scoped1, target1.scoped2);
+		assertNotSame(target1.scoped1, target2.scoped1);
+
+		scope.setActiveContext(context1);
+		assertSame(target1.scoped1, injector.getInstance(ScopedClass.class));
+
+		/* Instances are disposed together with their context */
+		context1.dispose();
+		assertTrue(target1.scoped1.disposed);
+		assertFalse(target2.scoped1.disposed);
+		assertNotSame(target1.scoped1, injector.getInstance(ScopedClass.class));
+
+		/* Outside of a context, a new instance is created every time */
+		scope.setActiveContext(null);
+		assertNotSame(injector.getInstance(ScopedClass.class),
+				injector.getInstance(ScopedClass.class));
+	}
+
+	@Test
+	public void testInjectionTarget() {
+		DefaultInjector injector = new DefaultInjector();
+		ScreenScope scope = new ScreenScope();
+		injector.bindScope(ScreenScoped.class, scope);
+		injector.bindToProvider(InjectionTargetRecord.class,
+				InjectionTargetRecordProvider.class);
+		injector.bindToConstructor(ScopedRecordingClass.class);
+		injector.bindToConstructor(SingletonRecordingClass.class);
+		InjectionTargetRecordProvider.injector = injector;
+
+		assertNull(injector.getInjectionTarget());
+
+		Context context = new Context();
+		scope.setActiveContext(context);
+		ScopedRecordingClass scoped = injector
+				.getInstance(ScopedRecordingClass.class);
+
+		/* Field injection into a screen scoped instance */
+		assertEquals(ScopedRecordingClass.class, scoped.record.type);
+		assertEquals(ScreenScoped.class, scoped.record.scopeAnnotation);
+		assertSame(context, scope.getOwningContext(scoped.record.type,
+				scoped.record.scopeAnnotation));
+
+		/* Constructor injection into a singleton created for it */
+		InjectionTargetRecord singletonRecord = scoped.singleton.record;
+		assertEquals(SingletonRecordingClass.class, singletonRecord.type);
+		assertNull(singletonRecord.scopeAnnotation);
+		assertNull(scope.getOwningContext(singletonRecord.type,
+				singletonRecord.scopeAnnotation));
+
+		assertNull(injector.getInjectionTarget());
+		assertNull(injector.getInjectionTargetScope());
+	}
+
+	@Test
+	public void testBindingValidation() {
+		DefaultInjector injector = new DefaultInjector();
+		injector.bindToInstance(ClassA.class, new ClassA());
+		injector.bindToConstructor(ClassE.class);
+		injector.bindToConstructor(DependentSingleton.class);
+		injector.bindToConstructor(SlowSingleton.class);
+
+		/* Unresolvable dependencies */
+		List<String> problems = injector.validateBindings();
+		assertEquals(1, problems.size());
+		assertTrue(problems.get(0).contains("ClassB"));
+		assertTrue(problems.get(0).contains("ClassE#b"));
+
+		injector.bindToInstance(ClassB.class, new ClassB());
+		assertTrue(injector.validateBindings().isEmpty());
+
+		/* Cycles */
+		injector.bindToConstructor(CyclicClassA.class);
+		injector.bindToConstructor(CyclicClassB.class);
+		problems = injector.validateBindings();
+		assertEquals(1, problems.size());
+		assertTrue(problems.get(0).contains("CyclicClassA -> CyclicClassB"));
+		assertThrows(IllegalStateException.class,
+				() -> injector.createSingletons(null));
+	}
+
+	@Test
+	public void testSingletonCreation()
+			throws InterruptedException, ExecutionException {
+		for (boolean parallel : new boolean[] { false, true }) {
+			DefaultInjector injector = new DefaultInjector();
+			ClassA a = new ClassA();
+			injector.bindToInstance(ClassA.class, a);
+			injector.bindToConstructor(DependentSingleton.class);
+			injector.bindToConstructor(SlowSingleton.class);
+			SlowSingleton.instanceCount.set(0);
+
+			ExecutorService executor = parallel
+					? Executors.newFixedThreadPool(4)
+					: null;
+			injector.createSingletons(executor).get();
+			if (executor != null)
+				executor.shutdown();
+
+			/* The singletons were created beforehand */
+			assertEquals(1, SlowSingleton.instanceCount.get());
+			DependentSingleton singleton = injector
+					.getInstance(DependentSingleton.class);
+			assertSame(injector.getInstance(SlowSingleton.class),
+					singleton.singleton);
+			assertSame(a, singleton.classA);
+			assertEquals(1, SlowSingleton.instanceCount.get());
+		}
+	}
+
+	public static class ClassBProvider implements Provider<ClassB> {
+		@Override
+		public ClassB provide() {
+			ClassB tmp = new ClassB();
+			tmp.value = 59;
+			return tmp;
+		}
+	}
+
+	public static class ClassEProvider implements Provider<ClassE> {
+		@Override
+		@Singleton
+		public ClassE provide() {
+			return new ClassE();
+		}
+	}
 
 	public class TestTarget {
 		public @Inject ClassA classA;
-		//@formatter:off
-//		public @Inject ClassB classB;
-		//@formatter:on
+		public @Inject ClassB classB;
 		public @Inject SuperClassC classC;
 		public @Inject ClassD classD;
 		public @Inject ClassE classE;
 		public @Inject @Log(DefaultInjectorTest.class) Logger logger;
 	}
 
+	public static class SlowSingleton {
+		static final AtomicInteger instanceCount = new AtomicInteger();
+
+		@Inject
+		@Singleton
+		public SlowSingleton() throws InterruptedException {
+			instanceCount.incrementAndGet();
+			Thread.sleep(50); // give the other threads a chance to interfere
+		}
+	}
+
+	public static class DependentSingleton {
+		private final SlowSingleton singleton;
+		private @Inject ClassA classA;
+
+		@Inject
+		@Singleton
+		public DependentSingleton(SlowSingleton singleton) {
+			this.singleton = singleton;
+		}
+	}
+
+	public static class CyclicClassA {
+		@Inject
+		public CyclicClassA(CyclicClassB b) {
+			// constructor injection
+		}
+	}
+
+	public static class CyclicClassB {
+		private @Inject CyclicClassA a;
+	}
+
+	public static class ScopedClass implements Disposable {
+		private boolean disposed = false;
+
+		@Inject
+		@ScreenScoped
+		public ScopedClass() {
+			// default constructor
+		}
+
+		@Override
+		public void dispose() {
+			disposed = true;
+		}
+	}
+
+	public static class InjectionTargetRecord {
+		private final Class<?> type;
+		private final Class<? extends Annotation> scopeAnnotation;
+
+		InjectionTargetRecord(Class<?> type,
+				Class<? extends Annotation> scopeAnnotation) {
+			this.type = type;
+			this.scopeAnnotation = scopeAnnotation;
+		}
+	}
+
+	public static class InjectionTargetRecordProvider
+			implements Provider<InjectionTargetRecord> {
+		static DefaultInjector injector;
+
+		@Override
+		public InjectionTargetRecord provide() {
+			return new InjectionTargetRecord(injector.getInjectionTarget(),
+					injector.getInjectionTargetScope());
+		}
+	}
+
+	public static class ScopedRecordingClass {
+		private @Inject InjectionTargetRecord record;
+		private @Inject SingletonRecordingClass singleton;
+
+		@Inject
+		@ScreenScoped
+		public ScopedRecordingClass() {
+			// default constructor
+		}
+	}
+
+	public static class SingletonRecordingClass {
+		private final InjectionTargetRecord record;
+
+		@Inject
+		@Singleton
+		public SingletonRecordingClass(InjectionTargetRecord record) {
+			this.record = record;
+		}
+	}
+
+	public class ScopeTestTarget {
+		public @Inject ScopedClass scoped1;
+		public @Inject ScopedClass scoped2;
+	}
+
+	public class SingletonTestTarget {
+		public @Inject SlowSingleton singleton;
+		public @Inject ClassA classA;
+	}
+
+	public class LoggerTestTarget {
+		public @Inject @Log(DefaultInjectorTest.class) Logger logger1;
+		public @Inject @Log(ClassA.class) Logger logger2;
+	}
+
+	public class SubTestTarget extends SuperTestTarget {
+		public @Inject SuperClassC classC;
+	}
+
+	public class SuperTestTarget {
+		public @Inject ClassA classA;
+		private @Inject @Reloadable ClassA privateClassA;
+
+		public ClassA getPrivateClassA() {
+			return privateClassA;
+		}
+	}
+
 	public class ClassA {
 		public int value;
 	}
 
-	public class ClassB {
+	public static class ClassB {
 		public int value;
 	}
 
@@ -0,0 +1,212 @@
+package de.eskalon.commons.screens;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Disposable;
+
+import de.eskalon.commons.LibgdxUnitTest;
+import de.eskalon.commons.asset.AnnotationAssetManager;
+import de.eskalon.commons.asset.AnnotationAssetManager.Asset;
+import de.eskalon.commons.asset.AssetHotReloaderTest.TextAsset;
+import de.eskalon.commons.asset.AssetHotReloaderTest.TextAssetLoader;
+import de.eskalon.commons.asset.AssetHotReloaderTest.TextAssetProvider;
+import de.eskalon.commons.asset.AssetResidencyManager;
+import de.eskalon.commons.event.EventBus;
+import de.eskalon.commons.inject.EskalonInjector;
+import de.eskalon.commons.inject.annotations.Inject;
+import de.eskalon.commons.inject.annotations.ScreenScoped;
+
+public class EskalonScreenManagerTest extends LibgdxUnitTest {
+
+	@Test
+	public void testScreenContexts() {
+		EskalonInjector injector = EskalonInjector.instance();
+		EskalonScreenManager screenManager = createScreenManager(injector);
+		injector.bindToConstructor(ScopedResource.class);
+		injector.bindToConstructor(TestScreen.class);
+
+		/* A screen that is never pushed is not kept by the manager */
+		TestScreen unusedScreen = screenManager.createScreen(TestScreen.class);
+		assertNotNull(unusedScreen.pendingContext);
+
+		TestScreen screen1 = screenManager.createScreen(TestScreen.class);
+		TestScreen screen2 = screenManager.createScreen(TestScreen.class);
+		assertNotSame(screen1.resource, screen2.resource);
+		assertNull(screenManager.screenScope.getActiveContext());
+
+		/* Push the first screen */
+		screenManager.initializeScreen(screen1);
+		assertNull(screen1.pendingContext);
+		assertSame(screen1.resource,
+				injector.getInstance(ScopedResource.class));
+
+		/* Replace it with the second screen */
+		screenManager.initializeScreen(screen2);
+		screenManager.finalizeScreen(screen1);
+		assertTrue(screen1.resource.disposed);
+		assertFalse(screen2.resource.disposed);
+		assertSame(screen2.resource,
+				injector.getInstance(ScopedResource.class));
+
+		/* Push the second screen again while it is shown */
+		screenManager.initializeScreen(screen2);
+		screenManager.finalizeScreen(screen2);
+		assertFalse(screen2.resource.disposed);
+		assertSame(screen2.resource,
+				injector.getInstance(ScopedResource.class));
+
+		/* Push the first screen again after it was finalized */
+		screenManager.initializeScreen(screen1);
+		screenManager.finalizeScreen(screen2);
+		assertTrue(screen2.resource.disposed);
+		ScopedResource newResource = injector
+				.getInstance(ScopedResource.class);
+		assertNotSame(screen1.resource, newResource);
+
+		screenManager.initializeScreen(screen2);
+		screenManager.finalizeScreen(screen1);
+		assertTrue(newResource.disposed);
+		assertFalse(unusedScreen.resource.disposed);
+
+		EskalonInjector.reset();
+	}
+
+	@Test
+	public void testAssetRelease() throws IOException {
+		File directory = Files.createTempDirectory("assets").toFile();
+		new FileHandle(new File(directory, "screen.txt")).writeString("screen",
+				false);
+		new FileHandle(new File(directory, "other.txt")).writeString("other",
+				false);
+
+		FileHandleResolver resolver = fileName -> new FileHandle(
+				new File(directory, fileName));
+		AnnotationAssetManager aM = new AnnotationAssetManager(resolver);
+		aM.setLoader(TextAsset.class, new TextAssetLoader(resolver));
+		aM.load("screen.txt", TextAsset.class);
+		aM.load("other.txt", TextAsset.class);
+		aM.finishLoading();
+
+		EskalonInjector injector = EskalonInjector.instance();
+		EskalonScreenManager screenManager = createScreenManager(injector);
+		screenManager.assetManager = aM;
+		injector.bindToInstance(AssetManager.class, aM);
+		injector.bindToQualifiedProvider(TextAsset.class, Asset.class,
+				TextAssetProvider.class);
+		injector.bindToConstructor(ScopedResource.class);
+		injector.bindToConstructor(TestScreen.class);
+		injector.bindToConstructor(AssetScreen.class);
+
+		// Set up like in EskalonApplicationStarter
+		AssetResidencyManager residencyManager = aM.getResidencyManager();
+		residencyManager.setDefaultOwnerProvider(
+				() -> screenManager.screenScope.getOwningContext(
+						injector.getInjectionTarget(),
+						injector.getInjectionTargetScope()));
+		residencyManager.setBudget(0);
+
+		/* The assets of a screen are kept while it is shown... */
+		AssetScreen screen = screenManager.createScreen(AssetScreen.class);
+		screenManager.initializeScreen(screen);
+		assertTrue(aM.isLoaded("screen.txt"));
+
+		/* ...and unloaded once it is finalized */
+		screenManager.initializeScreen(
+				screenManager.createScreen(TestScreen.class));
+		screenManager.finalizeScreen(screen);
+		assertFalse(aM.isLoaded("screen.txt"));
+
+		/* They are loaded again when the screen is created again */
+		assertNotNull(screenManager.createScreen(AssetScreen.class).asset);
+		assertTrue(aM.isLoaded("screen.txt"));
+
+		/* Assets injected into other objects are pinned */
+		injector.injectMembers(new AssetHolder());
+		assertTrue(aM.isLoaded("other.txt"));
+
+		residencyManager.unpin("other.txt");
+		assertFalse(aM.isLoaded("other.txt"));
+
+		aM.dispose();
+		EskalonInjector.reset();
+		new FileHandle(directory).deleteDirectory();
+	}
+
+	private static EskalonScreenManager createScreenManager(
+			EskalonInjector injector) {
+		ScreenScope screenScope = new ScreenScope();
+		injector.bindScope(ScreenScoped.class, screenScope);
+
+		EskalonScreenManager screenManager = new EskalonScreenManager();
+		screenManager.eventBus = new EventBus();
+		screenManager.screenScope = screenScope;
+		screenManager.assetManager = new AnnotationAssetManager(
+				new InternalFileHandleResolver());
+		return screenManager;
+	}
+
+	public static class ScopedResource implements Disposable {
+		private boolean disposed = false;
+
+		@Inject
+		@ScreenScoped
+		public ScopedResource() {
+			// default constructor
+		}
+
+		@Override
+		public void dispose() {
+			disposed = true;
+		}
+	}
+
+	public static class AssetHolder {
+		@Asset("other.txt")
+		private @Inject TextAsset asset;
+	}
+
+	public static class AssetScreen extends AbstractEskalonScreen {
+		@Asset("screen.txt")
+		private @Inject TextAsset asset;
+
+		@Override
+		public void render(float delta) {
+			// not needed
+		}
+
+		@Override
+		public void dispose() {
+			// not needed
+		}
+	}
+
+	public static class TestScreen extends AbstractEskalonScreen {
+		private @Inject ScopedResource resource;
+
+		@Override
+		public void render(float delta) {
+			// not needed
+		}
+
+		@Override
+		public void dispose() {
+			// not needed
+		}
+	}
+
+}
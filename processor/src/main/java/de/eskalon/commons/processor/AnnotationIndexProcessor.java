@@ -0,0 +1,410 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Generates an index of the {@code @Subscribe} methods, the {@code @Inject}
+ * fields and constructors as well as the {@code @Asset} fields of all classes
+ * of a module. At runtime, the index is loaded by {@code AnnotationIndex}, so
+ * that pancake does not have to scan these classes via reflection.
+ * <p>
+ * The index is generated as implementations of
+ * {@code AnnotationIndexContributor}, which are registered as a service in
+ * {@code META-INF/services}. One contributor is generated per processing round,
+ * so that classes generated by other processors are indexed as well. All
+ * classes of the module are added to the index, even if they do not have any
+ * annotated members.
+ * <p>
+ * The annotations are referenced by name, which is why this processor does not
+ * depend on pancake's core module.
+ */
+public class AnnotationIndexProcessor extends AbstractProcessor {
+
+	static final String SUBSCRIBE = "de.eskalon.commons.event.Subscribe";
+	static final String INJECT = "de.eskalon.commons.inject.annotations.Inject";
+	static final String RELOADABLE = "de.eskalon.commons.inject.annotations.Reloadable";
+	static final String SINGLETON = "de.eskalon.commons.inject.annotations.Singleton";
+	static final String ASSET = "de.eskalon.commons.asset.AnnotationAssetManager.Asset";
+
+	static final String CONTRIBUTOR = "de.eskalon.commons.index.AnnotationIndexContributor";
+	static final String INDEX = "de.eskalon.commons.index.AnnotationIndex";
+
+	/**
+	 * The generated code is split into multiple methods so that the size limit
+	 * of methods is not exceeded.
+	 */
+	private static final int STATEMENTS_PER_METHOD = 500;
+
+	private Elements elements;
+	private Types types;
+
+	/**
+	 * The binary names of all indexed classes.
+	 */
+	private final Set<String> indexedClasses = new HashSet<>();
+	/**
+	 * The qualified names of the generated contributors.
+	 */
+	private final List<String> contributors = new ArrayList<>();
+	/**
+	 * The statements adding the classes indexed in the current round, by
+	 * binary class name.
+	 */
+	private Map<String, List<String>> statements = new LinkedHashMap<>();
+	/**
+	 * The longest package name shared by all classes indexed in the current
+	 * round; the contributor is generated in this package.
+	 */
+	private String commonPackage;
+
+	@Override
+	public synchronized void init(ProcessingEnvironment processingEnv) {
+		super.init(processingEnv);
+		this.elements = processingEnv.getElementUtils();
+		this.types = processingEnv.getTypeUtils();
+	}
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		// All classes are indexed, not only the annotated ones
+		return Collections.singleton("*");
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations,
+			RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			// Source files generated in the last round would not be
+			// processed anymore (and javac warns about it), so the index is
+			// written round by round; only the service file is written last
+			if (!contributors.isEmpty())
+				generateServiceFile();
+		} else {
+			for (TypeElement type : ElementFilter
+					.typesIn(roundEnv.getRootElements())) {
+				if (!contributors.contains(
+						type.getQualifiedName().toString()))
+					indexType(type);
+			}
+
+			if (!statements.isEmpty())
+				generateContributor();
+			statements = new LinkedHashMap<>();
+			commonPackage = null;
+		}
+
+		// Other processors may process the same annotations
+		return false;
+	}
+
+	private void indexType(TypeElement type) {
+		String className = elements.getBinaryName(type).toString();
+		if (!indexedClasses.add(className))
+			return;
+
+		List<String> typeStatements = new ArrayList<>();
+		typeStatements.add(
+				String.format("index.addClass(\"%s\");", className));
+		statements.put(className, typeStatements);
+		boolean hasInjectableConstructor = false;
+
+		for (Element member : type.getEnclosedElements()) {
+			switch (member.getKind()) {
+			case METHOD:
+				AnnotationMirror subscribe = getAnnotation(member, SUBSCRIBE);
+				if (subscribe != null) {
+					ExecutableElement method = (ExecutableElement) member;
+					if (method.getParameters().size() != 1) {
+						processingEnv.getMessager().printMessage(Kind.ERROR,
+								"Subscriber methods must have exactly 1 parameter.",
+								method);
+						break;
+					}
+
+					typeStatements.add(String.format(
+							"index.addSubscriberMethod(\"%s\", \"%s\", \"%s\", \"%s\", %d);",
+							className, method.getSimpleName(),
+							getClassName(method.getParameters().get(0)
+									.asType()),
+							getValue(subscribe, "threadMode"),
+							getValue(subscribe, "priority")));
+				}
+				break;
+			case FIELD:
+				if (getAnnotation(member, INJECT) != null) {
+					typeStatements.add(String.format(
+							"index.addInjectedField(\"%s\", \"%s\", %b);",
+							className, member.getSimpleName(),
+							getAnnotation(member, RELOADABLE) != null));
+				}
+
+				AnnotationMirror asset = getAnnotation(member, ASSET);
+				if (asset != null
+						&& !((Boolean) getValue(asset, "disabled"))) {
+					typeStatements.add(String.format(
+							"index.addAssetField(\"%s\", \"%s\", \"%s\", %s, %s);",
+							className, member.getSimpleName(),
+							getClassName(member.asType()),
+							elements.getConstantExpression(
+									getValue(asset, "value")),
+							elements.getConstantExpression(
+									getValue(asset, "params"))));
+				}
+				break;
+			case CONSTRUCTOR:
+				if (getAnnotation(member, INJECT) != null) {
+					if (!member.getModifiers().contains(Modifier.PUBLIC)) {
+						processingEnv.getMessager().printMessage(Kind.WARNING,
+								"Constructors annotated with @Inject have to be public; this one is ignored.",
+								member);
+						break;
+					}
+					if (hasInjectableConstructor) {
+						processingEnv.getMessager().printMessage(Kind.WARNING,
+								"Only one constructor per class can be annotated with @Inject; this one is ignored.",
+								member);
+						break;
+					}
+					hasInjectableConstructor = true;
+
+					StringBuilder parameterClassNames = new StringBuilder();
+					for (VariableElement parameter : ((ExecutableElement) member)
+							.getParameters()) {
+						parameterClassNames
+								.append(parameterClassNames.length() == 0
+										? "\""
+										: ", \"")
+								.append(getClassName(parameter.asType()))
+								.append('"');
+					}
+					typeStatements.add(String.format(
+							"index.addInjectableConstructor(\"%s\", new String[] {%s}, %b);",
+							className, parameterClassNames,
+							getAnnotation(member, SINGLETON) != null));
+				}
+				break;
+			case CLASS:
+			case INTERFACE:
+			case ENUM:
+				indexType((TypeElement) member);
+				break;
+			default:
+				break;
+			}
+		}
+
+		updateCommonPackage(
+				elements.getPackageOf(type).getQualifiedName().toString());
+	}
+
+	private void updateCommonPackage(String packageName) {
+		if (commonPackage == null) {
+			commonPackage = packageName;
+			return;
+		}
+
+		while (!commonPackage.isEmpty() && !packageName.equals(commonPackage)
+				&& !packageName.startsWith(commonPackage + ".")) {
+			int i = commonPackage.lastIndexOf('.');
+			commonPackage = i < 0 ? "" : commonPackage.substring(0, i);
+		}
+	}
+
+	private void generateContributor() {
+		String packageName = commonPackage;
+		String simpleName = "PancakeAnnotationIndex_" + Integer.toHexString(
+				statements.keySet().toString().hashCode());
+		String qualifiedName = packageName.isEmpty() ? simpleName
+				: packageName + "." + simpleName;
+
+		List<String> allStatements = new ArrayList<>();
+		for (List<String> typeStatements : statements.values())
+			allStatements.addAll(typeStatements);
+
+		try {
+			try (PrintWriter out = new PrintWriter(processingEnv.getFiler()
+					.createSourceFile(qualifiedName).openWriter())) {
+				if (!packageName.isEmpty()) {
+					out.printf("package %s;%n%n", packageName);
+				}
+				// The annotation is not available on Android
+				if (elements.getTypeElement(
+						"javax.annotation.processing.Generated") != null)
+					out.printf(
+							"@javax.annotation.processing.Generated(\"%s\")%n",
+							AnnotationIndexProcessor.class.getName());
+				out.printf("public final class %s implements %s {%n%n",
+						simpleName, CONTRIBUTOR);
+				out.printf("\t@Override%n");
+				out.printf("\tpublic void contribute(%s index) {%n", INDEX);
+				int methodCount = (allStatements.size()
+						+ STATEMENTS_PER_METHOD - 1) / STATEMENTS_PER_METHOD;
+				for (int i = 0; i < methodCount; i++) {
+					out.printf("\t\tcontribute%d(index);%n", i);
+				}
+				out.printf("\t}%n");
+
+				for (int i = 0; i < methodCount; i++) {
+					out.printf("%n\tprivate static void contribute%d(%s index) {%n",
+							i, INDEX);
+					for (String statement : allStatements.subList(
+							i * STATEMENTS_PER_METHOD,
+							Math.min((i + 1) * STATEMENTS_PER_METHOD,
+									allStatements.size()))) {
+						out.printf("\t\t%s%n", statement);
+					}
+					out.printf("\t}%n");
+				}
+				out.printf("%n}%n");
+			}
+
+			contributors.add(qualifiedName);
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Kind.ERROR,
+					"The annotation index could not be written: " + e);
+		}
+	}
+
+	private void generateServiceFile() {
+		try {
+			FileObject serviceFile = processingEnv.getFiler().createResource(
+					StandardLocation.CLASS_OUTPUT, "",
+					"META-INF/services/" + CONTRIBUTOR);
+			try (Writer out = serviceFile.openWriter()) {
+				for (String contributor : contributors) {
+					out.write(contributor);
+					out.write('\n');
+				}
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Kind.ERROR,
+					"The annotation index could not be written: " + e);
+		}
+	}
+
+	/**
+	 * @param type
+	 * @return the name of the given type, as returned by
+	 *         {@link Class#getName()} at runtime
+	 */
+	private String getClassName(TypeMirror type) {
+		TypeMirror erasure = types.erasure(type);
+		switch (erasure.getKind()) {
+		case DECLARED:
+			return elements.getBinaryName(
+					(TypeElement) ((DeclaredType) erasure).asElement())
+					.toString();
+		case ARRAY:
+			return "[" + getDescriptor(
+					((ArrayType) erasure).getComponentType());
+		default:
+			return erasure.toString(); // primitive types
+		}
+	}
+
+	private String getDescriptor(TypeMirror type) {
+		TypeMirror erasure = types.erasure(type);
+		switch (erasure.getKind()) {
+		case BOOLEAN:
+			return "Z";
+		case BYTE:
+			return "B";
+		case CHAR:
+			return "C";
+		case SHORT:
+			return "S";
+		case INT:
+			return "I";
+		case LONG:
+			return "J";
+		case FLOAT:
+			return "F";
+		case DOUBLE:
+			return "D";
+		case ARRAY:
+			return "[" + getDescriptor(
+					((ArrayType) erasure).getComponentType());
+		default:
+			return "L" + getClassName(erasure) + ";";
+		}
+	}
+
+	private static AnnotationMirror getAnnotation(Element element,
+			String annotationName) {
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			if (((TypeElement) mirror.getAnnotationType().asElement())
+					.getQualifiedName().contentEquals(annotationName))
+				return mirror;
+		}
+		return null;
+	}
+
+	/**
+	 * @return the value of the given annotation element, taking default
+	 *         values into account; enum constants are returned by name
+	 */
+	private Object getValue(AnnotationMirror annotation, String name) {
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e : elements
+				.getElementValuesWithDefaults(annotation).entrySet()) {
+			if (e.getKey().getSimpleName().contentEquals(name)) {
+				Object value = e.getValue().getValue();
+				if (value instanceof VariableElement)
+					return ((VariableElement) value).getSimpleName();
+				return value;
+			}
+		}
+		throw new IllegalArgumentException(
+				"The annotation " + annotation + " has no element " + name);
+	}
+
+}
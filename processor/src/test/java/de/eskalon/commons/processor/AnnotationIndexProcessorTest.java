@@ -0,0 +1,301 @@
+/*
+ * Copyright 2026 eskalon
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.eskalon.commons.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+
+public class AnnotationIndexProcessorTest {
+
+	/**
+	 * The annotations and interfaces the processor refers to. They are
+	 * declared here, as the processor does not depend on the core module.
+	 */
+	private static final String[] CORE_SOURCES = {
+			"package de.eskalon.commons.event; public enum ThreadMode { POSTING, ASYNC, MAIN }",
+			"package de.eskalon.commons.event; @java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME) public @interface Subscribe { ThreadMode threadMode() default ThreadMode.POSTING; int priority() default 0; }",
+			"package de.eskalon.commons.inject.annotations; public @interface Inject {}",
+			"package de.eskalon.commons.inject.annotations; public @interface Reloadable {}",
+			"package de.eskalon.commons.inject.annotations; public @interface Singleton {}",
+			"package de.eskalon.commons.asset; public class AnnotationAssetManager { public @interface Asset { boolean disabled() default false; String value(); String params() default \"\"; } }",
+			"package de.eskalon.commons.index; public interface AnnotationIndexContributor { void contribute(AnnotationIndex index); }",
+			"package de.eskalon.commons.index; public class AnnotationIndex { public void addClass(String c) {} public void addSubscriberMethod(String c, String m, String e, String t, int p) {} public void addInjectedField(String c, String f, boolean r) {} public void addInjectableConstructor(String c, String[] p, boolean s) {} public void addAssetField(String c, String f, String t, String p, String a) {} }" };
+
+	@Test
+	public void testIndex() {
+		CompilationResult result = compile(
+				"package com.example.game; import de.eskalon.commons.event.*; import de.eskalon.commons.inject.annotations.*;"
+						+ "public class GameScreen {"
+						+ "  @Inject @Reloadable Object skin;"
+						+ "  @Inject String name;"
+						+ "  @Inject @Singleton public GameScreen(String a, int[] b) {}"
+						+ "  @Subscribe(threadMode = ThreadMode.MAIN, priority = 5) private void onEvent(java.util.List<String> ev) {}"
+						+ "  public static class Inner { @Subscribe public void onEvent(Inner ev) {} }"
+						+ "}",
+				"package com.example.util; public class Utils {}");
+
+		assertTrue(result.success, result.diagnostics.toString());
+		// e.g. for sources generated in the last round
+		assertEquals(0, result.diagnostics.getDiagnostics().stream()
+				.filter(d -> d.getKind() == javax.tools.Diagnostic.Kind.WARNING)
+				.count(), result.diagnostics.getDiagnostics().toString());
+
+		String index = result.getGeneratedSource("com.example");
+		assertTrue(index.startsWith("package com.example;"));
+		assertTrue(index.contains("@javax.annotation.processing.Generated"));
+		assertTrue(index.contains("index.addClass(\"com.example.util.Utils\");"));
+		assertTrue(index.contains(
+				"index.addInjectedField(\"com.example.game.GameScreen\", \"skin\", true);"));
+		assertTrue(index.contains(
+				"index.addInjectedField(\"com.example.game.GameScreen\", \"name\", false);"));
+		assertTrue(index.contains(
+				"index.addInjectableConstructor(\"com.example.game.GameScreen\", new String[] {\"java.lang.String\", \"[I\"}, true);"));
+		assertTrue(index.contains(
+				"index.addSubscriberMethod(\"com.example.game.GameScreen\", \"onEvent\", \"java.util.List\", \"MAIN\", 5);"));
+		assertTrue(index.contains(
+				"index.addSubscriberMethod(\"com.example.game.GameScreen$Inner\", \"onEvent\", \"com.example.game.GameScreen$Inner\", \"POSTING\", 0);"));
+
+		String service = result.getGeneratedResource(
+				"META-INF/services/de.eskalon.commons.index.AnnotationIndexContributor");
+		assertTrue(service.startsWith("com.example.PancakeAnnotationIndex_"));
+	}
+
+	@Test
+	public void testAssetFields() {
+		CompilationResult result = compile(
+				"package com.example; import de.eskalon.commons.asset.AnnotationAssetManager.Asset;"
+						+ "public class Assets {"
+						+ "  @Asset(\"ui/logo.png\") static Object logo;"
+						+ "  @Asset(value = \"font.ttf\", params = \"fonts/\\\"Sans\\\".ttf, 12\") String font;"
+						+ "  @Asset(value = \"unused.png\", disabled = true) Object unused;"
+						+ "}");
+
+		assertTrue(result.success, result.diagnostics.toString());
+
+		String index = result.getGeneratedSource("com.example");
+		assertTrue(index.contains(
+				"index.addAssetField(\"com.example.Assets\", \"logo\", \"java.lang.Object\", \"ui/logo.png\", \"\");"));
+		assertTrue(index.contains(
+				"index.addAssetField(\"com.example.Assets\", \"font\", \"java.lang.String\", \"font.ttf\", \"fonts/\\\"Sans\\\".ttf, 12\");"));
+		assertFalse(index.contains("unused"));
+	}
+
+	@Test
+	public void testWithoutGeneratedAnnotation() {
+		// Java 8 (like Android) does not have
+		// javax.annotation.processing.Generated
+		CompilationResult result = compile(Arrays.asList("--release", "8"),
+				"package com.example; public class Utils {}");
+
+		assertTrue(result.success, result.diagnostics.toString());
+		assertFalse(result.getGeneratedSource("com.example")
+				.contains("@javax.annotation.processing.Generated"));
+	}
+
+	@Test
+	public void testInvalidSubscriberMethod() {
+		CompilationResult result = compile(
+				"package com.example; import de.eskalon.commons.event.*;"
+						+ "public class InvalidSubscriber {"
+						+ "  @Subscribe public void onEvent(Object a, Object b) {}"
+						+ "}");
+
+		assertFalse(result.success);
+		assertEquals(1, result.diagnostics.getDiagnostics().stream()
+				.filter(d -> d.getKind() == javax.tools.Diagnostic.Kind.ERROR)
+				.count());
+	}
+
+	private static CompilationResult compile(String... sources) {
+		return compile(new ArrayList<>(), sources);
+	}
+
+	private static CompilationResult compile(List<String> options,
+			String... sources) {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		StandardJavaFileManager standardFileManager = compiler
+				.getStandardFileManager(diagnostics, null, null);
+
+		try {
+			// The core classes are put on the classpath, so that they are
+			// not indexed
+			Path coreClasses = Files.createTempDirectory("pancake-core");
+			List<JavaFileObject> coreCompilationUnits = new ArrayList<>();
+			for (String source : CORE_SOURCES)
+				coreCompilationUnits.add(new SourceFile(source));
+			List<String> coreOptions = new ArrayList<>(options);
+			coreOptions.addAll(
+					Arrays.asList("-proc:none", "-d", coreClasses.toString()));
+			assertTrue(compiler.getTask(null, standardFileManager, null,
+					coreOptions, null, coreCompilationUnits).call());
+
+			List<JavaFileObject> compilationUnits = new ArrayList<>();
+			for (String source : sources)
+				compilationUnits.add(new SourceFile(source));
+
+			InMemoryFileManager fileManager = new InMemoryFileManager(
+					standardFileManager);
+			List<String> processingOptions = new ArrayList<>(options);
+			processingOptions.addAll(Arrays.asList("-proc:only", "-classpath",
+					coreClasses.toString()));
+			JavaCompiler.CompilationTask task = compiler.getTask(null,
+					fileManager, diagnostics, processingOptions, null,
+					compilationUnits);
+			task.setProcessors(Arrays.asList(new AnnotationIndexProcessor()));
+
+			return new CompilationResult(task.call(), diagnostics,
+					fileManager.outputs);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static class CompilationResult {
+		private final boolean success;
+		private final DiagnosticCollector<JavaFileObject> diagnostics;
+		private final Map<String, ByteArrayOutputStream> outputs;
+
+		CompilationResult(boolean success,
+				DiagnosticCollector<JavaFileObject> diagnostics,
+				Map<String, ByteArrayOutputStream> outputs) {
+			this.success = success;
+			this.diagnostics = diagnostics;
+			this.outputs = outputs;
+		}
+
+		String getGeneratedSource(String packageName) {
+			String prefix = packageName.replace('.', '/')
+					+ "/PancakeAnnotationIndex_";
+			for (Map.Entry<String, ByteArrayOutputStream> e : outputs
+					.entrySet()) {
+				if (e.getKey().contains(prefix)
+						&& e.getKey().endsWith(".java"))
+					return e.getValue().toString();
+			}
+			throw new AssertionError("No index was generated in package "
+					+ packageName + ": " + outputs.keySet());
+		}
+
+		String getGeneratedResource(String name) {
+			for (Map.Entry<String, ByteArrayOutputStream> e : outputs
+					.entrySet()) {
+				if (e.getKey().endsWith(name))
+					return e.getValue().toString();
+			}
+			throw new AssertionError("The resource " + name
+					+ " was not generated: " + outputs.keySet());
+		}
+	}
+
+	private static class SourceFile extends SimpleJavaFileObject {
+		private final String source;
+
+		SourceFile(String source) {
+			super(URI.create("string:///" + getClassName(source)
+					.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+			this.source = source;
+		}
+
+		private static String getClassName(String source) {
+			String packageName = source.substring(8, source.indexOf(';'));
+			String[] tokens = source.split("[\\s{]+");
+			for (int i = 0; i < tokens.length - 1; i++) {
+				if (tokens[i].equals("class") || tokens[i].equals("interface")
+						|| tokens[i].equals("enum")
+						|| tokens[i].equals("@interface"))
+					return packageName + "." + tokens[i + 1];
+			}
+			throw new IllegalArgumentException(source);
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return source;
+		}
+	}
+
+	private static class InMemoryFileManager
+			extends ForwardingJavaFileManager<StandardJavaFileManager> {
+		private final Map<String, ByteArrayOutputStream> outputs = new HashMap<>();
+
+		InMemoryFileManager(StandardJavaFileManager fileManager) {
+			super(fileManager);
+		}
+
+		@Override
+		public JavaFileObject getJavaFileForOutput(Location location,
+				String className, Kind kind, FileObject sibling) {
+			return new OutputFile(
+					URI.create("mem:///" + className.replace('.', '/')
+							+ kind.extension),
+					kind);
+		}
+
+		@Override
+		public FileObject getFileForOutput(Location location,
+				String packageName, String relativeName, FileObject sibling) {
+			return new OutputFile(URI.create("mem:///" + relativeName),
+					Kind.OTHER);
+		}
+
+		private class OutputFile extends SimpleJavaFileObject {
+			OutputFile(URI uri, Kind kind) {
+				super(uri, kind);
+			}
+
+			@Override
+			public OutputStream openOutputStream() throws IOException {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				outputs.put(toUri().toString(), out);
+				return out;
+			}
+
+			@Override
+			public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+				// Generated sources are parsed in the next round
+				return outputs.get(toUri().toString()).toString();
+			}
+		}
+	}
+
+}